@@ -32,6 +32,9 @@ import org.springframework.security.web.authentication.rememberme.TokenBasedReme
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.security.SpringSessionBackedSessionRegistry;
 import org.springframework.web.client.RestClient;
 import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import se.dtime.service.user.CustomOAuth2UserService;
@@ -85,10 +88,19 @@ public class WebSecurityConfig {
         return rememberMeServices;
     }
 
+    /**
+     * Session registry on top of the shared JDBC session store, so every node sees the sessions of all nodes.
+     */
+    @Bean
+    public <S extends Session> SpringSessionBackedSessionRegistry<S> sessionRegistry(FindByIndexNameSessionRepository<S> sessionRepository) {
+        return new SpringSessionBackedSessionRegistry<>(sessionRepository);
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
             TokenBasedRememberMeServices rememberMeServices,
+            SpringSessionBackedSessionRegistry<?> sessionRegistry,
             @Autowired(required = false) @Qualifier("authentikMachineJwtDecoder") JwtDecoder authentikMachineJwtDecoder,
             @Autowired(required = false)
             @Qualifier("authentikMachineJwtAuthenticationConverter")
@@ -111,7 +123,7 @@ public class WebSecurityConfig {
                 .logout(logout -> logout
                         .logoutUrl("/logout")
                         .permitAll()
-                        .deleteCookies("JSESSIONID", "remember-me", SwitchUserIntentSupport.COOKIE_NAME)
+                        .deleteCookies("JSESSIONID", "SESSION", "remember-me", SwitchUserIntentSupport.COOKIE_NAME)
                         .invalidateHttpSession(true)
                         .logoutSuccessHandler(oidcLogoutSuccessHandler())
                 )
@@ -160,6 +172,7 @@ public class WebSecurityConfig {
         http.sessionManagement(session -> session
                         .sessionCreationPolicy(org.springframework.security.config.http.SessionCreationPolicy.IF_REQUIRED)
                         .maximumSessions(-1) // Allow unlimited sessions for development
+                        .sessionRegistry(sessionRegistry)
                         .maxSessionsPreventsLogin(false)
                 )
                 .headers(headers -> headers
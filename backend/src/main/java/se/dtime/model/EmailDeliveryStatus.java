@@ -0,0 +1,5 @@
+package se.dtime.model;
+
+public enum EmailDeliveryStatus {
+    PENDING, SENDING, SENT, FAILED
+}
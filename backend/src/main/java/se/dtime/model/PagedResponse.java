@@ -10,6 +10,8 @@ public class PagedResponse<T> {
     private int pageSize;
     private boolean first;
     private boolean last;
+    // Set in cursor mode, where totalPages and totalElements are not counted (-1)
+    private String nextCursor;
 
     public PagedResponse() {}
 
@@ -23,6 +25,11 @@ public class PagedResponse<T> {
         this.last = last;
     }
 
+    public PagedResponse(List<T> content, int pageSize, boolean first, String nextCursor) {
+        this(content, 0, -1, -1, pageSize, first, nextCursor == null);
+        this.nextCursor = nextCursor;
+    }
+
     public List<T> getContent() {
         return content;
     }
@@ -78,4 +85,12 @@ public class PagedResponse<T> {
     public void setLast(boolean last) {
         this.last = last;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package se.dtime.model;
+
+public enum ScheduledJobRunStatus {
+    SUCCEEDED, FAILED, SKIPPED
+}
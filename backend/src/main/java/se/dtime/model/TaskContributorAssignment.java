@@ -0,0 +1,24 @@
+package se.dtime.model;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Assigns every user to every task (or revokes the assignments) in one request.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskContributorAssignment {
+    @NotEmpty
+    private List<Long> userIds;
+    @NotEmpty
+    private List<Long> taskIds;
+    @NotNull
+    private ActivationStatus activationStatus;
+}
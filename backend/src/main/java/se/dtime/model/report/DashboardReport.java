@@ -0,0 +1,25 @@
+package se.dtime.model.report;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+public class DashboardReport {
+    private final LocalDate fromDate;
+    private final LocalDate toDate;
+    private final int workableHours;
+    private List<TaskReport> taskReports;
+    private List<UserReport> userReports;
+    private List<AccountReport> accountReports;
+    private List<BillableTaskTypeReport> billableTaskTypeReports;
+
+    public DashboardReport(LocalDate fromDate, LocalDate toDate, int workableHours) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.workableHours = workableHours;
+    }
+}
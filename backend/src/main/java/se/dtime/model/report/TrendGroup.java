@@ -0,0 +1,8 @@
+package se.dtime.model.report;
+
+public enum TrendGroup {
+    ACCOUNT,
+    TASK,
+    USER,
+    BILLABLE
+}
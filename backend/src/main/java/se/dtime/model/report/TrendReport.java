@@ -0,0 +1,22 @@
+package se.dtime.model.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Monthly hours in columnar form: {@code values[i]} of every series is the hours of {@code periods[i]}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendReport {
+    private TrendGroup group;
+    private List<YearMonth> periods;
+    private List<TrendSeries> series;
+}
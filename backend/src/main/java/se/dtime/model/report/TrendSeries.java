@@ -0,0 +1,18 @@
+package se.dtime.model.report;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendSeries {
+    private Long id;
+    private String name;
+    private BigDecimal[] values;
+}
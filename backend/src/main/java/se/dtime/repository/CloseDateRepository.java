@@ -1,6 +1,7 @@
 package se.dtime.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -8,7 +9,9 @@ import se.dtime.dbmodel.UserPO;
 import se.dtime.dbmodel.timereport.CloseDatePO;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface CloseDateRepository extends JpaRepository<CloseDatePO, Long> {
@@ -18,4 +21,14 @@ public interface CloseDateRepository extends JpaRepository<CloseDatePO, Long> {
     CloseDatePO findByUserAndDate(@Param("user") UserPO userPO, @Param("date") LocalDate date);
 
     List<CloseDatePO> findByUser(@Param("user") UserPO userPO);
+
+    @Query("SELECT cd.user.id FROM CloseDate cd WHERE cd.date = :date")
+    Set<Long> findClosedUserIdsByDate(@Param("date") LocalDate date);
+
+    @Query("SELECT cd FROM CloseDate cd WHERE cd.user.id IN :userIds AND cd.date IN :dates")
+    List<CloseDatePO> findByUserIdsAndDates(@Param("userIds") Collection<Long> userIds, @Param("dates") Collection<LocalDate> dates);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.activationStatus = se.dtime.model.ActivationStatus.ACTIVE " +
+            "AND NOT EXISTS (SELECT cd FROM CloseDate cd WHERE cd.user = u AND cd.date = :date)")
+    long countActiveUsersNotClosedByDate(@Param("date") LocalDate date);
 }
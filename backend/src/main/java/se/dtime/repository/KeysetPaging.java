@@ -0,0 +1,129 @@
+package se.dtime.repository;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import se.dtime.model.error.InvalidInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Cursor (keyset) paging for the paged admin lists.
+ * <p>
+ * Instead of skipping {@code page * size} rows and counting all matches, the next page is read with
+ * {@code where (key, id) > (last key, last id) order by key, id limit size + 1}, so every page costs the same and no
+ * count query runs. The cursor is an opaque, URL safe token holding the sort property and the key and id of the last
+ * row of the previous page.
+ */
+public final class KeysetPaging {
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "\n";
+
+    public record Slice<T>(List<T> content, String nextCursor) {
+    }
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * Reads the {@code size} rows matching {@code specification} that follow {@code after} in {@code order}.
+     * A blank {@code after} starts at the first row.
+     */
+    public static <T> Slice<T> fetch(JpaSpecificationExecutor<T> repository, Specification<T> specification,
+                                     Sort.Order order, String after, int size) {
+        String property = order.getProperty();
+        Sort.Direction direction = order.getDirection();
+        Sort sort = ID.equals(property) ? Sort.by(direction, ID) : Sort.by(direction, property).and(Sort.by(direction, ID));
+
+        Specification<T> seek = after == null || after.isBlank() ? null : seek(property, direction, after);
+        List<T> rows = repository.findBy(SearchSpecifications.allOf(specification, seek),
+                query -> query.sortBy(sort).limit(size + 1).all());
+
+        if (rows.size() <= size) {
+            return new Slice<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new Slice<>(content, encode(property, content.getLast()));
+    }
+
+    private static String encode(String property, Object row) {
+        BeanWrapper beanWrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        Object key = beanWrapper.getPropertyValue(property);
+        String text = String.join(SEPARATOR, property, String.valueOf(beanWrapper.getPropertyValue(ID)),
+                key instanceof Enum<?> constant ? constant.name() : String.valueOf(key));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> seek(String property, Sort.Direction direction, String cursor) {
+        String[] parts = decode(cursor);
+        if (!property.equals(parts[0])) {
+            throw new InvalidInputException("paging.cursor.invalid");
+        }
+        long lastId = parseId(parts[1]);
+
+        return (root, query, cb) -> {
+            Path<Long> id = root.get(ID);
+            Predicate afterId = direction.isAscending() ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            if (ID.equals(property)) {
+                return afterId;
+            }
+
+            Path<Comparable> key = root.get(property);
+            Comparable lastKey = parseKey(key.getJavaType(), parts[2]);
+            Predicate afterKey = direction.isAscending() ? cb.greaterThan(key, lastKey) : cb.lessThan(key, lastKey);
+            return cb.or(afterKey, cb.and(cb.equal(key, lastKey), afterId));
+        };
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new InvalidInputException("paging.cursor.invalid");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("paging.cursor.invalid");
+        }
+    }
+
+    private static long parseId(String id) {
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            throw new InvalidInputException("paging.cursor.invalid");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparable parseKey(Class<?> type, String value) {
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return Boolean.valueOf(value);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, value);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("paging.cursor.invalid");
+        }
+        throw new InvalidInputException("paging.cursor.invalid");
+    }
+}
@@ -0,0 +1,55 @@
+package se.dtime.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import se.dtime.model.ActivationStatus;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Filter predicates for the paged admin lists. A filter that is not given yields {@code null} and is skipped by
+ * {@link #allOf(Specification[])}, so the database filters and counts exactly the rows the page is taken from.
+ * <p>
+ * Contains searches compare {@code lower(column) like '%term%'}, which the {@code pg_trgm} GIN indexes on
+ * {@code lower(...)} of the searched columns can answer.
+ */
+public final class SearchSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private SearchSpecifications() {
+    }
+
+    @SafeVarargs
+    public static <T> Specification<T> allOf(Specification<T>... specifications) {
+        return Specification.allOf(Arrays.stream(specifications).filter(Objects::nonNull).toList());
+    }
+
+    public static <T> Specification<T> hasActivationStatus(Boolean active) {
+        if (active == null) {
+            return null;
+        }
+        ActivationStatus activationStatus = active ? ActivationStatus.ACTIVE : ActivationStatus.INACTIVE;
+        return (root, query, cb) -> cb.equal(root.get("activationStatus"), activationStatus);
+    }
+
+    public static <T> Specification<T> containsIgnoreCase(String attribute, String term) {
+        if (term == null || term.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(term.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.<String>get(attribute)), pattern, LIKE_ESCAPE);
+    }
+
+    public static <T> Specification<T> hasAssociationId(String association, Long id) {
+        if (id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get(association).get("id"), id);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
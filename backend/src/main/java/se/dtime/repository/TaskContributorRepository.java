@@ -1,6 +1,7 @@
 package se.dtime.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import se.dtime.dbmodel.TaskContributorPO;
@@ -18,6 +19,13 @@ public interface TaskContributorRepository extends JpaRepository<TaskContributor
     
     List<TaskContributorPO> findByUserAndActivationStatus(@Param("user") UserPO user, @Param("activationStatus") ActivationStatus activationStatus);
 
+    /**
+     * Contributors with task and account fetched in the same statement, for building time sheets.
+     */
+    @Query("SELECT tc FROM TaskContributor tc JOIN FETCH tc.task t LEFT JOIN FETCH t.account " +
+            "WHERE tc.user = :user AND tc.activationStatus = :activationStatus")
+    List<TaskContributorPO> findTimeSheetByUserAndActivationStatus(@Param("user") UserPO user, @Param("activationStatus") ActivationStatus activationStatus);
+
     TaskContributorPO findByUserAndTask(@Param("user") UserPO user, @Param("task") TaskPO task);
 
     long countByUser(@Param("user") UserPO user);
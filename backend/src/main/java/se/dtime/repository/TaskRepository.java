@@ -3,6 +3,7 @@ package se.dtime.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,7 +15,7 @@ import se.dtime.model.TaskType;
 import java.util.List;
 
 @Repository
-public interface TaskRepository extends JpaRepository<TaskPO, Long> {
+public interface TaskRepository extends JpaRepository<TaskPO, Long>, JpaSpecificationExecutor<TaskPO> {
     List<TaskPO> findByName(String name);
 
     List<TaskPO> findByActivationStatus(@Param("activationStatus") ActivationStatus activationStatus);
@@ -23,11 +24,5 @@ public interface TaskRepository extends JpaRepository<TaskPO, Long> {
 
     List<TaskPO> findByTaskTypeAndAccount(@Param("taskType") TaskType taskType, @Param("account") AccountPO account);
 
-    Page<TaskPO> findByActivationStatus(Pageable pageable, ActivationStatus activationStatus);
-    
-    Page<TaskPO> findByAccountId(Pageable pageable, Long accountId);
-    
-    Page<TaskPO> findByActivationStatusAndAccountId(Pageable pageable, ActivationStatus activationStatus, Long accountId);
-    
     Page<TaskPO> findAll(Pageable pageable);
 }
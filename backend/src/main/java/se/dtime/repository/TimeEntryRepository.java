@@ -19,6 +19,13 @@ public interface TimeEntryRepository extends JpaRepository<TimeEntryPO, Long> {
 
     List<TimeEntryPO> findByUserAndBetweenDates(@Param("userId") long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
+    /**
+     * Time sheet rows with contributor, task and account fetched in the same statement.
+     */
+    @Query("SELECT te FROM TimeEntry te JOIN FETCH te.taskContributor tc JOIN FETCH tc.task t LEFT JOIN FETCH t.account " +
+            "WHERE tc.user.id = :userId AND te.date >= :startDate AND te.date <= :endDate ORDER BY te.date")
+    List<TimeEntryPO> findTimeSheetByUserAndBetweenDates(@Param("userId") long userId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
     long countByUserId(@Param("userId") long userId);
 
     long countByTask(@Param("taskId") long taskId);
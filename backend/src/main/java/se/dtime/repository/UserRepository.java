@@ -3,6 +3,7 @@ package se.dtime.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,7 +14,7 @@ import se.dtime.model.UserRole;
 import java.util.List;
 
 @Repository
-public interface UserRepository extends JpaRepository<UserPO, Long> {
+public interface UserRepository extends JpaRepository<UserPO, Long>, JpaSpecificationExecutor<UserPO> {
 
 
     UserPO findByEmail(String email);
@@ -23,7 +24,5 @@ public interface UserRepository extends JpaRepository<UserPO, Long> {
 
     List<UserPO> findByUserRoleAndActivationStatus(UserRole userRole, ActivationStatus activationStatus);
 
-    Page<UserPO> findByActivationStatus(Pageable pageable, ActivationStatus activationStatus);
-    
     Page<UserPO> findAll(Pageable pageable);
 }
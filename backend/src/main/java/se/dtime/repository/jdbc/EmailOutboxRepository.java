@@ -0,0 +1,131 @@
+package se.dtime.repository.jdbc;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import se.dtime.model.EmailDeliveryStatus;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable queue of emails to send. Producers enqueue all their emails in one batch and return; the
+ * {@code EmailOutboxSender} claims due rows, sends them and records the outcome on each row.
+ * <p>
+ * A claimed row is {@code SENDING} with {@code next_attempt_at} set to the end of its lease, so the rows of a node
+ * that died while sending are claimed again once the lease has run out.
+ */
+@Repository
+public class EmailOutboxRepository {
+
+    public record OutboxEmail(long id, String recipient, String subject, String body, int attempts) {
+    }
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final String ENQUEUE =
+            "insert into email_outbox (id, recipient, subject, body, status, attempts, next_attempt_at, createdatetime) " +
+                    "values (nextval('seq_email_outbox'), ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    // Rows claimed by another node are skipped instead of waited for
+    private final String CLAIM_POSTGRES =
+            "update email_outbox set status = 'SENDING', attempts = attempts + 1, next_attempt_at = ? " +
+                    "where id in (select id from email_outbox " +
+                    "where status in ('PENDING', 'SENDING') and next_attempt_at <= ? " +
+                    "order by next_attempt_at, id limit ? for update skip locked) " +
+                    "returning id, recipient, subject, body, attempts";
+
+    // Standard SQL equivalent for databases without RETURNING (H2 in tests)
+    private final String CLAIM_FINAL_TABLE =
+            "select id, recipient, subject, body, attempts from final table (" +
+                    "update email_outbox set status = 'SENDING', attempts = attempts + 1, next_attempt_at = ? " +
+                    "where id in (select id from email_outbox " +
+                    "where status in ('PENDING', 'SENDING') and next_attempt_at <= ? " +
+                    "order by next_attempt_at, id limit ?))";
+
+    private final String MARK_SENT =
+            "update email_outbox set status = 'SENT', sentdatetime = ?, last_error = null where id = ?";
+
+    private final String MARK_RETRY =
+            "update email_outbox set status = 'PENDING', next_attempt_at = ?, last_error = ? where id = ?";
+
+    private final String MARK_FAILED =
+            "update email_outbox set status = 'FAILED', last_error = ? where id = ?";
+
+    private final String COUNT_BY_STATUS =
+            "select count(*) from email_outbox where status = ?";
+
+    private final RowMapper<OutboxEmail> outboxEmailRowMapper = (rs, rowNum) -> new OutboxEmail(
+            rs.getLong("id"),
+            rs.getString("recipient"),
+            rs.getString("subject"),
+            rs.getString("body"),
+            rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public EmailOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Queues one email per recipient in one JDBC batch, due immediately.
+     */
+    public void enqueue(Collection<String> recipients, String subject, String body, LocalDateTime now) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(ENQUEUE, recipients, recipients.size(), (ps, recipient) -> {
+            ps.setString(1, recipient);
+            ps.setString(2, subject);
+            ps.setString(3, body);
+            ps.setTimestamp(4, timestamp);
+            ps.setTimestamp(5, timestamp);
+        });
+    }
+
+    /**
+     * Claims up to {@code limit} due emails, oldest first, for {@code lease} in one statement.
+     * The attempt count of the returned emails includes the attempt being claimed.
+     */
+    public List<OutboxEmail> claim(int limit, LocalDateTime now, Duration lease) {
+        return jdbcTemplate.query(isPostgres() ? CLAIM_POSTGRES : CLAIM_FINAL_TABLE, outboxEmailRowMapper,
+                Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now), limit);
+    }
+
+    public void markSent(long id, LocalDateTime now) {
+        jdbcTemplate.update(MARK_SENT, Timestamp.valueOf(now), id);
+    }
+
+    public void markRetry(long id, String error, LocalDateTime nextAttemptAt) {
+        jdbcTemplate.update(MARK_RETRY, Timestamp.valueOf(nextAttemptAt), truncate(error), id);
+    }
+
+    public void markFailed(long id, String error) {
+        jdbcTemplate.update(MARK_FAILED, truncate(error), id);
+    }
+
+    public long countByStatus(EmailDeliveryStatus status) {
+        Long count = jdbcTemplate.queryForObject(COUNT_BY_STATUS, Long.class, status.name());
+        return count == null ? 0 : count;
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -2,31 +2,30 @@
 package se.dtime.repository.jdbc;
 
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 import se.dtime.model.report.AccountReport;
 import se.dtime.model.report.BillableTaskTypeReport;
+import se.dtime.model.report.ReportType;
 import se.dtime.model.report.TaskReport;
+import se.dtime.model.report.TrendGroup;
+import se.dtime.model.report.TrendSeries;
 import se.dtime.model.report.UserReport;
-import se.dtime.model.TaskType;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.time.YearMonth;
 import java.util.List;
-import java.util.Map;
 
 @Repository
 public class ReportRepository {
 
     private final String USERS_TASK_REPORTS =
             "select u.id userId, u.displayname, u.email, c.id accountId, c.name accountName, p.id taskId, p.name taskName, p.is_billable isBillable, sum(tr.reportedtime) totalTime " +
-                    "from time_report tr " +
+                    "from {TIME_SOURCE} tr " +
                     "join task_contributor a on a.id = tr.id_task_contributor " +
                     "join users u on u.id = a.id_user " +
                     "join task p on p.id = a.id_task " +
                     "join account c on c.id = p.id_account " +
-                    "where tr.date >= ? and tr.date <= ? " +
                     "{USER_CONDITION}" +
                     "group by tr.id_task_contributor, u.id, u.displayname, u.email, c.id, c.name, p.id, p.name, p.is_billable " +
                     "having sum(tr.reportedtime) > 0 " +
@@ -35,69 +34,136 @@ public class ReportRepository {
     private final String USERS_REPORTS_NO_TIME =
             "select u.id userId, u.displayname, u.email " +
                     "from users u " +
-                    "where u.status = 'ACTIVE' and u.id not in (" +
-                    "select id_user from task_contributor a where a.id in (" +
-                    "select id_task_contributor from time_report tr " +
-                    "where " +
-                    "tr.date >= ? and tr.date <= ? " +
-                    "group by id_task_contributor))";
+                    "where u.status = 'ACTIVE' and not exists (" +
+                    "select 1 from task_contributor a " +
+                    "join time_report tr on tr.id_task_contributor = a.id " +
+                    "where a.id_user = u.id and tr.date >= ? and tr.date <= ?)";
 
     private final String TASK_REPORT =
             "select c.id accountId, c.name accountName, p.id taskId, p.name taskName, p.is_billable isBillable, sum(tr.reportedtime) totalTime " +
-                    "from time_report tr " +
+                    "from {TIME_SOURCE} tr " +
                     "join task_contributor a on a.id = tr.id_task_contributor " +
                     "join task p on p.id = a.id_task " +
                     "join account c on c.id = p.id_account " +
-                    "where tr.date >= ? and tr.date <= ? " +
                     "group by c.id, c.name, p.id, p.name, p.is_billable " +
                     "having sum(tr.reportedtime) > 0 " +
                     "order by c.name, p.name";
 
     private final String ACCOUNT_REPORT =
             "select c.id accountId, c.name accountName, sum(tr.reportedtime) totalTime " +
-                    "from time_report tr " +
+                    "from {TIME_SOURCE} tr " +
                     "join task_contributor a on a.id = tr.id_task_contributor " +
                     "join task p on p.id = a.id_task " +
                     "join account c on c.id = p.id_account " +
-                    "where tr.date >= ? and tr.date <= ? " +
                     "group by c.id, c.name " +
                     "having sum(tr.reportedtime) > 0 " +
                     "order by c.name";
 
     private final String USER_REPORTS =
             "select u.id userId, u.displayname, u.email, sum(tr.reportedtime) totalTime " +
-                    "from time_report tr " +
+                    "from {TIME_SOURCE} tr " +
                     "join task_contributor a on a.id = tr.id_task_contributor " +
                     "join users u on u.id = a.id_user " +
                     "join task p on p.id = a.id_task " +
                     "join account c on c.id = p.id_account " +
-                    "where tr.date >= ? and tr.date <= ? " +
                     "group by u.id, u.displayname, u.email " +
                     "having sum(tr.reportedtime) > 0 " +
                     "order by sum(tr.reportedtime) desc";
 
     private final String BILLABLE_TASK_TYPE_REPORT =
             "select p.task_type taskType, p.is_billable isBillable, sum(tr.reportedtime) totalTime, count(distinct p.id) taskCount " +
-                    "from time_report tr " +
+                    "from {TIME_SOURCE} tr " +
                     "join task_contributor a on a.id = tr.id_task_contributor " +
                     "join task p on p.id = a.id_task " +
-                    "where tr.date >= ? and tr.date <= ? " +
                     "group by p.task_type, p.is_billable " +
                     "having sum(tr.reportedtime) > 0 " +
                     "order by p.task_type, p.is_billable desc";
 
+    private final String ACCOUNT_TREND =
+            "select c.id seriesId, c.name seriesName, trm.month_date, sum(trm.reportedtime) totalTime " +
+                    "from time_report_month trm " +
+                    "join task_contributor a on a.id = trm.id_task_contributor " +
+                    "join task p on p.id = a.id_task " +
+                    "join account c on c.id = p.id_account " +
+                    "where trm.month_date >= ? and trm.month_date <= ? and trm.reportedtime <> 0 " +
+                    "group by c.id, c.name, trm.month_date " +
+                    "order by c.name, c.id, trm.month_date";
+
+    private final String TASK_TREND =
+            "select p.id seriesId, p.name seriesName, trm.month_date, sum(trm.reportedtime) totalTime " +
+                    "from time_report_month trm " +
+                    "join task_contributor a on a.id = trm.id_task_contributor " +
+                    "join task p on p.id = a.id_task " +
+                    "where trm.month_date >= ? and trm.month_date <= ? and trm.reportedtime <> 0 " +
+                    "group by p.id, p.name, trm.month_date " +
+                    "order by p.name, p.id, trm.month_date";
+
+    private final String USER_TREND =
+            "select u.id seriesId, u.displayname seriesName, trm.month_date, sum(trm.reportedtime) totalTime " +
+                    "from time_report_month trm " +
+                    "join task_contributor a on a.id = trm.id_task_contributor " +
+                    "join users u on u.id = a.id_user " +
+                    "where trm.month_date >= ? and trm.month_date <= ? and trm.reportedtime <> 0 " +
+                    "group by u.id, u.displayname, trm.month_date " +
+                    "order by u.displayname, u.id, trm.month_date";
+
+    private final String BILLABLE_TREND =
+            "select case when p.is_billable then 1 else 0 end seriesId, " +
+                    "case when p.is_billable then 'Billable' else 'Non-billable' end seriesName, " +
+                    "trm.month_date, sum(trm.reportedtime) totalTime " +
+                    "from time_report_month trm " +
+                    "join task_contributor a on a.id = trm.id_task_contributor " +
+                    "join task p on p.id = a.id_task " +
+                    "where trm.month_date >= ? and trm.month_date <= ? and trm.reportedtime <> 0 " +
+                    "group by case when p.is_billable then 1 else 0 end, " +
+                    "case when p.is_billable then 'Billable' else 'Non-billable' end, trm.month_date " +
+                    "order by seriesId desc, trm.month_date";
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate exportJdbcTemplate;
 
     public ReportRepository(JdbcTemplate jdbcTemplate) {
         this.jdbcTemplate = jdbcTemplate;
+        this.exportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportJdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+    }
+
+    /**
+     * Streams the raw report rows for the date range to {@code rowCallbackHandler} without materializing them.
+     * Rows are fetched from the database {@value #EXPORT_FETCH_SIZE} at a time, which requires the caller to run
+     * inside a transaction on Postgres. Column order matches {@link #getExportColumns(ReportType)}.
+     */
+    public void exportReport(ReportType reportType, LocalDate fromDate, LocalDate toDate, RowCallbackHandler rowCallbackHandler) {
+        ReportTimeSource timeSource = ReportTimeSource.of(fromDate, toDate);
+        String sql = switch (reportType) {
+            case USER_TASK -> timeSource.apply(USERS_TASK_REPORTS).replace("{USER_CONDITION}", "");
+            case TASK -> timeSource.apply(TASK_REPORT);
+            case USER -> timeSource.apply(USER_REPORTS);
+            case ACCOUNT -> timeSource.apply(ACCOUNT_REPORT);
+            case BILLABLE_TASK_TYPE -> timeSource.apply(BILLABLE_TASK_TYPE_REPORT);
+        };
+        exportJdbcTemplate.query(sql, rowCallbackHandler, timeSource.parameters());
+    }
+
+    public List<String> getExportColumns(ReportType reportType) {
+        return switch (reportType) {
+            case USER_TASK -> List.of("User id", "User", "Email", "Account id", "Account", "Task id", "Task", "Billable", "Hours");
+            case TASK -> List.of("Account id", "Account", "Task id", "Task", "Billable", "Hours");
+            case USER -> List.of("User id", "User", "Email", "Hours");
+            case ACCOUNT -> List.of("Account id", "Account", "Hours");
+            case BILLABLE_TASK_TYPE -> List.of("Task type", "Billable", "Hours", "Tasks");
+        };
     }
 
     /**
      * Users who logged time in the date range only (admin user-task report).
      */
     public List<UserReport> getUserTaskReports(LocalDate fromDate, LocalDate toDate) {
-        String sql = USERS_TASK_REPORTS.replace("{USER_CONDITION}", "");
-        return getUserTaskReports(sql, fromDate, toDate, new Object[]{fromDate, toDate});
+        ReportTimeSource timeSource = ReportTimeSource.of(fromDate, toDate);
+        String sql = timeSource.apply(USERS_TASK_REPORTS).replace("{USER_CONDITION}", "");
+        return jdbcTemplate.query(sql, ReportRowMappers.userTaskReports(fromDate, toDate), timeSource.parameters());
     }
 
     /**
@@ -106,162 +172,50 @@ public class ReportRepository {
      */
     public List<UserReport> getUserTaskReportsForUnclosedUsers(LocalDate fromDate, LocalDate toDate) {
         List<UserReport> userReports = getUserTaskReports(fromDate, toDate);
-        userReports.addAll(getUsersReportsNoReportedTime(USERS_REPORTS_NO_TIME, fromDate, toDate, new Object[]{fromDate, toDate}));
+        userReports.addAll(jdbcTemplate.query(USERS_REPORTS_NO_TIME, ReportRowMappers.userWithoutTime(fromDate, toDate), fromDate, toDate));
         return userReports;
     }
 
     public List<UserReport> getUserTaskReports(long userId, LocalDate fromDate, LocalDate toDate) {
-        String sql = USERS_TASK_REPORTS.replace("{USER_CONDITION}", "and u.id = ? ");
-        return getUserTaskReports(sql, fromDate, toDate, new Object[]{fromDate, toDate, userId});
+        ReportTimeSource timeSource = ReportTimeSource.of(fromDate, toDate);
+        String sql = timeSource.apply(USERS_TASK_REPORTS).replace("{USER_CONDITION}", "where u.id = ? ");
+        return jdbcTemplate.query(sql, ReportRowMappers.userTaskReports(fromDate, toDate), timeSource.parameters(userId));
     }
 
     /**
      * Per-user totals for the date range; only users with {@code sum(reportedtime) > 0} (admin user report).
      */
     public List<UserReport> getUserReports(LocalDate fromDate, LocalDate toDate) {
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(USER_REPORTS, fromDate, toDate);
-
-        List<UserReport> userReports = new ArrayList<>();
-        Map<Long, UserReport> userReportMap = new HashMap<>();
-        for (Map<String, Object> row : rows) {
-            long userId = (Long) row.get("userId");
-            UserReport userReport = userReportMap.get(userId);
-            if (userReport == null) {
-                userReport = new UserReport();
-                userReport.setUserId(userId);
-                userReport.setFullName((String) row.get("displayname"));
-                userReport.setEmail((String) row.get("email"));
-                userReportMap.put(userId, userReport);
-                userReports.add(userReport);
-                userReport.setFromDate(fromDate);
-                userReport.setToDate(toDate);
-            }
-
-            BigDecimal totalTime = new BigDecimal(((Number) row.get("totalTime")).toString());
-            userReport.setTotalTime(totalTime);
-        }
-
-        return userReports;
+        ReportTimeSource timeSource = ReportTimeSource.of(fromDate, toDate);
+        return jdbcTemplate.query(timeSource.apply(USER_REPORTS), ReportRowMappers.userReport(fromDate, toDate), timeSource.parameters());
     }
 
     public List<TaskReport> getTaskReports(LocalDate fromDate, LocalDate toDate) {
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(TASK_REPORT, fromDate, toDate);
-
-        List<TaskReport> taskReports = new ArrayList<>();
-        for (Map<String, Object> row : rows) {
-            TaskReport taskReport = new TaskReport();
-            taskReport.setAccountId((Long) row.get("accountId"));
-            taskReport.setAccountName((String) row.get("accountName"));
-            taskReport.setTaskId((Long) row.get("taskId"));
-            taskReport.setTaskName((String) row.get("taskName"));
-            Object isBillableObj = row.get("isBillable");
-            boolean isBillable = isBillableObj instanceof Boolean ? (Boolean) isBillableObj : 
-                                 isBillableObj instanceof Number ? ((Number) isBillableObj).intValue() == 1 : false;
-            taskReport.setIsBillable(isBillable);
-            taskReport.setTotalHours(new BigDecimal(((Number) row.get("totalTime")).toString()));
-            taskReports.add(taskReport);
-        }
-
-        return taskReports;
+        ReportTimeSource timeSource = ReportTimeSource.of(fromDate, toDate);
+        return jdbcTemplate.query(timeSource.apply(TASK_REPORT), ReportRowMappers.TASK_REPORT, timeSource.parameters());
     }
 
     public List<BillableTaskTypeReport> getBillableTaskTypeReports(LocalDate fromDate, LocalDate toDate) {
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(BILLABLE_TASK_TYPE_REPORT, fromDate, toDate);
-
-        List<BillableTaskTypeReport> billableTaskTypeReports = new ArrayList<>();
-        for (Map<String, Object> row : rows) {
-            BillableTaskTypeReport report = new BillableTaskTypeReport();
-            
-            String taskTypeStr = (String) row.get("taskType");
-            report.setTaskType(taskTypeStr != null ? TaskType.valueOf(taskTypeStr) : TaskType.NORMAL);
-            
-            Object isBillableObj = row.get("isBillable");
-            boolean isBillable = isBillableObj instanceof Boolean ? (Boolean) isBillableObj : 
-                                 isBillableObj instanceof Number ? ((Number) isBillableObj).intValue() == 1 : false;
-            report.setIsBillable(isBillable);
-            
-            report.setTotalHours(new BigDecimal(((Number) row.get("totalTime")).toString()));
-            report.setTaskCount(((Number) row.get("taskCount")).longValue());
-            
-            // Create description based on task type and billable status
-            String description = report.getTaskType().name().toLowerCase().replace('_', ' ');
-            description = description.substring(0, 1).toUpperCase() + description.substring(1);
-            description += report.getIsBillable() ? " (Billable)" : " (Non-billable)";
-            report.setDescription(description);
-            
-            billableTaskTypeReports.add(report);
-        }
-
-        return billableTaskTypeReports;
-    }
-
-    private List<UserReport> getUserTaskReports(String sql, LocalDate fromDate, LocalDate toDate, Object[] parameters) {
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, parameters);
-
-        List<UserReport> userReports = new ArrayList<>();
-        Map<Long, UserReport> userReportMap = new HashMap<>();
-        for (Map<String, Object> row : rows) {
-            long userId = (Long) row.get("userId");
-            UserReport userReport = userReportMap.get(userId);
-            if (userReport == null) {
-                userReport = new UserReport();
-                userReport.setUserId(userId);
-                userReport.setFullName((String) row.get("displayname"));
-                userReport.setEmail((String) row.get("email"));
-                userReportMap.put(userId, userReport);
-                userReports.add(userReport);
-                userReport.setFromDate(fromDate);
-                userReport.setToDate(toDate);
-            }
-
-            TaskReport taskReport = new TaskReport();
-            taskReport.setAccountId((Long) row.get("accountId"));
-            taskReport.setAccountName((String) row.get("accountName"));
-            taskReport.setTaskId((Long) row.get("taskId"));
-            taskReport.setTaskName((String) row.get("taskName"));
-            Object isBillableObj = row.get("isBillable");
-            boolean isBillable = isBillableObj instanceof Boolean ? (Boolean) isBillableObj : 
-                                 isBillableObj instanceof Number ? ((Number) isBillableObj).intValue() == 1 : false;
-            taskReport.setIsBillable(isBillable);
-            BigDecimal totalHoursTask = new BigDecimal(((Number) row.get("totalTime")).toString());
-            taskReport.setTotalHours(totalHoursTask);
-            userReport.getTaskReports().add(taskReport);
-            userReport.setTotalTime(userReport.getTotalTime().add(totalHoursTask));
-        }
-
-        return userReports;
-    }
-
-    private List<UserReport> getUsersReportsNoReportedTime(String sql, LocalDate fromDate, LocalDate toDate, Object[] parameters) {
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, parameters);
-
-        List<UserReport> userReports = new ArrayList<>();
-        for (Map<String, Object> row : rows) {
-            long userId = (Long) row.get("userId");
-            UserReport userReport = new UserReport();
-            userReport.setUserId(userId);
-            userReport.setFullName((String) row.get("displayname"));
-            userReport.setEmail((String) row.get("email"));
-            userReport.setFromDate(fromDate);
-            userReport.setToDate(toDate);
-            userReports.add(userReport);
-        }
-
-        return userReports;
+        ReportTimeSource timeSource = ReportTimeSource.of(fromDate, toDate);
+        return jdbcTemplate.query(timeSource.apply(BILLABLE_TASK_TYPE_REPORT), ReportRowMappers.BILLABLE_TASK_TYPE_REPORT, timeSource.parameters());
     }
 
     public List<AccountReport> getAccountReports(LocalDate fromDate, LocalDate toDate) {
-        List<Map<String, Object>> rows = jdbcTemplate.queryForList(ACCOUNT_REPORT, fromDate, toDate);
-
-        List<AccountReport> accountReports = new ArrayList<>();
-        for (Map<String, Object> row : rows) {
-            AccountReport accountReport = new AccountReport();
-            accountReport.setAccountId((Long) row.get("accountId"));
-            accountReport.setAccountName((String) row.get("accountName"));
-            accountReport.setTotalHours(new BigDecimal(((Number) row.get("totalTime")).toString()));
-            accountReports.add(accountReport);
-        }
+        ReportTimeSource timeSource = ReportTimeSource.of(fromDate, toDate);
+        return jdbcTemplate.query(timeSource.apply(ACCOUNT_REPORT), ReportRowMappers.ACCOUNT_REPORT, timeSource.parameters());
+    }
 
-        return accountReports;
+    /**
+     * Hours per month and series (account, task, user or billable flag) for {@code fromMonth..toMonth},
+     * read in one pass over the monthly rollup. Months without time are zero.
+     */
+    public List<TrendSeries> getTrendSeries(TrendGroup trendGroup, YearMonth fromMonth, YearMonth toMonth) {
+        String sql = switch (trendGroup) {
+            case ACCOUNT -> ACCOUNT_TREND;
+            case TASK -> TASK_TREND;
+            case USER -> USER_TREND;
+            case BILLABLE -> BILLABLE_TREND;
+        };
+        return jdbcTemplate.query(sql, ReportRowMappers.trendSeries(fromMonth, toMonth), fromMonth.atDay(1), toMonth.atDay(1));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,153 @@
+package se.dtime.repository.jdbc;
+
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import se.dtime.model.TaskType;
+import se.dtime.model.report.AccountReport;
+import se.dtime.model.report.BillableTaskTypeReport;
+import se.dtime.model.report.TaskReport;
+import se.dtime.model.report.TrendSeries;
+import se.dtime.model.report.UserReport;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Row decoding for the {@link ReportRepository} queries. Columns are read by index, so the order of
+ * the select lists in {@link ReportRepository} must match the indexes used here.
+ */
+final class ReportRowMappers {
+
+    static final RowMapper<TaskReport> TASK_REPORT = (rs, rowNum) -> {
+        TaskReport taskReport = new TaskReport();
+        taskReport.setAccountId(rs.getLong(1));
+        taskReport.setAccountName(rs.getString(2));
+        taskReport.setTaskId(rs.getLong(3));
+        taskReport.setTaskName(rs.getString(4));
+        taskReport.setIsBillable(rs.getBoolean(5));
+        taskReport.setTotalHours(rs.getBigDecimal(6));
+        return taskReport;
+    };
+
+    static final RowMapper<AccountReport> ACCOUNT_REPORT = (rs, rowNum) -> {
+        AccountReport accountReport = new AccountReport();
+        accountReport.setAccountId(rs.getLong(1));
+        accountReport.setAccountName(rs.getString(2));
+        accountReport.setTotalHours(rs.getBigDecimal(3));
+        return accountReport;
+    };
+
+    static final RowMapper<BillableTaskTypeReport> BILLABLE_TASK_TYPE_REPORT = (rs, rowNum) -> {
+        BillableTaskTypeReport report = new BillableTaskTypeReport();
+        String taskType = rs.getString(1);
+        report.setTaskType(taskType != null ? TaskType.valueOf(taskType) : TaskType.NORMAL);
+        report.setIsBillable(rs.getBoolean(2));
+        report.setTotalHours(rs.getBigDecimal(3));
+        report.setTaskCount(rs.getLong(4));
+
+        // Create description based on task type and billable status
+        String description = report.getTaskType().name().toLowerCase().replace('_', ' ');
+        description = description.substring(0, 1).toUpperCase() + description.substring(1);
+        description += report.getIsBillable() ? " (Billable)" : " (Non-billable)";
+        report.setDescription(description);
+        return report;
+    };
+
+    private ReportRowMappers() {
+    }
+
+    /**
+     * {@code userId, displayname, email, totalTime} rows, one user per row.
+     */
+    static RowMapper<UserReport> userReport(LocalDate fromDate, LocalDate toDate) {
+        return (rs, rowNum) -> {
+            UserReport userReport = newUserReport(rs, fromDate, toDate);
+            userReport.setTotalTime(rs.getBigDecimal(4));
+            return userReport;
+        };
+    }
+
+    /**
+     * {@code userId, displayname, email} rows for users without reported time.
+     */
+    static RowMapper<UserReport> userWithoutTime(LocalDate fromDate, LocalDate toDate) {
+        return (rs, rowNum) -> newUserReport(rs, fromDate, toDate);
+    }
+
+    /**
+     * Groups {@code userId, displayname, email, accountId, accountName, taskId, taskName, isBillable, totalTime}
+     * rows into one {@link UserReport} per user in a single pass, keeping the query's order.
+     */
+    static ResultSetExtractor<List<UserReport>> userTaskReports(LocalDate fromDate, LocalDate toDate) {
+        return rs -> {
+            List<UserReport> userReports = new ArrayList<>();
+            Map<Long, UserReport> userReportMap = new HashMap<>();
+            while (rs.next()) {
+                long userId = rs.getLong(1);
+                UserReport userReport = userReportMap.get(userId);
+                if (userReport == null) {
+                    userReport = newUserReport(rs, fromDate, toDate);
+                    userReportMap.put(userId, userReport);
+                    userReports.add(userReport);
+                }
+
+                TaskReport taskReport = new TaskReport();
+                taskReport.setAccountId(rs.getLong(4));
+                taskReport.setAccountName(rs.getString(5));
+                taskReport.setTaskId(rs.getLong(6));
+                taskReport.setTaskName(rs.getString(7));
+                taskReport.setIsBillable(rs.getBoolean(8));
+                BigDecimal totalHoursTask = rs.getBigDecimal(9);
+                taskReport.setTotalHours(totalHoursTask);
+                userReport.getTaskReports().add(taskReport);
+                userReport.setTotalTime(userReport.getTotalTime().add(totalHoursTask));
+            }
+            return userReports;
+        };
+    }
+
+    /**
+     * Collects {@code seriesId, seriesName, month_date, totalTime} rows into one value array per series,
+     * indexed by the month offset from {@code fromMonth}.
+     */
+    static ResultSetExtractor<List<TrendSeries>> trendSeries(YearMonth fromMonth, YearMonth toMonth) {
+        int months = (int) ChronoUnit.MONTHS.between(fromMonth, toMonth) + 1;
+        return rs -> {
+            Map<Long, TrendSeries> seriesMap = new LinkedHashMap<>();
+            while (rs.next()) {
+                long seriesId = rs.getLong(1);
+                TrendSeries series = seriesMap.get(seriesId);
+                if (series == null) {
+                    BigDecimal[] values = new BigDecimal[months];
+                    Arrays.fill(values, BigDecimal.ZERO);
+                    series = new TrendSeries(seriesId, rs.getString(2), values);
+                    seriesMap.put(seriesId, series);
+                }
+
+                YearMonth month = YearMonth.from(rs.getObject(3, LocalDate.class));
+                series.getValues()[(int) ChronoUnit.MONTHS.between(fromMonth, month)] = rs.getBigDecimal(4);
+            }
+            return new ArrayList<>(seriesMap.values());
+        };
+    }
+
+    private static UserReport newUserReport(ResultSet rs, LocalDate fromDate, LocalDate toDate) throws SQLException {
+        UserReport userReport = new UserReport();
+        userReport.setUserId(rs.getLong(1));
+        userReport.setFullName(rs.getString(2));
+        userReport.setEmail(rs.getString(3));
+        userReport.setFromDate(fromDate);
+        userReport.setToDate(toDate);
+        return userReport;
+    }
+}
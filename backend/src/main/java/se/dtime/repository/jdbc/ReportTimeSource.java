@@ -0,0 +1,75 @@
+package se.dtime.repository.jdbc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Derived table of {@code (id_task_contributor, reportedtime)} rows for a date range.
+ * Whole months are read from the {@code time_report_month} rollup, only the partial months at
+ * either end of the range are read from the raw {@code time_report} rows.
+ */
+final class ReportTimeSource {
+
+    private static final String ROLLUP_ROWS =
+            "select id_task_contributor, reportedtime from time_report_month where month_date >= ? and month_date <= ?";
+
+    private static final String RAW_ROWS =
+            "select id_task_contributor, reportedtime from time_report where date >= ? and date <= ?";
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    private ReportTimeSource(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    static ReportTimeSource of(LocalDate fromDate, LocalDate toDate) {
+        LocalDate firstMonth = fromDate.getDayOfMonth() == 1 ? fromDate : fromDate.withDayOfMonth(1).plusMonths(1);
+        LocalDate lastMonth = toDate.getDayOfMonth() == toDate.lengthOfMonth() ? toDate.withDayOfMonth(1) : toDate.withDayOfMonth(1).minusMonths(1);
+
+        List<String> selects = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if (firstMonth.isAfter(lastMonth)) {
+            selects.add(RAW_ROWS);
+            parameters.add(fromDate);
+            parameters.add(toDate);
+        } else {
+            selects.add(ROLLUP_ROWS);
+            parameters.add(firstMonth);
+            parameters.add(lastMonth);
+
+            if (fromDate.isBefore(firstMonth)) {
+                selects.add(RAW_ROWS);
+                parameters.add(fromDate);
+                parameters.add(firstMonth.minusDays(1));
+            }
+
+            LocalDate firstDayAfterRollup = lastMonth.plusMonths(1);
+            if (!toDate.isBefore(firstDayAfterRollup)) {
+                selects.add(RAW_ROWS);
+                parameters.add(firstDayAfterRollup);
+                parameters.add(toDate);
+            }
+        }
+
+        return new ReportTimeSource("(" + String.join(" union all ", selects) + ")", parameters);
+    }
+
+    /**
+     * Replaces the {@code {TIME_SOURCE}} placeholder in {@code template} with the derived table.
+     */
+    String apply(String template) {
+        return template.replace("{TIME_SOURCE}", sql);
+    }
+
+    /**
+     * Time source parameters followed by the query's own trailing parameters.
+     */
+    Object[] parameters(Object... trailing) {
+        List<Object> all = new ArrayList<>(parameters);
+        all.addAll(List.of(trailing));
+        return all.toArray();
+    }
+}
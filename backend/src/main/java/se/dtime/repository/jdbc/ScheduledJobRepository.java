@@ -0,0 +1,128 @@
+package se.dtime.repository.jdbc;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import se.dtime.model.ScheduledJobRunStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Leadership and run history of the cluster wide scheduled jobs.
+ * <p>
+ * A job run is claimed with one conditional update of the job row: of all nodes polling the same due job, only the
+ * one whose update matches the row holds the lock until it completes the run or {@code locked_until} has passed.
+ */
+@Repository
+public class ScheduledJobRepository {
+
+    public record ScheduledJobRun(String jobName, String node, LocalDateTime scheduledAt, LocalDateTime startedAt,
+                                  long durationMs, ScheduledJobRunStatus status, String error) {
+    }
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    // A job keeps its next run unless its schedule has changed
+    private final String REGISTER_POSTGRES =
+            "insert into scheduled_job (name, cron, next_run_at) values (?, ?, ?) " +
+                    "on conflict (name) do update set cron = excluded.cron, next_run_at = excluded.next_run_at " +
+                    "where scheduled_job.cron <> excluded.cron";
+
+    // Standard SQL equivalent for databases without ON CONFLICT (H2 in tests)
+    private final String REGISTER_MERGE =
+            "merge into scheduled_job t " +
+                    "using (select cast(? as varchar(100)) name, cast(? as varchar(100)) cron, cast(? as timestamp) next_run_at) s " +
+                    "on t.name = s.name " +
+                    "when matched and t.cron <> s.cron then update set cron = s.cron, next_run_at = s.next_run_at " +
+                    "when not matched then insert (name, cron, next_run_at) values (s.name, s.cron, s.next_run_at)";
+
+    private final String CLAIM_POSTGRES =
+            "update scheduled_job set locked_by = ?, locked_until = ? " +
+                    "where name = ? and next_run_at <= ? and (locked_until is null or locked_until <= ?) " +
+                    "returning next_run_at";
+
+    // Standard SQL equivalent for databases without RETURNING (H2 in tests)
+    private final String CLAIM_FINAL_TABLE =
+            "select next_run_at from final table (" +
+                    "update scheduled_job set locked_by = ?, locked_until = ? " +
+                    "where name = ? and next_run_at <= ? and (locked_until is null or locked_until <= ?))";
+
+    private final String COMPLETE =
+            "update scheduled_job set next_run_at = ?, last_run_at = ?, locked_by = null, locked_until = null " +
+                    "where name = ? and locked_by = ?";
+
+    private final String RECORD_RUN =
+            "insert into scheduled_job_run (id, job_name, node, scheduled_at, started_at, duration_ms, status, error) " +
+                    "values (nextval('seq_scheduled_job_run'), ?, ?, ?, ?, ?, ?, ?)";
+
+    private final String FIND_RUNS =
+            "select job_name, node, scheduled_at, started_at, duration_ms, status, error from scheduled_job_run " +
+                    "where job_name = ? order by started_at desc, id desc limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public ScheduledJobRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the job row on first start. On later starts the row is only reset to {@code nextRunAt} when the
+     * schedule has changed, so runs missed while all nodes were down are still due.
+     */
+    public void register(String name, String cron, LocalDateTime nextRunAt) {
+        jdbcTemplate.update(isPostgres() ? REGISTER_POSTGRES : REGISTER_MERGE, name, cron, Timestamp.valueOf(nextRunAt));
+    }
+
+    /**
+     * Claims the job for {@code node} if it is due and not locked by another node.
+     *
+     * @return the time the claimed run was scheduled for, or empty if the job is not due or runs elsewhere
+     */
+    public Optional<LocalDateTime> claim(String name, String node, LocalDateTime now, LocalDateTime lockedUntil) {
+        List<LocalDateTime> scheduledAt = jdbcTemplate.query(isPostgres() ? CLAIM_POSTGRES : CLAIM_FINAL_TABLE,
+                (rs, rowNum) -> rs.getTimestamp(1).toLocalDateTime(),
+                node, Timestamp.valueOf(lockedUntil), name, Timestamp.valueOf(now), Timestamp.valueOf(now));
+        return scheduledAt.stream().findFirst();
+    }
+
+    /**
+     * Releases the lock held by {@code node} and schedules the next run.
+     *
+     * @return false if the lock had expired and was taken over by another node
+     */
+    public boolean complete(String name, String node, LocalDateTime lastRunAt, LocalDateTime nextRunAt) {
+        return jdbcTemplate.update(COMPLETE, Timestamp.valueOf(nextRunAt), Timestamp.valueOf(lastRunAt), name, node) == 1;
+    }
+
+    public void recordRun(ScheduledJobRun run) {
+        String error = run.error() == null || run.error().length() <= MAX_ERROR_LENGTH ? run.error() : run.error().substring(0, MAX_ERROR_LENGTH);
+        jdbcTemplate.update(RECORD_RUN, run.jobName(), run.node(), Timestamp.valueOf(run.scheduledAt()),
+                Timestamp.valueOf(run.startedAt()), run.durationMs(), run.status().name(), error);
+    }
+
+    /**
+     * The latest runs of a job, newest first.
+     */
+    public List<ScheduledJobRun> findRuns(String jobName, int limit) {
+        return jdbcTemplate.query(FIND_RUNS, (rs, rowNum) -> new ScheduledJobRun(
+                rs.getString("job_name"),
+                rs.getString("node"),
+                rs.getTimestamp("scheduled_at").toLocalDateTime(),
+                rs.getTimestamp("started_at").toLocalDateTime(),
+                rs.getLong("duration_ms"),
+                ScheduledJobRunStatus.valueOf(rs.getString("status")),
+                rs.getString("error")), jobName, limit);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,140 @@
+package se.dtime.repository.jdbc;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import se.dtime.model.ActivationStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set based writes of task contributors for bulk assignment and for the cascades of deactivating or deleting users
+ * and tasks, bypassing the JPA entity life cycle.
+ * An assignment is identified by (user, task), matching the unique {@code idx_task_contributor_user} index.
+ */
+@Repository
+public class TaskContributorUpsertRepository {
+
+    public record Assignment(long userId, long taskId) {
+    }
+
+    private final String UPSERT_POSTGRES =
+            "insert into task_contributor (id, id_user, id_task, status, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "values (nextval('seq_participation'), ?, ?, ?, ?, ?, ?, ?) " +
+                    "on conflict (id_user, id_task) do update " +
+                    "set status = excluded.status, updatedatetime = excluded.updatedatetime, updatedby = excluded.updatedby";
+
+    // Standard SQL equivalent for databases without ON CONFLICT (H2 in tests)
+    private final String UPSERT_MERGE =
+            "merge into task_contributor t " +
+                    "using (select cast(? as bigint) id_user, cast(? as bigint) id_task, cast(? as varchar(20)) status, " +
+                    "cast(? as timestamp) createdatetime, cast(? as timestamp) updatedatetime, cast(? as bigint) createdby, cast(? as bigint) updatedby) s " +
+                    "on t.id_user = s.id_user and t.id_task = s.id_task " +
+                    "when matched then update set status = s.status, updatedatetime = s.updatedatetime, updatedby = s.updatedby " +
+                    "when not matched then insert (id, id_user, id_task, status, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "values (nextval('seq_participation'), s.id_user, s.id_task, s.status, s.createdatetime, s.updatedatetime, s.createdby, s.updatedby)";
+
+    private final String FIND_STATUSES =
+            "select id_user, id_task, status from task_contributor " +
+                    "where id_user in ({USER_IDS}) and id_task in ({TASK_IDS})";
+
+    private final String DEACTIVATE_BY_USER =
+            "update task_contributor set status = 'INACTIVE', updatedatetime = ?, updatedby = ? " +
+                    "where id_user = ? and status <> 'INACTIVE'";
+
+    private final String DEACTIVATE_BY_TASK =
+            "update task_contributor set status = 'INACTIVE', updatedatetime = ?, updatedby = ? " +
+                    "where id_task = ? and status <> 'INACTIVE'";
+
+    private final String DELETE_BY_TASK =
+            "delete from task_contributor where id_task = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public TaskContributorUpsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Current status of every existing assignment of the given users to the given tasks, in one query.
+     * Pairs without a row are absent from the map.
+     */
+    public Map<Assignment, ActivationStatus> findStatuses(Collection<Long> userIds, Collection<Long> taskIds) {
+        if (userIds.isEmpty() || taskIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Object> parameters = new ArrayList<>(userIds);
+        parameters.addAll(taskIds);
+        String sql = FIND_STATUSES
+                .replace("{USER_IDS}", String.join(", ", Collections.nCopies(userIds.size(), "?")))
+                .replace("{TASK_IDS}", String.join(", ", Collections.nCopies(taskIds.size(), "?")));
+
+        Map<Assignment, ActivationStatus> statuses = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            statuses.put(new Assignment(rs.getLong(1), rs.getLong(2)), ActivationStatus.valueOf(rs.getString(3)));
+        }, parameters.toArray());
+        return statuses;
+    }
+
+    /**
+     * Inserts or updates all assignments with {@code activationStatus} in one JDBC batch.
+     */
+    public void upsert(Collection<Assignment> assignments, ActivationStatus activationStatus, long userId, LocalDateTime now) {
+        if (assignments.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(isPostgres() ? UPSERT_POSTGRES : UPSERT_MERGE, assignments, assignments.size(), (ps, assignment) -> {
+            ps.setLong(1, assignment.userId());
+            ps.setLong(2, assignment.taskId());
+            ps.setString(3, activationStatus.name());
+            ps.setTimestamp(4, timestamp);
+            ps.setTimestamp(5, timestamp);
+            ps.setLong(6, userId);
+            ps.setLong(7, userId);
+        });
+    }
+
+    /**
+     * Deactivates all assignments of a user in one statement.
+     *
+     * @return the number of assignments deactivated
+     */
+    public int deactivateByUser(long userId, long changedBy, LocalDateTime now) {
+        return jdbcTemplate.update(DEACTIVATE_BY_USER, Timestamp.valueOf(now), changedBy, userId);
+    }
+
+    /**
+     * Deactivates all assignments of a task in one statement.
+     *
+     * @return the number of assignments deactivated
+     */
+    public int deactivateByTask(long taskId, long changedBy, LocalDateTime now) {
+        return jdbcTemplate.update(DEACTIVATE_BY_TASK, Timestamp.valueOf(now), changedBy, taskId);
+    }
+
+    /**
+     * Deletes all assignments of a task in one statement; their time entries must be deleted first.
+     */
+    public void deleteByTask(long taskId) {
+        jdbcTemplate.update(DELETE_BY_TASK, taskId);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -0,0 +1,248 @@
+package se.dtime.repository.jdbc;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Set based writes of time sheet cells, bypassing the JPA entity life cycle.
+ * A cell is identified by (task contributor, date), matching the {@code uc_task_contributor_date} constraint.
+ */
+@Repository
+public class TimeEntryUpsertRepository {
+
+    public record Cell(long taskContributorId, LocalDate date, BigDecimal time) {
+        public CellKey key() {
+            return new CellKey(taskContributorId, date);
+        }
+    }
+
+    public record CellKey(long taskContributorId, LocalDate date) {
+    }
+
+    private final String INSERT =
+            "insert into time_report (id, id_task_contributor, date, reportedtime, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "values (nextval('seq_timeentry'), ?, ?, ?, ?, ?, ?, ?)";
+
+    private final String UPDATE =
+            "update time_report set reportedtime = ?, updatedatetime = ?, updatedby = ? where id_task_contributor = ? and date = ?";
+
+    // Only writes when the contributor is active and the user has not closed the month
+    private final String CHECKED_CELL =
+            "select cast(? as date) entry_date, cast(? as numeric(4, 2)) reportedtime, cast(? as timestamp) changed, cast(? as bigint) changedby, tc.id id_task_contributor " +
+                    "from task_contributor tc " +
+                    "where tc.id = ? and tc.status = 'ACTIVE' " +
+                    "and not exists (select 1 from closedate cd where cd.id_user = tc.id_user and cd.date = ?)";
+
+    // Locks the current row, updates or inserts it and adds the change of time to the monthly rollup in one statement
+    private final String CHECKED_UPSERT_POSTGRES =
+            "with s as (" + CHECKED_CELL + "), " +
+                    "old as (select tr.id, tr.date, tr.reportedtime from time_report tr " +
+                    "join s on tr.id_task_contributor = s.id_task_contributor and tr.date = s.entry_date for update of tr), " +
+                    "updated as (update time_report t set reportedtime = s.reportedtime, updatedatetime = s.changed, updatedby = s.changedby " +
+                    "from s, old o where t.id = o.id and t.date = o.date " +
+                    "returning t.id, t.id_task_contributor, t.date, t.reportedtime - o.reportedtime delta), " +
+                    "inserted as (insert into time_report (id, id_task_contributor, date, reportedtime, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "select nextval('seq_timeentry'), s.id_task_contributor, s.entry_date, s.reportedtime, s.changed, s.changed, s.changedby, s.changedby " +
+                    "from s where not exists (select 1 from old) " +
+                    "returning id, id_task_contributor, date, reportedtime delta), " +
+                    "written as (select * from updated union all select * from inserted), " +
+                    "rollup as (insert into time_report_month (id_task_contributor, month_date, reportedtime) " +
+                    "select id_task_contributor, cast(date_trunc('month', date) as date), delta from written where delta <> 0 " +
+                    "on conflict (id_task_contributor, month_date) do update " +
+                    "set reportedtime = time_report_month.reportedtime + excluded.reportedtime) " +
+                    "select id from written";
+
+    private final String CHECKED_UPSERT_MERGE =
+            "select id from final table (" +
+                    "merge into time_report t " +
+                    "using (" + CHECKED_CELL + ") s " +
+                    "on t.id_task_contributor = s.id_task_contributor and t.date = s.entry_date " +
+                    "when matched then update set reportedtime = s.reportedtime, updatedatetime = s.changed, updatedby = s.changedby " +
+                    "when not matched then insert (id, id_task_contributor, date, reportedtime, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "values (nextval('seq_timeentry'), s.id_task_contributor, s.entry_date, s.reportedtime, s.changed, s.changed, s.changedby, s.changedby))";
+
+    private final String DELETE_CELL =
+            "delete from time_report where id_task_contributor = ? and date = ?";
+
+    // One chunk of a task's cells; repeated until nothing is left
+    private final String DELETE_TASK_CHUNK =
+            "delete from time_report where id in (" +
+                    "select tr.id from time_report tr join task_contributor tc on tc.id = tr.id_task_contributor " +
+                    "where tc.id_task = ? limit ?)";
+
+    private final String FIND_IDS =
+            "select id, id_task_contributor, date from time_report " +
+                    "where id_task_contributor in ({IDS}) and date >= ? and date <= ?";
+
+    private final String LOCK_TIMES =
+            "select reportedtime, id_task_contributor, date from time_report " +
+                    "where id_task_contributor in ({IDS}) and date >= ? and date <= ? for update";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimeReportMonthRepository timeReportMonthRepository;
+    private volatile Boolean postgres;
+
+    public TimeEntryUpsertRepository(JdbcTemplate jdbcTemplate, TimeReportMonthRepository timeReportMonthRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.timeReportMonthRepository = timeReportMonthRepository;
+    }
+
+    /**
+     * Current time of the given cells in one query, locking their rows until the transaction ends so the time cannot
+     * change before the caller has written the cells. Cells without a row are absent from the map.
+     */
+    public Map<CellKey, BigDecimal> lockTimes(Collection<CellKey> cells) {
+        Map<CellKey, BigDecimal> times = new HashMap<>();
+        query(LOCK_TIMES, cells, rs -> {
+            CellKey cell = new CellKey(rs.getLong(2), rs.getObject(3, LocalDate.class));
+            if (cells.contains(cell)) {
+                times.put(cell, rs.getBigDecimal(1));
+            }
+        });
+        return times;
+    }
+
+    /**
+     * Inserts all cells in one JDBC batch. A cell that already has a row, for instance one inserted by a concurrent
+     * transaction, fails the batch on the {@code uc_task_contributor_date} constraint.
+     */
+    public void insert(List<Cell> cells, long userId, LocalDateTime now) {
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT, cells, cells.size(), (ps, cell) -> {
+            ps.setLong(1, cell.taskContributorId());
+            ps.setDate(2, Date.valueOf(cell.date()));
+            ps.setBigDecimal(3, cell.time());
+            ps.setTimestamp(4, timestamp);
+            ps.setTimestamp(5, timestamp);
+            ps.setLong(6, userId);
+            ps.setLong(7, userId);
+        });
+    }
+
+    /**
+     * Updates the time of all cells in one JDBC batch; cells without a row are ignored.
+     */
+    public void update(List<Cell> cells, long userId, LocalDateTime now) {
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPDATE, cells, cells.size(), (ps, cell) -> {
+            ps.setBigDecimal(1, cell.time());
+            ps.setTimestamp(2, timestamp);
+            ps.setLong(3, userId);
+            ps.setLong(4, cell.taskContributorId());
+            ps.setDate(5, Date.valueOf(cell.date()));
+        });
+    }
+
+    /**
+     * Inserts or updates one cell and adds the change of time to the monthly rollup. On Postgres this is a single
+     * statement that also checks that the task contributor is active and that its user has not closed the month.
+     * A cell inserted by a concurrent transaction fails on the {@code uc_task_contributor_date} constraint.
+     * Must run inside the writing transaction.
+     *
+     * @return the row id, or empty when nothing was written because one of the checks failed
+     */
+    public OptionalLong upsertChecked(Cell cell, long userId, LocalDateTime now) {
+        Object[] parameters = {cell.date(), cell.time(), Timestamp.valueOf(now), userId, cell.taskContributorId(), cell.date().withDayOfMonth(1)};
+        if (isPostgres()) {
+            List<Long> ids = jdbcTemplate.queryForList(CHECKED_UPSERT_POSTGRES, Long.class, parameters);
+            return ids.isEmpty() ? OptionalLong.empty() : OptionalLong.of(ids.get(0));
+        }
+
+        BigDecimal oldTime = lockTimes(List.of(cell.key())).getOrDefault(cell.key(), BigDecimal.ZERO);
+        List<Long> ids = jdbcTemplate.queryForList(CHECKED_UPSERT_MERGE, Long.class, parameters);
+        if (ids.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        timeReportMonthRepository.add(cell.taskContributorId(), cell.date(), cell.time().subtract(oldTime));
+        return OptionalLong.of(ids.get(0));
+    }
+
+    /**
+     * Deletes all cells in one JDBC batch; cells without a row are ignored.
+     */
+    public void delete(List<Cell> cells) {
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(DELETE_CELL, cells, cells.size(), (ps, cell) -> {
+            ps.setLong(1, cell.taskContributorId());
+            ps.setDate(2, Date.valueOf(cell.date()));
+        });
+    }
+
+    /**
+     * Deletes all cells of a task, at most {@code chunkSize} rows per statement so that no statement holds its row
+     * locks for long. Outside a transaction every chunk commits on its own; nothing is loaded into memory.
+     *
+     * @return the number of rows deleted
+     */
+    public int deleteByTask(long taskId, int chunkSize) {
+        int deleted = 0;
+        int chunk;
+        do {
+            chunk = jdbcTemplate.update(DELETE_TASK_CHUNK, taskId, chunkSize);
+            deleted += chunk;
+        } while (chunk == chunkSize);
+        return deleted;
+    }
+
+    /**
+     * Row ids of the given cells in one query; cells without a row are absent from the map.
+     */
+    public Map<CellKey, Long> findIds(Collection<CellKey> cells) {
+        Map<CellKey, Long> ids = new HashMap<>();
+        query(FIND_IDS, cells, rs -> {
+            ids.put(new CellKey(rs.getLong(2), rs.getObject(3, LocalDate.class)), rs.getLong(1));
+        });
+        return ids;
+    }
+
+    // Reads the rows of the cells' contributors between the first and the last cell date
+    private void query(String sql, Collection<CellKey> cells, RowCallbackHandler rowCallbackHandler) {
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        List<Long> taskContributorIds = cells.stream().map(CellKey::taskContributorId).distinct().toList();
+        LocalDate fromDate = cells.stream().map(CellKey::date).min(LocalDate::compareTo).orElseThrow();
+        LocalDate toDate = cells.stream().map(CellKey::date).max(LocalDate::compareTo).orElseThrow();
+
+        List<Object> parameters = new ArrayList<>(taskContributorIds);
+        parameters.add(fromDate);
+        parameters.add(toDate);
+        jdbcTemplate.query(sql.replace("{IDS}", String.join(", ", Collections.nCopies(taskContributorIds.size(), "?"))),
+                rowCallbackHandler, parameters.toArray());
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
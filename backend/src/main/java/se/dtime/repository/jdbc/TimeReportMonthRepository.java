@@ -0,0 +1,130 @@
+package se.dtime.repository.jdbc;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the {@code time_report_month} rollup: reported time per task contributor and month.
+ * Writers add the change of reported time to the affected months in the same transaction as the {@code time_report}
+ * change.
+ * <p>
+ * The change is added with an upsert on the rollup primary key, so concurrent writers of the same contributor month
+ * only meet on that row: the later one waits for the earlier one to commit or roll back and then adds its change to
+ * the committed value. A month whose time drops to zero keeps its row with zero time.
+ */
+@Repository
+public class TimeReportMonthRepository {
+
+    public record ContributorMonth(long taskContributorId, LocalDate month) {
+        public static ContributorMonth of(long taskContributorId, LocalDate date) {
+            return new ContributorMonth(taskContributorId, date.withDayOfMonth(1));
+        }
+    }
+
+    private final String ADD_POSTGRES =
+            "insert into time_report_month (id_task_contributor, month_date, reportedtime) values (?, ?, ?) " +
+                    "on conflict (id_task_contributor, month_date) do update " +
+                    "set reportedtime = time_report_month.reportedtime + excluded.reportedtime";
+
+    // Databases without ON CONFLICT (H2 in tests) add to existing months and insert the months that were missing
+    private final String ADD_UPDATE =
+            "update time_report_month set reportedtime = reportedtime + ? where id_task_contributor = ? and month_date = ?";
+
+    private final String ADD_INSERT =
+            "insert into time_report_month (id_task_contributor, month_date, reportedtime) values (?, ?, ?)";
+
+    private final String DELETE_BY_TASK =
+            "delete from time_report_month where id_task_contributor in (" +
+                    "select a.id from task_contributor a where a.id_task = ?)";
+
+    private final String DELETE_ALL = "delete from time_report_month";
+
+    private final String INSERT_ALL =
+            "insert into time_report_month (id_task_contributor, month_date, reportedtime) " +
+                    "select tr.id_task_contributor, cast(date_trunc('month', tr.date) as date), sum(tr.reportedtime) " +
+                    "from time_report tr " +
+                    "group by tr.id_task_contributor, cast(date_trunc('month', tr.date) as date)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    public TimeReportMonthRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds {@code delta} to the rollup row of the contributor and the month containing {@code date}.
+     * Must run inside the writing transaction.
+     */
+    public void add(long taskContributorId, LocalDate date, BigDecimal delta) {
+        add(Map.of(ContributorMonth.of(taskContributorId, date), delta));
+    }
+
+    /**
+     * Adds the change of every contributor month in one JDBC batch; months without change are skipped.
+     * Must run inside the writing transaction.
+     */
+    public void add(Map<ContributorMonth, BigDecimal> deltas) {
+        List<Map.Entry<ContributorMonth, BigDecimal>> changes = deltas.entrySet().stream()
+                .filter(entry -> entry.getValue().signum() != 0)
+                .toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        if (isPostgres()) {
+            insert(ADD_POSTGRES, changes);
+            return;
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(ADD_UPDATE, changes, changes.size(), (ps, change) -> {
+            ps.setBigDecimal(1, change.getValue());
+            ps.setLong(2, change.getKey().taskContributorId());
+            ps.setObject(3, change.getKey().month());
+        })[0];
+        List<Map.Entry<ContributorMonth, BigDecimal>> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(changes.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            insert(ADD_INSERT, missing);
+        }
+    }
+
+    private void insert(String sql, List<Map.Entry<ContributorMonth, BigDecimal>> changes) {
+        jdbcTemplate.batchUpdate(sql, changes, changes.size(), (ps, change) -> {
+            ps.setLong(1, change.getKey().taskContributorId());
+            ps.setObject(2, change.getKey().month());
+            ps.setBigDecimal(3, change.getValue());
+        });
+    }
+
+    public void deleteByTask(long taskId) {
+        jdbcTemplate.update(DELETE_BY_TASK, taskId);
+    }
+
+    /**
+     * Rebuilds the whole rollup from {@code time_report}.
+     */
+    public void rebuild() {
+        jdbcTemplate.update(DELETE_ALL);
+        jdbcTemplate.update(INSERT_ALL);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
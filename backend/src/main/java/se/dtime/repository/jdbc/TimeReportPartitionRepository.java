@@ -0,0 +1,27 @@
+package se.dtime.repository.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Yearly range partitions of {@code time_report} (Postgres only).
+ */
+@Repository
+public class TimeReportPartitionRepository {
+
+    private final String CREATE_PARTITION = "select create_time_report_partition(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TimeReportPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the partition {@code time_report_y<year>} unless it already exists.
+     */
+    public void createYearPartition(int year) {
+        jdbcTemplate.query(CREATE_PARTITION, rs -> {
+        }, year);
+    }
+}
@@ -0,0 +1,65 @@
+package se.dtime.repository.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Vacation days per user, read with one query that only touches time reported on vacation tasks.
+ */
+@Repository
+public class VacationReportRepository {
+
+    /**
+     * Vacation days of a user in a period; bit {@code i} is set when the user reported vacation on
+     * {@code fromDate + i days}.
+     */
+    public record UserVacationDays(long userId, String name, BitSet vacationDays) {
+    }
+
+    // Every user with an active contributor on a vacation task, with the vacation dates in the period if any.
+    // Time rows are reached through the vacation contributors and uc_task_contributor_date, not by date.
+    private final String USER_VACATION_DAYS =
+            "select u.id, u.displayname, vd.date " +
+                    "from users u " +
+                    "left join (" +
+                    "select distinct tc.id_user, tr.date " +
+                    "from task t " +
+                    "join task_contributor tc on tc.id_task = t.id " +
+                    "join time_report tr on tr.id_task_contributor = tc.id and tr.date >= ? and tr.date <= ? " +
+                    "where t.task_type = 'VACATION'" +
+                    ") vd on vd.id_user = u.id " +
+                    "where exists (" +
+                    "select 1 from task_contributor tc join task t on t.id = tc.id_task " +
+                    "where tc.id_user = u.id and tc.status = 'ACTIVE' and t.task_type = 'VACATION') " +
+                    "order by u.id, vd.date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VacationReportRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<UserVacationDays> getUserVacationDays(LocalDate fromDate, LocalDate toDate) {
+        long firstEpochDay = fromDate.toEpochDay();
+        List<UserVacationDays> userVacationDays = new ArrayList<>();
+        jdbcTemplate.query(USER_VACATION_DAYS, rs -> {
+            long userId = rs.getLong(1);
+            UserVacationDays current = userVacationDays.isEmpty() ? null : userVacationDays.getLast();
+            if (current == null || current.userId() != userId) {
+                current = new UserVacationDays(userId, rs.getString(2), new BitSet());
+                userVacationDays.add(current);
+            }
+
+            LocalDate date = rs.getObject(3, LocalDate.class);
+            if (date != null) {
+                current.vacationDays().set((int) (date.toEpochDay() - firstEpochDay));
+            }
+        }, fromDate, toDate);
+        return userVacationDays;
+    }
+}
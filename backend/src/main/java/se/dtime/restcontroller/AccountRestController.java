@@ -53,13 +53,14 @@ public class AccountRestController {
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "sort", defaultValue = "name") String sort,
             @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) String after,
             @RequestParam(value = "active", required = false) Boolean active,
             @RequestParam(value = "name", required = false) String name) {
 
         Sort.Direction sortDirection = Sort.Direction.fromString(direction);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, mapSortProperty(sort)));
 
-        PagedResponse<Account> response = accountService.getAllPaged(pageable, active, name);
+        PagedResponse<Account> response = accountService.getAllPaged(pageable, after, active, name);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
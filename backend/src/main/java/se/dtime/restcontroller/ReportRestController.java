@@ -2,15 +2,25 @@ package se.dtime.restcontroller;
 
 import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import se.dtime.model.ReportDates;
 import se.dtime.model.report.BillableTaskTypeReport;
+import se.dtime.model.report.DashboardReport;
 import se.dtime.model.report.Report;
+import se.dtime.model.report.ReportExportFormat;
 import se.dtime.model.report.ReportType;
 import se.dtime.model.report.ReportView;
+import se.dtime.model.report.TrendGroup;
+import se.dtime.model.report.TrendReport;
 import se.dtime.model.timereport.CloseDate;
+import se.dtime.service.report.ReportExportService;
 import se.dtime.service.report.ReportService;
 import se.dtime.repository.jdbc.ReportRepository;
 
@@ -23,10 +33,12 @@ public class ReportRestController {
 
     private final ReportService reportService;
     private final ReportRepository reportRepository;
+    private final ReportExportService reportExportService;
 
-    public ReportRestController(ReportService reportService, ReportRepository reportRepository) {
+    public ReportRestController(ReportService reportService, ReportRepository reportRepository, ReportExportService reportExportService) {
         this.reportService = reportService;
         this.reportRepository = reportRepository;
+        this.reportExportService = reportExportService;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -40,6 +52,50 @@ public class ReportRestController {
         return new ResponseEntity<>(report, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/dashboard")
+    public ResponseEntity<DashboardReport> getDashboard(
+            @RequestParam(value = "view", required = false) ReportView reportView,
+            @RequestParam(value = "date", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        DashboardReport dashboardReport = reportService.getDashboard(reportView, date);
+        return new ResponseEntity<>(dashboardReport, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/trend")
+    public ResponseEntity<TrendReport> getTrendReport(
+            @RequestParam(value = "group") TrendGroup trendGroup,
+            @RequestParam(value = "fromDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(value = "toDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        TrendReport trendReport = reportService.getTrendReport(trendGroup, fromDate, toDate);
+        return new ResponseEntity<>(trendReport, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> exportReport(
+            @RequestParam(value = "type") ReportType reportType,
+            @RequestParam(value = "format", defaultValue = "CSV") ReportExportFormat format,
+            @RequestParam(value = "view", required = false) ReportView reportView,
+            @RequestParam(value = "date", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(value = "fromDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(value = "toDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        ReportDates reportDates = reportExportService.getExportDates(reportView, date, fromDate, toDate);
+        String fileName = reportExportService.getFileName(reportType, reportDates, format);
+
+        StreamingResponseBody body = outputStream -> reportExportService.exportReport(reportType, reportDates, format, outputStream);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
     @PreAuthorize("hasRole('USER')")
     @GetMapping(path = "/user")
     public ResponseEntity<Report> getUserReport(
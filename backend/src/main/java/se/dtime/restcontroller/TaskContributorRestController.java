@@ -7,6 +7,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import se.dtime.model.Attribute;
 import se.dtime.model.TaskContributor;
+import se.dtime.model.TaskContributorAssignment;
 import se.dtime.service.taskcontributor.TaskContributorService;
 import se.dtime.service.taskcontributor.TaskContributorValidator;
 
@@ -32,6 +33,12 @@ public class TaskContributorRestController {
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/bulk")
+    public ResponseEntity<Integer> assign(@Valid @RequestBody TaskContributorAssignment assignment) {
+        return new ResponseEntity<>(taskContributorService.assign(assignment), HttpStatus.OK);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping(path = "/{userId}")
     public ResponseEntity<List<TaskContributor>> get(@PathVariable long userId) {
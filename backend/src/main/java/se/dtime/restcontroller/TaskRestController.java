@@ -53,6 +53,7 @@ public class TaskRestController {
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "sort", defaultValue = "name") String sort,
             @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) String after,
             @RequestParam(value = "active", required = false) Boolean active,
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "accountId", required = false) Long accountId) {
@@ -60,7 +61,7 @@ public class TaskRestController {
         Sort.Direction sortDirection = Sort.Direction.fromString(direction);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, mapSortProperty(sort)));
 
-        PagedResponse<Task> response = taskService.getAllPaged(pageable, active, name, accountId);
+        PagedResponse<Task> response = taskService.getAllPaged(pageable, after, active, name, accountId);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -13,6 +13,7 @@ import se.dtime.model.timereport.VacationReport;
 import se.dtime.service.timeentry.TimeEntryService;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/timereport")
@@ -29,6 +30,12 @@ public class TimeReportRestController {
         return timeEntryService.addOrUpdate(timeEntry);
     }
 
+    @PreAuthorize("hasRole('USER')")
+    @PostMapping(path = "/batch")
+    public List<Long> addOrUpdateBatch(@RequestBody List<TimeEntry> timeEntries) {
+        return timeEntryService.addOrUpdateBatch(timeEntries);
+    }
+
     @PreAuthorize("hasRole('USER')")
     @GetMapping(path = "")
     public ResponseEntity<TimeReport> getTimeReport(
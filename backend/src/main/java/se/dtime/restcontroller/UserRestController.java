@@ -34,6 +34,7 @@ public class UserRestController {
             @RequestParam(value = "size", defaultValue = "10") int size,
             @RequestParam(value = "sort", defaultValue = "firstName") String sort,
             @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "after", required = false) String after,
             @RequestParam(value = "active", required = false) Boolean active,
             @RequestParam(value = "firstName", required = false) String firstName,
             @RequestParam(value = "lastName", required = false) String lastName) {
@@ -42,7 +43,7 @@ public class UserRestController {
         String sortProperty = mapSortProperty(sort);
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortProperty));
 
-        PagedResponse<User> response = userService.getAllPaged(pageable, active, firstName, lastName);
+        PagedResponse<User> response = userService.getAllPaged(pageable, after, active, firstName, lastName);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
@@ -1,12 +1,9 @@
 package se.dtime.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
 import se.dtime.dbmodel.BasePO;
-import se.dtime.dbmodel.UserPO;
-import se.dtime.model.UserExt;
-import se.dtime.repository.UserRepository;
 import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.user.CurrentUserResolver;
 
 import java.time.LocalDateTime;
 
@@ -14,30 +11,22 @@ public abstract class BaseConverter {
     @Autowired
     private CalendarService calendarService;
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserResolver currentUserResolver;
 
     public void updateBaseData(BasePO basePO) {
         LocalDateTime now = calendarService.getNowDateTime();
         basePO.setCreateDateTime(now);
         basePO.setUpdatedDateTime(now);
 
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        long userId;
-        
-        if (principal instanceof UserExt userExt) {
-            userId = userExt.getId();
-        } else {
-            // For test scenarios with mock users, try to find by authentication name
-            String username = SecurityContextHolder.getContext().getAuthentication().getName();
-            UserPO userPO = userRepository.findByEmail(username);
-            if (userPO != null) {
-                userId = userPO.getId();
-            } else {
-                userId = 1L; // Fallback when no authenticated user is resolved (e.g. tests)
-            }
-        }
-        
+        long userId = resolveCurrentUserId();
         basePO.setUpdatedBy(userId);
         basePO.setCreatedBy(userId);
     }
+
+    /**
+     * Id of the authenticated user, used for the created/updated by audit columns.
+     */
+    public long resolveCurrentUserId() {
+        return currentUserResolver.resolveCurrentUserId();
+    }
 }
@@ -3,6 +3,7 @@ package se.dtime.service.account;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import se.dtime.dbmodel.AccountPO;
 import se.dtime.model.Account;
@@ -10,6 +11,9 @@ import se.dtime.model.ActivationStatus;
 import se.dtime.model.PagedResponse;
 import se.dtime.model.error.NotFoundException;
 import se.dtime.repository.AccountRepository;
+import se.dtime.repository.KeysetPaging;
+import se.dtime.repository.SearchSpecifications;
+import se.dtime.service.report.ReportCache;
 
 import java.util.Arrays;
 import java.util.List;
@@ -19,11 +23,13 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountConverter accountConverter;
     private final AccountValidator accountValidator;
+    private final ReportCache reportCache;
 
-    public AccountService(AccountRepository accountRepository, AccountConverter accountConverter, AccountValidator accountValidator) {
+    public AccountService(AccountRepository accountRepository, AccountConverter accountConverter, AccountValidator accountValidator, ReportCache reportCache) {
         this.accountRepository = accountRepository;
         this.accountConverter = accountConverter;
         this.accountValidator = accountValidator;
+        this.reportCache = reportCache;
     }
 
     public Account add(Account account) {
@@ -37,6 +43,8 @@ public class AccountService {
         accountValidator.validateUpdate(account);
         AccountPO accountPO = accountConverter.toPO(account);
         accountRepository.save(accountPO);
+        // Reports show account names
+        reportCache.invalidateAll();
     }
 
     public Account[] getAll(Boolean active) {
@@ -53,25 +61,24 @@ public class AccountService {
         return accountConverter.toModel(accountPOS);
     }
 
-    public PagedResponse<Account> getAllPaged(Pageable pageable, Boolean active, String name) {
-        Page<AccountPO> page;
-
-        if (active != null) {
-            ActivationStatus activationStatus = active ? ActivationStatus.ACTIVE : ActivationStatus.INACTIVE;
-            page = accountRepository.findByActivationStatus(pageable, activationStatus);
-        } else {
-            page = accountRepository.findAll(pageable);
+    /**
+     * Offset paging, or cursor paging without a count when {@code after} is given (blank for the first page).
+     */
+    public PagedResponse<Account> getAllPaged(Pageable pageable, String after, Boolean active, String name) {
+        Specification<AccountPO> specification = SearchSpecifications.allOf(
+                SearchSpecifications.hasActivationStatus(active),
+                SearchSpecifications.containsIgnoreCase("name", name));
+
+        if (after != null) {
+            KeysetPaging.Slice<AccountPO> slice = KeysetPaging.fetch(accountRepository, specification,
+                    pageable.getSort().iterator().next(), after, pageable.getPageSize());
+            return new PagedResponse<>(Arrays.asList(accountConverter.toModel(slice.content())),
+                    pageable.getPageSize(), after.isBlank(), slice.nextCursor());
         }
 
-        // Apply name filter if provided
-        List<AccountPO> filteredAccounts = page.getContent();
-        if (name != null && !name.isEmpty()) {
-            filteredAccounts = page.getContent().stream()
-                    .filter(a -> a.getName().toLowerCase().contains(name.toLowerCase()))
-                    .toList();
-        }
+        Page<AccountPO> page = accountRepository.findAll(specification, pageable);
 
-        Account[] accounts = accountConverter.toModel(filteredAccounts);
+        Account[] accounts = accountConverter.toModel(page.getContent());
 
         return new PagedResponse<>(
                 Arrays.asList(accounts),
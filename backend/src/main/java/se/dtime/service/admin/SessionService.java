@@ -2,7 +2,6 @@ package se.dtime.service.admin;
 
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 import se.dtime.dbmodel.UserPO;
 import se.dtime.model.LoggedInUser;
@@ -12,16 +11,19 @@ import se.dtime.model.error.NotFoundException;
 import se.dtime.model.timereport.Day;
 import se.dtime.repository.UserRepository;
 import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.user.CurrentUserResolver;
 
 @Service
 public class SessionService {
 
   private final CalendarService calendarService;
   private final UserRepository userRepository;
+  private final CurrentUserResolver currentUserResolver;
 
-  public SessionService(CalendarService calendarService, UserRepository userRepository) {
+  public SessionService(CalendarService calendarService, UserRepository userRepository, CurrentUserResolver currentUserResolver) {
     this.calendarService = calendarService;
     this.userRepository = userRepository;
+    this.currentUserResolver = currentUserResolver;
   }
 
   public SessionInfo getSessionInfo() {
@@ -50,27 +52,10 @@ public class SessionService {
           .build();
     }
 
-    if (principal instanceof OAuth2User oauth2User) {
-      UserPO user = resolveUserFromOAuth(oauth2User);
-      return LoggedInUser.builder()
-          .userId(user.getId())
-          .name(formatDisplayName(user.getFirstName(), user.getLastName()))
-          .isAdmin(isAdmin)
-          .build();
-    }
-
-    return resolveLoggedInUserByAuthenticationName(authentication.getName(), isAdmin);
-  }
-
-  private LoggedInUser resolveLoggedInUserByAuthenticationName(String authenticationName, boolean isAdmin) {
-    if (authenticationName == null || authenticationName.isBlank()) {
-      throw new NotFoundException("user.not.logged.in");
-    }
-
-    UserPO user = userRepository.findByEmail(authenticationName);
-    if (user == null) {
-      throw new NotFoundException("user.not.logged.in");
-    }
+    long userId = currentUserResolver.findUserId(authentication)
+        .orElseThrow(() -> new NotFoundException("user.not.logged.in"));
+    UserPO user = userRepository.findById(userId)
+        .orElseThrow(() -> new NotFoundException("user.not.logged.in"));
 
     return LoggedInUser.builder()
         .userId(user.getId())
@@ -79,20 +64,6 @@ public class SessionService {
         .build();
   }
 
-  private UserPO resolveUserFromOAuth(OAuth2User oauth2User) {
-    String sub = oauth2User.getAttribute("sub");
-    if (sub == null || sub.isBlank()) {
-      throw new NotFoundException("user.not.logged.in");
-    }
-
-    UserPO user = userRepository.findByExternalId(sub);
-    if (user == null) {
-      throw new NotFoundException("user.not.logged.in");
-    }
-
-    return user;
-  }
-
   private static String formatDisplayName(String firstName, String lastName) {
     return (firstName + " " + lastName).trim();
   }
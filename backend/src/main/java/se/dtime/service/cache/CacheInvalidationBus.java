@@ -0,0 +1,203 @@
+package se.dtime.service.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Forwards {@link CacheInvalidationEvent}s to the other nodes with Postgres {@code NOTIFY} and applies the events of
+ * the other nodes to the local {@link ClusteredCache}s.
+ * <p>
+ * Events published inside a transaction are collected and notified in one statement before commit, so Postgres
+ * delivers them only when the change is visible and drops them on rollback. Every node listens on a dedicated
+ * connection outside the pool; after a lost connection all clustered caches are dropped, since events may have been
+ * missed meanwhile.
+ * <p>
+ * The bus is inactive unless the datasource is Postgres (tests run on H2 with a single node).
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "dtime_cache_invalidation";
+
+    private static final String NOTIFY = "select pg_notify(?, payload) from unnest(?) as t(payload)";
+    private static final String SEPARATOR = "|";
+    private static final int POLL_MILLIS = 1000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, ClusteredCache> caches;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listener;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate,
+                                List<ClusteredCache> caches,
+                                @Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username:}") String username,
+                                @Value("${spring.datasource.password:}") String password,
+                                @Value("${dtime.cache.invalidation-bus.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.caches = caches.stream().collect(Collectors.toMap(ClusteredCache::getCacheName, Function.identity()));
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled && url.startsWith("jdbc:postgresql:");
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().daemon().name("cache-invalidation-listener").start(this::listen);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(POLL_MILLIS * 2L);
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(CacheInvalidationEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        String payload = String.join(SEPARATOR, nodeId, event.cacheName(), event.key() == null ? "" : event.key());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            notify(List.of(payload));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> payloads = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, payloads);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    notify(payloads);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationBus.this);
+                }
+            });
+            pending = payloads;
+        }
+        pending.add(payload);
+    }
+
+    boolean isListening() {
+        return listening;
+    }
+
+    private void notify(Collection<String> payloads) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(NOTIFY)) {
+                statement.setString(1, CHANNEL);
+                statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+                statement.execute();
+            }
+            return null;
+        });
+    }
+
+    private void listen() {
+        long reconnectDelay = POLL_MILLIS;
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("listen " + CHANNEL);
+                }
+                if (reconnecting) {
+                    caches.values().forEach(cache -> cache.evict(null));
+                }
+                listening = true;
+                reconnectDelay = POLL_MILLIS;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                listening = false;
+                reconnecting = true;
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms: {}", reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+            }
+        }
+        listening = false;
+    }
+
+    private void apply(String payload) {
+        String[] parts = payload.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+
+        ClusteredCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            log.debug("Ignoring invalidation of unknown cache {}", parts[1]);
+            return;
+        }
+        try {
+            cache.evict(parts[2].isEmpty() ? null : parts[2]);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply invalidation of cache {}, dropping it", parts[1], e);
+            cache.evict(null);
+        }
+    }
+}
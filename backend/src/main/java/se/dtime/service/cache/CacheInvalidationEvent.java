@@ -0,0 +1,11 @@
+package se.dtime.service.cache;
+
+/**
+ * Published by a {@link ClusteredCache} after it has invalidated {@code key} locally; {@code null} means the whole cache.
+ */
+public record CacheInvalidationEvent(String cacheName, String key) {
+
+    public static CacheInvalidationEvent all(String cacheName) {
+        return new CacheInvalidationEvent(cacheName, null);
+    }
+}
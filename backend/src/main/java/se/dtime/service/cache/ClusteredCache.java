@@ -0,0 +1,17 @@
+package se.dtime.service.cache;
+
+/**
+ * In-process cache that is kept coherent across nodes by {@link CacheInvalidationBus}.
+ * <p>
+ * The cache invalidates itself locally and publishes a {@link CacheInvalidationEvent}; the other nodes receive
+ * the event and call {@link #evict(String)}.
+ */
+public interface ClusteredCache {
+
+    String getCacheName();
+
+    /**
+     * Drops the entries for {@code key} on this node only, {@code null} drops the whole cache.
+     */
+    void evict(String key);
+}
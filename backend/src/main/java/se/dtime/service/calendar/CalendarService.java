@@ -9,6 +9,7 @@ import se.dtime.model.timereport.DayType;
 import se.dtime.model.timereport.Month;
 import se.dtime.model.timereport.Week;
 import se.dtime.repository.SpecialDayRepository;
+import se.dtime.service.cache.ClusteredCache;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -18,16 +19,19 @@ import java.time.temporal.TemporalAdjusters;
 import java.time.temporal.TemporalField;
 import java.time.temporal.WeekFields;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Slf4j
 @Service
-public class CalendarService {
+public class CalendarService implements ClusteredCache {
+    public static final String CACHE_NAME = "calendar";
     private final static int DAYS_OF_WEEK = 7;
 
     private final SpecialDayRepository specialDayRepository;
     private final float hoursPerDay;
     private final LocalDate systemStartDate;
-    private static final Map<Integer, Map<LocalDate, DayType>> specialDaysByYear = new HashMap<>();
+    private final ConcurrentMap<Integer, YearCalendar> calendarsByYear = new ConcurrentHashMap<>();
 
     public CalendarService(SpecialDayRepository specialDayRepository,
                            @Value("${dtime.system.start-date}") String systemStartDate,
@@ -50,15 +54,7 @@ public class CalendarService {
     }
 
     public Month getMouth(LocalDate date) {
-        Day[] daysInMouth = new Day[date.lengthOfMonth()];
-        LocalDate day = date.withDayOfMonth(1);
-
-        for (int d = 0; d < date.lengthOfMonth(); d++) {
-            Day nextDay = getDay(day);
-            daysInMouth[d] = nextDay;
-            day = day.plusDays(1);
-        }
-
+        Day[] daysInMouth = getDays(date.withDayOfMonth(1), date.withDayOfMonth(date.lengthOfMonth()));
         return Month.builder().month(date.getMonthValue()).monthName(date.getMonth().name()).days(daysInMouth).build();
     }
 
@@ -70,15 +66,8 @@ public class CalendarService {
     }
 
     public Week getWeek(LocalDate date) {
-        Day[] daysInWeek = new Day[DAYS_OF_WEEK];
-
-        LocalDate day = getClosestMonday(date);
-        LocalDate firstDay = day;
-        for (int d = 0; d < DAYS_OF_WEEK; d++) {
-            Day nextDay = getDay(day);
-            daysInWeek[d] = nextDay;
-            day = day.plusDays(1);
-        }
+        LocalDate firstDay = getClosestMonday(date);
+        Day[] daysInWeek = getDays(firstDay, firstDay.plusDays(DAYS_OF_WEEK - 1));
 
         TemporalField woy = WeekFields.of(Locale.getDefault()).weekOfWeekBasedYear();
         return Week.builder().weekNumber(firstDay.get(woy)).days(daysInWeek).build();
@@ -94,49 +83,70 @@ public class CalendarService {
     }
 
     Day getDay(LocalDate date) {
-        // Get special days for this year from repository
-        Map<LocalDate, DayType> specialDaysForYear = getSpecialDaysForYear(date.getYear());
-
-        // Check if this date is a special day
-        DayType specialDayType = specialDaysForYear.get(date);
-        boolean isMajorHoliday = specialDayType == DayType.PUBLIC_HOLIDAY;
-        boolean isHalfDay = specialDayType == DayType.HALF_DAY;
-
-        return Day.builder().
-                year(date.getYear()).
-                month(date.getMonthValue()).
-                monthName(date.getMonth().name()).
-                day(date.getDayOfMonth()).
-                date(date).
-                isWeekend(isWeekend(date)).
-                isMajorHoliday(isMajorHoliday).
-                isHalfDay(isHalfDay).
-                dayName(date.getDayOfWeek().name()).
-                withinCurrentMonth(isWithinCurrentMonth(date)).
-                build();
+        return getYearCalendar(date.getYear()).getDay(date);
     }
 
     public boolean isWeekend(LocalDate date) {
         return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
     }
 
-    private Map<LocalDate, DayType> getSpecialDaysForYear(int year) {
-        Map<LocalDate, DayType> specialDaysForYear = specialDaysByYear.get(year);
-        if (specialDaysForYear == null) {
-            // Fetch special days for this year from repository
-            List<SpecialDayPO> specialDayPOs = specialDayRepository.findByYear(year);
-
-            // Convert to map for efficient lookup
-            specialDaysForYear = new HashMap<>();
-            for (SpecialDayPO specialDayPO : specialDayPOs) {
-                specialDaysForYear.put(specialDayPO.getDate(), specialDayPO.getDayType());
-            }
+    /**
+     * The precomputed calendar of {@code year}, built on first use. When the current month has changed since the
+     * calendar was built it is rederived from the same special days.
+     * <p>
+     * Loading, reloading and evicting a year are atomic per year: a reload or eviction that arrives while a year is
+     * being loaded waits for the load and then replaces or drops it, so a load that read the old special days cannot
+     * put them back afterwards.
+     */
+    YearCalendar getYearCalendar(int year) {
+        int currentMonth = getNowDate().getMonthValue();
+        YearCalendar yearCalendar = calendarsByYear.get(year);
+        if (yearCalendar == null) {
+            yearCalendar = calendarsByYear.computeIfAbsent(year, y -> loadYearCalendar(y, currentMonth));
+        } else if (yearCalendar.getCurrentMonth() != currentMonth) {
+            YearCalendar stale = yearCalendar;
+            yearCalendar = yearCalendar.withCurrentMonth(currentMonth);
+            // Only replace the calendar we derived from, a concurrent reload or eviction wins
+            calendarsByYear.replace(year, stale, yearCalendar);
+        }
+        return yearCalendar;
+    }
+
+    /**
+     * Rebuilds the calendar of {@code year} from the special days in the database and swaps it in, so
+     * concurrent readers see either the old or the new year, never a mix.
+     */
+    public void reloadYear(int year) {
+        int currentMonth = getNowDate().getMonthValue();
+        calendarsByYear.compute(year, (y, previous) -> loadYearCalendar(y, currentMonth));
+    }
+
+    @Override
+    public String getCacheName() {
+        return CACHE_NAME;
+    }
+
+    /**
+     * Drops the calendar of the year in {@code key} (all years for {@code null}); it is reloaded on next use.
+     * An eviction that arrives while the year is being loaded waits for the load and drops its result, see
+     * {@link #getYearCalendar(int)}.
+     */
+    @Override
+    public void evict(String key) {
+        if (key == null) {
+            calendarsByYear.clear();
+        } else {
+            calendarsByYear.remove(Integer.parseInt(key));
+        }
+    }
 
-            // Cache for future use
-            specialDaysByYear.put(year, specialDaysForYear);
+    private YearCalendar loadYearCalendar(int year, int currentMonth) {
+        Map<LocalDate, DayType> specialDays = new HashMap<>();
+        for (SpecialDayPO specialDayPO : specialDayRepository.findByYear(year)) {
+            specialDays.put(specialDayPO.getDate(), specialDayPO.getDayType());
         }
 
-        return specialDaysForYear;
+        return YearCalendar.of(year, currentMonth, specialDays);
     }
 
     public int getNumberOfDaysInMonth(int year, int month) {
@@ -144,33 +154,47 @@ public class CalendarService {
         return date.lengthOfMonth();
     }
 
+    /**
+     * Days {@code fromDate..toDate} inclusive. The array is new, the {@link Day} instances are shared and must
+     * not be modified.
+     */
     public Day[] getDays(LocalDate fromDate, LocalDate toDate) {
         if (fromDate.isAfter(toDate)) {
             return new Day[0];
         }
 
-        List<Day> days = new ArrayList<>();
-        LocalDate date = fromDate;
-        while (date.isBefore(toDate) || date.isEqual(toDate)) {
-            days.add(getDay(date));
-            date = date.plusDays(1);
+        Day[] days = new Day[(int) (toDate.toEpochDay() - fromDate.toEpochDay() + 1)];
+        int offset = 0;
+        for (int year = fromDate.getYear(); year <= toDate.getYear(); year++) {
+            LocalDate first = year == fromDate.getYear() ? fromDate : LocalDate.of(year, 1, 1);
+            LocalDate last = year == toDate.getYear() ? toDate : LocalDate.of(year, 12, 31);
+            getYearCalendar(year).copyDays(first, last, days, offset);
+            offset += (int) (last.toEpochDay() - first.toEpochDay() + 1);
         }
 
-        return days.toArray(new Day[0]);
+        return days;
     }
 
-    public int calcWorkableHours(Day[] days) {
-        int totalHours = 0;
-        for (Day day : days) {
-            if (!day.isWeekend() && !day.isMajorHoliday()) {
-                if (day.isHalfDay()) {
-                    totalHours += hoursPerDay / 2;
-                } else {
-                    totalHours += hoursPerDay;
-                }
-            }
+    /**
+     * Workable hours in {@code fromDate..toDate} inclusive, summed from the precomputed year calendars without
+     * creating any {@link Day}s. Half days are counted exactly and the total is rounded once.
+     */
+    public int workableHours(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            return 0;
+        }
+
+        int workableHalfDays = 0;
+        for (int year = fromDate.getYear(); year <= toDate.getYear(); year++) {
+            LocalDate first = year == fromDate.getYear() ? fromDate : LocalDate.of(year, 1, 1);
+            LocalDate last = year == toDate.getYear() ? toDate : LocalDate.of(year, 12, 31);
+            workableHalfDays += getYearCalendar(year).getWorkableHalfDays(first, last);
         }
-        return totalHours;
+        return toHours(workableHalfDays);
+    }
+
+    private int toHours(int workableHalfDays) {
+        return Math.round(workableHalfDays * hoursPerDay / 2);
     }
 
     public boolean isWithinCurrentMonth(LocalDate date) {
@@ -202,8 +226,4 @@ public class CalendarService {
     public LocalDate getSystemStartDate() {
         return systemStartDate;
     }
-
-    public void resetSpecialDaysCache() {
-        specialDaysByYear.clear();
-    }
 }
@@ -0,0 +1,114 @@
+package se.dtime.service.calendar;
+
+import se.dtime.model.timereport.Day;
+import se.dtime.model.timereport.DayType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Immutable calendar of one year: a {@link Day} per date, indexed by day of year, bitsets of the workdays
+ * and half days, and a prefix sum of workable half days for constant time range sums.
+ * The {@link Day} instances are shared between requests and must not be modified.
+ * <p>
+ * {@code withinCurrentMonth} is baked in for {@link #getCurrentMonth()}; a calendar for another current month is
+ * derived with {@link #withCurrentMonth(int)} without reloading the special days.
+ */
+final class YearCalendar {
+
+    private final int year;
+    private final int currentMonth;
+    private final Map<LocalDate, DayType> specialDays;
+    private final Day[] days;
+    private final BitSet workdays;
+    private final BitSet halfDays;
+    // cumulativeHalfDays[i] = workable half days on the first i days of the year; a full workday counts as two
+    private final int[] cumulativeHalfDays;
+
+    private YearCalendar(int year, int currentMonth, Map<LocalDate, DayType> specialDays) {
+        this.year = year;
+        this.currentMonth = currentMonth;
+        this.specialDays = Map.copyOf(specialDays);
+
+        LocalDate firstDay = LocalDate.of(year, 1, 1);
+        this.days = new Day[firstDay.lengthOfYear()];
+        this.workdays = new BitSet(days.length);
+        this.halfDays = new BitSet(days.length);
+        this.cumulativeHalfDays = new int[days.length + 1];
+
+        LocalDate date = firstDay;
+        for (int i = 0; i < days.length; i++) {
+            DayType specialDayType = this.specialDays.get(date);
+            boolean isWeekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            boolean isMajorHoliday = specialDayType == DayType.PUBLIC_HOLIDAY;
+            boolean isHalfDay = specialDayType == DayType.HALF_DAY;
+
+            days[i] = Day.builder().
+                    year(year).
+                    month(date.getMonthValue()).
+                    monthName(date.getMonth().name()).
+                    day(date.getDayOfMonth()).
+                    date(date).
+                    isWeekend(isWeekend).
+                    isMajorHoliday(isMajorHoliday).
+                    isHalfDay(isHalfDay).
+                    dayName(date.getDayOfWeek().name()).
+                    withinCurrentMonth(date.getMonthValue() == currentMonth).
+                    build();
+
+            if (!isWeekend && !isMajorHoliday) {
+                workdays.set(i);
+                if (isHalfDay) {
+                    halfDays.set(i);
+                }
+            }
+            cumulativeHalfDays[i + 1] = cumulativeHalfDays[i] + (workdays.get(i) ? (halfDays.get(i) ? 1 : 2) : 0);
+            date = date.plusDays(1);
+        }
+    }
+
+    static YearCalendar of(int year, int currentMonth, Map<LocalDate, DayType> specialDays) {
+        return new YearCalendar(year, currentMonth, specialDays);
+    }
+
+    YearCalendar withCurrentMonth(int month) {
+        return month == currentMonth ? this : new YearCalendar(year, month, specialDays);
+    }
+
+    int getYear() {
+        return year;
+    }
+
+    int getCurrentMonth() {
+        return currentMonth;
+    }
+
+    Day getDay(LocalDate date) {
+        return days[date.getDayOfYear() - 1];
+    }
+
+    /**
+     * Copies the shared days {@code fromDate..toDate} (inclusive, both in this year) into {@code target}.
+     */
+    void copyDays(LocalDate fromDate, LocalDate toDate, Day[] target, int targetOffset) {
+        int from = fromDate.getDayOfYear() - 1;
+        System.arraycopy(days, from, target, targetOffset, toDate.getDayOfYear() - from);
+    }
+
+    /**
+     * Workable half days in {@code fromDate..toDate} (inclusive, both in this year).
+     */
+    int getWorkableHalfDays(LocalDate fromDate, LocalDate toDate) {
+        return cumulativeHalfDays[toDate.getDayOfYear()] - cumulativeHalfDays[fromDate.getDayOfYear() - 1];
+    }
+
+    boolean isWorkday(LocalDate date) {
+        return workdays.get(date.getDayOfYear() - 1);
+    }
+
+    boolean isHalfDay(LocalDate date) {
+        return halfDays.get(date.getDayOfYear() - 1);
+    }
+}
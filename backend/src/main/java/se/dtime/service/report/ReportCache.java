@@ -0,0 +1,227 @@
+package se.dtime.service.report;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.dtime.model.ReportDates;
+import se.dtime.model.report.Report;
+import se.dtime.model.report.ReportType;
+import se.dtime.model.report.ReportView;
+import se.dtime.service.cache.CacheInvalidationEvent;
+import se.dtime.service.cache.ClusteredCache;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of admin reports keyed by (report type, view, period).
+ * <p>
+ * Writers invalidate the periods that contain the changed date, closing or opening a month drops the periods that
+ * start in it, and task, account and user changes drop all periods. Entries for open periods also expire after {@code dtime.report.cache.ttl} to pick up changes made outside
+ * the services (display names from the identity provider, SQL fixes); entries for months that every active user has
+ * closed expire after the longer {@code dtime.report.cache.closed-ttl}.
+ * <p>
+ * Invalidations are published as {@link CacheInvalidationEvent}s so the other nodes drop the same periods.
+ * <p>
+ * Hits, misses, evictions and size are exposed as {@code cache.*} meters tagged {@code cache=report}.
+ */
+@Component
+public class ReportCache implements MeterBinder, ClusteredCache {
+
+    public static final String CACHE_NAME = "report";
+    // Length of an ISO year-month key such as 2025-03
+    private static final int MONTH_KEY_LENGTH = 7;
+
+    record Key(ReportType reportType, ReportView reportView, LocalDate fromDate, LocalDate toDate) {
+    }
+
+    private record Entry(Report report, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long closedTtlNanos;
+    private final LongSupplier nanoTime;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Key, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    // Bumped on every invalidation so a report computed concurrently with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public ReportCache(@Value("${dtime.report.cache.max-size:200}") int maxSize,
+                       @Value("${dtime.report.cache.ttl:PT10M}") Duration ttl,
+                       @Value("${dtime.report.cache.closed-ttl:PT6H}") Duration closedTtl,
+                       ApplicationEventPublisher eventPublisher) {
+        this(maxSize, ttl, closedTtl, System::nanoTime, eventPublisher);
+    }
+
+    ReportCache(int maxSize, Duration ttl, Duration closedTtl, LongSupplier nanoTime, ApplicationEventPublisher eventPublisher) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.closedTtlNanos = closedTtl.toNanos();
+        this.nanoTime = nanoTime;
+        this.eventPublisher = eventPublisher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ReportCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cached report for the period, or the result of {@code loader}. {@code closedPeriod} is evaluated on a
+     * miss and decides whether the new entry expires after the closed period TTL instead of the open one.
+     */
+    public Report get(ReportType reportType, ReportView reportView, ReportDates reportDates,
+                      Supplier<Report> loader, BooleanSupplier closedPeriod) {
+        Key key = new Key(reportType, reportView, reportDates.getFromDate(), reportDates.getToDate());
+        long now = nanoTime.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.expiresAt() < 0) {
+                hits.incrementAndGet();
+                return entry.report();
+            }
+        }
+
+        misses.incrementAndGet();
+        long loadGeneration = generation.get();
+        Report report = loader.get();
+        boolean closed = closedPeriod.getAsBoolean();
+
+        synchronized (entries) {
+            if (generation.get() == loadGeneration) {
+                entries.put(key, new Entry(report, nanoTime.getAsLong() + (closed ? closedTtlNanos : ttlNanos)));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Drops every cached period that contains {@code date}. Inside a transaction the entries are
+     * dropped again after commit, so a report read before the commit cannot linger.
+     */
+    public void invalidate(LocalDate date) {
+        runNowAndAfterCommit(() -> remove(containing(date)));
+        eventPublisher.publishEvent(new CacheInvalidationEvent(CACHE_NAME, date.toString()));
+    }
+
+    /**
+     * Drops every cached period that starts in {@code month}. Closing or opening a month changes the closed flags of
+     * these reports, which are read for the month of the period's first day.
+     */
+    public void invalidateMonth(YearMonth month) {
+        runNowAndAfterCommit(() -> remove(startingIn(month)));
+        eventPublisher.publishEvent(new CacheInvalidationEvent(CACHE_NAME, month.toString()));
+    }
+
+    public void invalidateAll() {
+        runNowAndAfterCommit(() -> remove(key -> true));
+        eventPublisher.publishEvent(CacheInvalidationEvent.all(CACHE_NAME));
+    }
+
+    @Override
+    public String getCacheName() {
+        return CACHE_NAME;
+    }
+
+    /**
+     * Applies an invalidation from another node: {@code key} is an ISO date or an ISO year-month, {@code null} drops
+     * everything.
+     */
+    @Override
+    public void evict(String key) {
+        if (key == null) {
+            remove(k -> true);
+        } else if (key.length() == MONTH_KEY_LENGTH) {
+            remove(startingIn(YearMonth.parse(key)));
+        } else {
+            remove(containing(LocalDate.parse(key)));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tag("cache", "report").tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tag("cache", "report").tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tag("cache", "report")
+                .register(registry);
+        Gauge.builder("cache.size", this, ReportCache::size)
+                .tag("cache", "report")
+                .register(registry);
+    }
+
+    long getHitCount() {
+        return hits.get();
+    }
+
+    long getMissCount() {
+        return misses.get();
+    }
+
+    long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static Predicate<Key> containing(LocalDate date) {
+        return key -> !date.isBefore(key.fromDate()) && !date.isAfter(key.toDate());
+    }
+
+    private static Predicate<Key> startingIn(YearMonth month) {
+        return key -> YearMonth.from(key.fromDate()).equals(month);
+    }
+
+    private void remove(Predicate<Key> predicate) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.keySet().removeIf(predicate);
+        }
+    }
+
+    private void runNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+}
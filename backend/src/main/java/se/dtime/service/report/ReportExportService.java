@@ -0,0 +1,80 @@
+package se.dtime.service.report;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import se.dtime.model.ReportDates;
+import se.dtime.model.report.ReportExportFormat;
+import se.dtime.model.report.ReportType;
+import se.dtime.model.report.ReportView;
+import se.dtime.repository.jdbc.ReportRepository;
+import se.dtime.service.calendar.CalendarService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+@Service
+public class ReportExportService {
+
+    private final CalendarService calendarService;
+    private final ReportRepository reportRepository;
+    private final ReportValidator reportValidator;
+
+    public ReportExportService(CalendarService calendarService, ReportRepository reportRepository, ReportValidator reportValidator) {
+        this.calendarService = calendarService;
+        this.reportRepository = reportRepository;
+        this.reportValidator = reportValidator;
+    }
+
+    /**
+     * Export period: the explicit {@code fromDate}/{@code toDate} range when given, otherwise the
+     * week/month/year period that contains {@code date} (default: current month).
+     */
+    public ReportDates getExportDates(ReportView reportView, LocalDate date, LocalDate fromDate, LocalDate toDate) {
+        if (fromDate != null || toDate != null) {
+            reportValidator.validateReportDates(fromDate, toDate);
+            return new ReportDates(fromDate, toDate);
+        }
+
+        LocalDate anchor = date != null ? date : calendarService.getNowDate();
+        return ReportUtil.getReportDates(reportView != null ? reportView : ReportView.MONTH, anchor);
+    }
+
+    public String getFileName(ReportType reportType, ReportDates reportDates, ReportExportFormat format) {
+        return "report-" + reportType.name().toLowerCase(Locale.ROOT).replace('_', '-') + "-" +
+                reportDates.getFromDate() + "-" + reportDates.getToDate() + "." + format.getFileExtension();
+    }
+
+    /**
+     * Writes the report row by row to {@code outputStream}; memory use is independent of the number of rows.
+     */
+    @Transactional(readOnly = true)
+    public void exportReport(ReportType reportType, ReportDates reportDates, ReportExportFormat format, OutputStream outputStream) throws IOException {
+        List<String> columns = reportRepository.getExportColumns(reportType);
+        try (ReportExportWriter writer = createWriter(format, reportType, outputStream)) {
+            writer.writeRow(columns.toArray());
+
+            Object[] values = new Object[columns.size()];
+            reportRepository.exportReport(reportType, reportDates.getFromDate(), reportDates.getToDate(), rs -> {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                try {
+                    writer.writeRow(values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private ReportExportWriter createWriter(ReportExportFormat format, ReportType reportType, OutputStream outputStream) {
+        return switch (format) {
+            case CSV -> new CsvReportExportWriter(outputStream);
+            case XLSX -> new XlsxReportExportWriter(outputStream, reportType.name());
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package se.dtime.service.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes report rows to an output stream one at a time. Closing the writer completes the document
+ * but leaves the underlying stream open.
+ */
+interface ReportExportWriter extends Closeable {
+
+    void writeRow(Object[] values) throws IOException;
+}
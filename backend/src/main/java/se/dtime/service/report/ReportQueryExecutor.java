@@ -0,0 +1,57 @@
+package se.dtime.service.report;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Runs report queries on virtual threads. At most {@code dtime.report.max-concurrent-queries} queries run at
+ * the same time across all requests, so a burst of dashboard calls cannot drain the connection pool.
+ */
+@Component
+public class ReportQueryExecutor {
+
+    private final ExecutorService executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("report-query-", 0).factory());
+    private final Semaphore permits;
+
+    public ReportQueryExecutor(@Value("${dtime.report.max-concurrent-queries:4}") int maxConcurrentQueries) {
+        this.permits = new Semaphore(maxConcurrentQueries);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return query.get();
+            } finally {
+                permits.release();
+            }
+        }, executorService);
+    }
+
+    /**
+     * Waits for the query and rethrows its exception unwrapped.
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+}
@@ -3,13 +3,11 @@ package se.dtime.service.report;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import se.dtime.dbmodel.UserPO;
 import se.dtime.dbmodel.timereport.CloseDatePO;
 import se.dtime.model.ReportDates;
 import se.dtime.model.error.NotFoundException;
 import se.dtime.model.report.*;
 import se.dtime.model.timereport.CloseDate;
-import se.dtime.model.timereport.Day;
 import se.dtime.repository.CloseDateRepository;
 import se.dtime.repository.jdbc.ReportRepository;
 import se.dtime.service.calendar.CalendarService;
@@ -18,12 +16,18 @@ import se.dtime.service.user.UserValidator;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
 public class ReportService {
 
+    private static final int DEFAULT_TREND_MONTHS = 12;
+
     private final UserValidator userValidator;
     private final CurrentUserResolver currentUserResolver;
     private final CalendarService calendarService;
@@ -31,8 +35,10 @@ public class ReportService {
     private final CloseDateRepository closeDateRepository;
     private final ReportValidator reportValidator;
     private final ReportConverter reportConverter;
+    private final ReportCache reportCache;
+    private final ReportQueryExecutor reportQueryExecutor;
 
-    public ReportService(UserValidator userValidator, CurrentUserResolver currentUserResolver, CalendarService calendarService, ReportRepository reportRepository, CloseDateRepository closeDateRepository, ReportValidator reportValidator, ReportConverter reportConverter) {
+    public ReportService(UserValidator userValidator, CurrentUserResolver currentUserResolver, CalendarService calendarService, ReportRepository reportRepository, CloseDateRepository closeDateRepository, ReportValidator reportValidator, ReportConverter reportConverter, ReportCache reportCache, ReportQueryExecutor reportQueryExecutor) {
         this.userValidator = userValidator;
         this.currentUserResolver = currentUserResolver;
         this.calendarService = calendarService;
@@ -40,16 +46,64 @@ public class ReportService {
         this.closeDateRepository = closeDateRepository;
         this.reportValidator = reportValidator;
         this.reportConverter = reportConverter;
+        this.reportCache = reportCache;
+        this.reportQueryExecutor = reportQueryExecutor;
     }
 
     /**
      * Admin report for the week/month/year period that contains {@code date}.
-     * When {@code date} is null, uses the server's current date.
+     * When {@code date} is null, uses the server's current date. Results are served from {@link ReportCache}.
      */
     public Report getReport(ReportView reportView, ReportType reportType, LocalDate date) {
         LocalDate anchor = date != null ? date : calendarService.getNowDate();
         ReportDates reportDates = ReportUtil.getReportDates(reportView, anchor);
-        return getReportBetweenDates(reportType, reportDates);
+        validateLoggedIn();
+        return reportCache.get(reportType, reportView, reportDates,
+                () -> getReportBetweenDates(reportType, reportDates),
+                () -> reportView == ReportView.MONTH && closeDateRepository.countActiveUsersNotClosedByDate(reportDates.getFromDate()) == 0);
+    }
+
+    /**
+     * Task, user, account and billable task type reports for the period that contains {@code date}.
+     * The four queries run concurrently, so the latency is that of the slowest one.
+     */
+    public DashboardReport getDashboard(ReportView reportView, LocalDate date) {
+        LocalDate anchor = date != null ? date : calendarService.getNowDate();
+        ReportDates reportDates = ReportUtil.getReportDates(reportView != null ? reportView : ReportView.MONTH, anchor);
+        validateLoggedIn();
+
+        LocalDate fromDate = reportDates.getFromDate();
+        LocalDate toDate = reportDates.getToDate();
+        CompletableFuture<List<TaskReport>> taskReports = reportQueryExecutor.submit(() -> reportRepository.getTaskReports(fromDate, toDate));
+        CompletableFuture<List<UserReport>> userReports = reportQueryExecutor.submit(() -> reportRepository.getUserReports(fromDate, toDate));
+        CompletableFuture<List<AccountReport>> accountReports = reportQueryExecutor.submit(() -> reportRepository.getAccountReports(fromDate, toDate));
+        CompletableFuture<List<BillableTaskTypeReport>> billableTaskTypeReports = reportQueryExecutor.submit(() -> reportRepository.getBillableTaskTypeReports(fromDate, toDate));
+
+        DashboardReport dashboardReport = new DashboardReport(fromDate, toDate, calendarService.workableHours(fromDate, toDate));
+
+        List<TaskReport> sortedTaskReports = ReportQueryExecutor.join(taskReports);
+        sortedTaskReports.sort((a, b) -> b.getTotalHours().compareTo(a.getTotalHours()));
+        dashboardReport.setTaskReports(sortedTaskReports);
+        dashboardReport.setUserReports(ReportQueryExecutor.join(userReports));
+        dashboardReport.setAccountReports(ReportQueryExecutor.join(accountReports));
+        dashboardReport.setBillableTaskTypeReports(ReportQueryExecutor.join(billableTaskTypeReports));
+        return dashboardReport;
+    }
+
+    /**
+     * Monthly hours per {@code trendGroup} for the months from {@code fromDate} to {@code toDate}.
+     * Defaults to the twelve months ending with the current month.
+     */
+    public TrendReport getTrendReport(TrendGroup trendGroup, LocalDate fromDate, LocalDate toDate) {
+        YearMonth toMonth = YearMonth.from(toDate != null ? toDate : calendarService.getNowDate());
+        YearMonth fromMonth = fromDate != null ? YearMonth.from(fromDate) : toMonth.minusMonths(DEFAULT_TREND_MONTHS - 1);
+        reportValidator.validateTrendMonths(fromMonth, toMonth);
+        validateLoggedIn();
+
+        List<YearMonth> periods = fromMonth.atDay(1).datesUntil(toMonth.plusMonths(1).atDay(1), Period.ofMonths(1))
+                .map(YearMonth::from)
+                .toList();
+        return new TrendReport(trendGroup, periods, reportRepository.getTrendSeries(trendGroup, fromMonth, toMonth));
     }
 
     /**
@@ -65,12 +119,14 @@ public class ReportService {
         reportValidator.validateCloseTimeReport(closeDate);
         CloseDatePO closeDatePO = reportConverter.toPO(closeDate);
         closeDateRepository.save(closeDatePO);
+        reportCache.invalidateMonth(YearMonth.from(closeDatePO.getDate()));
     }
 
     public void openTimeReport(CloseDate closeDate) {
         reportValidator.validateOpenTimeReport(closeDate);
         CloseDatePO closeDatePO = reportConverter.toPO(closeDate);
         closeDateRepository.deleteByUserAndDate(closeDatePO.getUser(), closeDatePO.getDate());
+        reportCache.invalidateMonth(YearMonth.from(closeDatePO.getDate()));
     }
 
     private Report getUserReportForPeriod(ReportView reportView, LocalDate date) {
@@ -81,33 +137,33 @@ public class ReportService {
     }
 
     private Report buildUserTaskReport(ReportDates reportDates, Long scopedUserIdOrNull) {
-        Day[] days = calendarService.getDays(reportDates.getFromDate(), reportDates.getToDate());
-        int workableHours = calendarService.calcWorkableHours(days);
+        int workableHours = calendarService.workableHours(reportDates.getFromDate(), reportDates.getToDate());
 
         Report report = new Report(reportDates.getFromDate(), reportDates.getToDate(), workableHours);
 
         List<UserReport> userReports = scopedUserIdOrNull == null
                 ? reportRepository.getUserTaskReports(reportDates.getFromDate(), reportDates.getToDate())
                 : reportRepository.getUserTaskReports(scopedUserIdOrNull, reportDates.getFromDate(), reportDates.getToDate());
-        userReports.forEach(this::updateClosedReport);
+        updateClosedReports(userReports, reportDates.getFromDate());
         report.setUserReports(userReports);
         calcStatistics(report, userReports);
 
         return report;
     }
 
-    private Report getReportBetweenDates(ReportType reportType, ReportDates reportDates) {
+    private void validateLoggedIn() {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (principal == null) {
             throw new NotFoundException("user.not.logged.in");
         }
+    }
 
+    private Report getReportBetweenDates(ReportType reportType, ReportDates reportDates) {
         if (reportType == ReportType.USER_TASK) {
             return buildUserTaskReport(reportDates, null);
         }
 
-        Day[] days = calendarService.getDays(reportDates.getFromDate(), reportDates.getToDate());
-        int workableHours = calendarService.calcWorkableHours(days);
+        int workableHours = calendarService.workableHours(reportDates.getFromDate(), reportDates.getToDate());
 
         Report report = new Report(reportDates.getFromDate(), reportDates.getToDate(), workableHours);
 
@@ -139,15 +195,13 @@ public class ReportService {
         report.setTotalHoursWorked(totalHoursWorked);
     }
 
-    private void updateClosedReport(UserReport userReport) {
-        UserPO userPO = new UserPO(userReport.getUserId());
-        LocalDate date = LocalDate.of(userReport.getFromDate().getYear(), userReport.getFromDate().getMonthValue(), 1);
-
-        CloseDatePO closeDatePO = closeDateRepository.findByUserAndDate(userPO, date);
-        if (closeDatePO != null && closeDatePO.getDate().getYear() == userReport.getFromDate().getYear() &&
-                closeDatePO.getDate().getMonthValue() == userReport.getFromDate().getMonthValue()) {
-            userReport.setClosed(true);
+    private void updateClosedReports(List<UserReport> userReports, LocalDate fromDate) {
+        if (userReports.isEmpty()) {
+            return;
         }
+
+        Set<Long> closedUserIds = closeDateRepository.findClosedUserIdsByDate(fromDate.withDayOfMonth(1));
+        userReports.forEach(userReport -> userReport.setClosed(closedUserIds.contains(userReport.getUserId())));
     }
 
 
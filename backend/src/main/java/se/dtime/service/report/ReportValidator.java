@@ -9,9 +9,15 @@ import se.dtime.model.timereport.CloseDate;
 import se.dtime.repository.UserRepository;
 import se.dtime.utils.UserUtil;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
 @Service
 public class ReportValidator {
 
+    static final int MAX_TREND_MONTHS = 120;
+
     private final UserRepository userRepository;
 
     public ReportValidator(UserRepository userRepository) {
@@ -34,4 +40,16 @@ public class ReportValidator {
             }
         }
     }
+
+    public void validateReportDates(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate == null || toDate == null || fromDate.isAfter(toDate)) {
+            throw new ValidationException("report.invalid.date.range");
+        }
+    }
+
+    public void validateTrendMonths(YearMonth fromMonth, YearMonth toMonth) {
+        if (fromMonth.isAfter(toMonth) || ChronoUnit.MONTHS.between(fromMonth, toMonth) >= MAX_TREND_MONTHS) {
+            throw new ValidationException("report.invalid.date.range");
+        }
+    }
 }
@@ -3,7 +3,6 @@ package se.dtime.service.report;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import se.dtime.dbmodel.UserPO;
 import se.dtime.dbmodel.timereport.CloseDatePO;
 import se.dtime.model.ReportDates;
 import se.dtime.model.error.NotFoundException;
@@ -12,13 +11,14 @@ import se.dtime.model.report.UnclosedUser;
 import se.dtime.model.report.UnclosedUserReport;
 import se.dtime.model.report.UserReport;
 import se.dtime.model.timereport.CloseDate;
-import se.dtime.model.timereport.Day;
 import se.dtime.repository.CloseDateRepository;
 import se.dtime.repository.jdbc.ReportRepository;
 import se.dtime.service.calendar.CalendarService;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -28,12 +28,14 @@ public class TimeReportStatusService {
     private final ReportRepository reportRepository;
     private final CloseDateRepository closeDateRepository;
     private final ReportConverter reportConverter;
+    private final ReportCache reportCache;
 
-    public TimeReportStatusService(CalendarService calendarService, ReportRepository reportRepository, CloseDateRepository closeDateRepository, ReportConverter reportConverter) {
+    public TimeReportStatusService(CalendarService calendarService, ReportRepository reportRepository, CloseDateRepository closeDateRepository, ReportConverter reportConverter, ReportCache reportCache) {
         this.calendarService = calendarService;
         this.reportRepository = reportRepository;
         this.closeDateRepository = closeDateRepository;
         this.reportConverter = reportConverter;
+        this.reportCache = reportCache;
     }
 
     /**
@@ -47,11 +49,13 @@ public class TimeReportStatusService {
     public void closeUserTimeReport(CloseDate closeDate) {
         CloseDatePO closeDatePO = reportConverter.toPO(closeDate);
         closeDateRepository.save(closeDatePO);
+        reportCache.invalidateMonth(YearMonth.from(closeDatePO.getDate()));
     }
 
     public void openUserTimeReport(CloseDate closeDate) {
         CloseDatePO closeDatePO = reportConverter.toPO(closeDate);
         closeDateRepository.deleteByUserAndDate(closeDatePO.getUser(), closeDatePO.getDate());
+        reportCache.invalidateMonth(YearMonth.from(closeDatePO.getDate()));
     }
 
     private UnclosedUserReport getUnclosedUsersForDate(LocalDate date) {
@@ -62,11 +66,11 @@ public class TimeReportStatusService {
 
         ReportDates reportDates = ReportUtil.getReportDates(ReportView.MONTH, date);
 
-        Day[] days = calendarService.getDays(reportDates.getFromDate(), reportDates.getToDate());
-        int workableHours = calendarService.calcWorkableHours(days);
+        int workableHours = calendarService.workableHours(reportDates.getFromDate(), reportDates.getToDate());
 
         List<UserReport> allUserReports = reportRepository.getUserTaskReportsForUnclosedUsers(reportDates.getFromDate(), reportDates.getToDate());
-        allUserReports.forEach(userReport -> updateClosedReport(userReport, reportDates.getFromDate()));
+        Set<Long> closedUserIds = closeDateRepository.findClosedUserIdsByDate(reportDates.getFromDate());
+        allUserReports.forEach(userReport -> userReport.setClosed(closedUserIds.contains(userReport.getUserId())));
 
         // Filter to show only unclosed users (users who haven't closed their reports)
         List<UnclosedUser> unclosedUsers = allUserReports.stream()
@@ -92,15 +96,4 @@ public class TimeReportStatusService {
                 .workableHours(workableHours)
                 .build();
     }
-
-    private void updateClosedReport(UserReport userReport, LocalDate fromDate) {
-        UserPO userPO = new UserPO(userReport.getUserId());
-        LocalDate date = LocalDate.of(fromDate.getYear(), fromDate.getMonthValue(), 1);
-
-        CloseDatePO closeDatePO = closeDateRepository.findByUserAndDate(userPO, date);
-        if (closeDatePO != null && closeDatePO.getDate().getYear() == fromDate.getYear() &&
-                closeDatePO.getDate().getMonthValue() == fromDate.getMonthValue()) {
-            userReport.setClosed(true);
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package se.dtime.service.report;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming XLSX: only the last {@value #ROW_WINDOW} rows are kept in memory, older rows are flushed to a temp file.
+ */
+class XlsxReportExportWriter implements ReportExportWriter {
+
+    private static final int ROW_WINDOW = 100;
+
+    private final OutputStream outputStream;
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private int rowIndex;
+
+    XlsxReportExportWriter(OutputStream outputStream, String sheetName) {
+        this.outputStream = outputStream;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+    }
+
+    @Override
+    public void writeRow(Object[] values) {
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+
+            Cell cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else if (value instanceof Boolean bool) {
+                cell.setCellValue(bool);
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            workbook.close();
+        }
+    }
+}
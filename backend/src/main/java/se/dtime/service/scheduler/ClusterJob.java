@@ -0,0 +1,30 @@
+package se.dtime.service.scheduler;
+
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * A job that runs once per cluster on a cron schedule, see {@link ClusterJobRunner}.
+ *
+ * @param name           unique name of the job row
+ * @param cron           Spring cron expression
+ * @param catchUpWindow  how late a missed run may still start, e.g. after downtime; {@code null} always catches up
+ * @param task           the work, given the time the run was scheduled for
+ */
+public record ClusterJob(String name, String cron, Duration catchUpWindow, Consumer<LocalDateTime> task) {
+
+    public ClusterJob {
+        CronExpression.parse(cron);
+    }
+
+    LocalDateTime nextRunAfter(LocalDateTime time) {
+        return CronExpression.parse(cron).next(time);
+    }
+
+    boolean isTooLate(LocalDateTime scheduledAt, LocalDateTime now) {
+        return catchUpWindow != null && scheduledAt.plus(catchUpWindow).isBefore(now);
+    }
+}
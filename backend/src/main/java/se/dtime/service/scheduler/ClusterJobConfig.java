@@ -0,0 +1,32 @@
+package se.dtime.service.scheduler;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * The jobs run by the {@link ClusterJobRunner}. Add further maintenance jobs here.
+ */
+@Configuration
+public class ClusterJobConfig {
+
+    /**
+     * Makes sure the time_report partitions for this and next year exist, well before the first entry of next year.
+     */
+    @Bean
+    public ClusterJob timeReportPartitionsJob(Scheduler scheduler) {
+        return new ClusterJob("time-report-partitions", "0 0 2 1 * ?", null,
+                scheduledAt -> scheduler.createTimeReportPartitions());
+    }
+
+    /**
+     * Reminds users on the last working day of the month. A reminder missed by more than the rest of that day is
+     * not sent late.
+     */
+    @Bean
+    public ClusterJob emailReminderJob(Scheduler scheduler) {
+        return new ClusterJob("email-reminder", "0 0 10 27-31 * ?", Duration.ofHours(12),
+                scheduledAt -> scheduler.emailReminder());
+    }
+}
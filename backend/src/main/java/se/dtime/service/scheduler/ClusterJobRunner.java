@@ -0,0 +1,117 @@
+package se.dtime.service.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.dtime.model.ScheduledJobRunStatus;
+import se.dtime.repository.jdbc.ScheduledJobRepository;
+import se.dtime.repository.jdbc.ScheduledJobRepository.ScheduledJobRun;
+import se.dtime.service.calendar.CalendarService;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every {@link ClusterJob} once per cluster, however many backend nodes are polling.
+ * <p>
+ * Each job has a row in {@code scheduled_job} holding its next run. Every node polls the due jobs and tries to claim
+ * them with a conditional update; the node that wins runs the job, records the run with its duration in
+ * {@code scheduled_job_run} and schedules the next run. A node that dies while running loses the lock after
+ * {@code lock-timeout}.
+ * <p>
+ * Runs missed while all nodes were down are still due at the next poll and are run once, not once per missed
+ * occurrence. Jobs with a catch-up window skip runs that are later than that.
+ */
+@Slf4j
+@Component
+public class ClusterJobRunner {
+
+    private final ScheduledJobRepository scheduledJobRepository;
+    private final CalendarService calendarService;
+    private final List<ClusterJob> jobs;
+    private final Duration lockTimeout;
+    private final boolean enabled;
+    private final String node = ManagementFactory.getRuntimeMXBean().getName();
+
+    private volatile boolean registered;
+
+    public ClusterJobRunner(ScheduledJobRepository scheduledJobRepository,
+                            CalendarService calendarService,
+                            List<ClusterJob> jobs,
+                            @Value("${dtime.scheduler.lock-timeout:PT1H}") Duration lockTimeout,
+                            @Value("${dtime.scheduler.enabled:true}") boolean enabled) {
+        this.scheduledJobRepository = scheduledJobRepository;
+        this.calendarService = calendarService;
+        this.jobs = jobs;
+        this.lockTimeout = lockTimeout;
+        this.enabled = enabled;
+    }
+
+    @Scheduled(initialDelayString = "${dtime.scheduler.poll-interval-ms:60000}",
+            fixedDelayString = "${dtime.scheduler.poll-interval-ms:60000}")
+    public void runDueJobs() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            if (!registered) {
+                register();
+            }
+            jobs.forEach(this::runIfDue);
+        } catch (DataAccessException e) {
+            log.warn("Failed to poll scheduled jobs: {}", e.getMessage());
+        }
+    }
+
+    void register() {
+        LocalDateTime now = calendarService.getNowDateTime();
+        jobs.forEach(job -> scheduledJobRepository.register(job.name(), job.cron(), job.nextRunAfter(now)));
+        registered = true;
+    }
+
+    void runIfDue(ClusterJob job) {
+        LocalDateTime claimedAt = calendarService.getNowDateTime();
+        Optional<LocalDateTime> claimed = scheduledJobRepository.claim(job.name(), node, claimedAt, claimedAt.plus(lockTimeout));
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime scheduledAt = claimed.get();
+        ScheduledJobRunStatus status = ScheduledJobRunStatus.SUCCEEDED;
+        String error = null;
+        long start = System.nanoTime();
+        try {
+            if (job.isTooLate(scheduledAt, claimedAt)) {
+                log.info("Skipping run of job {} scheduled at {}, it is past its catch-up window", job.name(), scheduledAt);
+                status = ScheduledJobRunStatus.SKIPPED;
+            } else {
+                log.info("Running job {} scheduled at {}", job.name(), scheduledAt);
+                job.task().accept(scheduledAt);
+            }
+        } catch (RuntimeException e) {
+            log.error("Job {} scheduled at {} failed", job.name(), scheduledAt, e);
+            status = ScheduledJobRunStatus.FAILED;
+            error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // The next run is scheduled before the history is written, so a failing history insert cannot leave the
+        // run due for another node once the lock has expired
+        LocalDateTime now = calendarService.getNowDateTime();
+        if (!scheduledJobRepository.complete(job.name(), node, claimedAt, job.nextRunAfter(now))) {
+            log.warn("Job {} ran longer than the lock timeout of {} and may have run on another node too", job.name(), lockTimeout);
+        }
+        try {
+            scheduledJobRepository.recordRun(new ScheduledJobRun(job.name(), node, scheduledAt, claimedAt, durationMs, status, error));
+        } catch (DataAccessException e) {
+            log.warn("Failed to record the {} run of job {} scheduled at {}: {}", status, job.name(), scheduledAt, e.getMessage());
+        }
+    }
+}
@@ -2,14 +2,14 @@ package se.dtime.service.scheduler;
 
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import se.dtime.config.EmailSendConfig;
 import se.dtime.dbmodel.UserPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.repository.UserRepository;
+import se.dtime.repository.jdbc.TimeReportPartitionRepository;
 import se.dtime.service.calendar.CalendarService;
-import se.dtime.service.system.EmailSender;
+import se.dtime.service.system.EmailOutbox;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -20,17 +20,33 @@ public class Scheduler {
 
     private final CalendarService calendarService;
     private final UserRepository userRepository;
-    private final EmailSender emailSender;
+    private final EmailOutbox emailOutbox;
     private final EmailSendConfig emailSendConfig;
+    private final TimeReportPartitionRepository timeReportPartitionRepository;
 
-    public Scheduler(CalendarService calendarService, UserRepository userRepository, EmailSender emailSender, EmailSendConfig emailSendConfig) {
+    public Scheduler(CalendarService calendarService, UserRepository userRepository, EmailOutbox emailOutbox, EmailSendConfig emailSendConfig, TimeReportPartitionRepository timeReportPartitionRepository) {
         this.calendarService = calendarService;
         this.userRepository = userRepository;
-        this.emailSender = emailSender;
+        this.emailOutbox = emailOutbox;
         this.emailSendConfig = emailSendConfig;
+        this.timeReportPartitionRepository = timeReportPartitionRepository;
     }
 
-    @Scheduled(cron = "0 0 10 27-31 * ?")
+    /**
+     * Makes sure the time_report partitions for this and next year exist, well before the first entry of next year.
+     * Run once per cluster by {@link ClusterJobRunner}, see {@link ClusterJobConfig}.
+     */
+    public void createTimeReportPartitions() {
+        int year = calendarService.getNowDate().getYear();
+        log.info("Ensuring time_report partitions for {} and {}", year, year + 1);
+        timeReportPartitionRepository.createYearPartition(year);
+        timeReportPartitionRepository.createYearPartition(year + 1);
+    }
+
+    /**
+     * Queues the monthly reminder if today is the last working day of the month.
+     * Run once per cluster by {@link ClusterJobRunner}, see {@link ClusterJobConfig}.
+     */
     public void emailReminder() {
         log.info("Starting scheduled email reminder check");
 
@@ -45,7 +61,7 @@ public class Scheduler {
         if (now.equals(lastWorkingDayOfMonth)) {
             log.info("Sending scheduled email reminders - today is the last working day of the month");
             List<UserPO> userPOList = userRepository.findByActivationStatusOrderByDisplayNameAsc(ActivationStatus.ACTIVE);
-            userPOList.forEach(u -> emailSender.sendReminderEmail(u.getEmail()));
+            emailOutbox.enqueueReminders(userPOList.stream().map(UserPO::getEmail).toList());
         } else {
             log.info("Not sending email reminders - today is not the last working day of the month");
         }
@@ -1,6 +1,7 @@
 package se.dtime.service.specialday;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import se.dtime.dbmodel.SpecialDayPO;
@@ -8,7 +9,9 @@ import se.dtime.model.SpecialDay;
 import se.dtime.model.error.NotFoundException;
 import se.dtime.model.error.ValidationException;
 import se.dtime.repository.SpecialDayRepository;
+import se.dtime.service.cache.CacheInvalidationEvent;
 import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.report.ReportCache;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.json.JsonMapper;
@@ -24,12 +27,17 @@ public class SpecialDayService {
     private final SpecialDayConverter specialDayConverter;
     private final SpecialDayValidator specialDayValidator;
     private final CalendarService calendarService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReportCache reportCache;
 
-    public SpecialDayService(SpecialDayRepository specialDayRepository, SpecialDayConverter specialDayConverter, SpecialDayValidator specialDayValidator, CalendarService calendarService) {
+    public SpecialDayService(SpecialDayRepository specialDayRepository, SpecialDayConverter specialDayConverter, SpecialDayValidator specialDayValidator,
+                             CalendarService calendarService, ApplicationEventPublisher eventPublisher, ReportCache reportCache) {
         this.specialDayRepository = specialDayRepository;
         this.specialDayConverter = specialDayConverter;
         this.specialDayValidator = specialDayValidator;
         this.calendarService = calendarService;
+        this.eventPublisher = eventPublisher;
+        this.reportCache = reportCache;
     }
 
     public List<SpecialDay> getAllSpecialDays() {
@@ -60,7 +68,7 @@ public class SpecialDayService {
         specialDayValidator.validateCreate(specialDay);
         SpecialDayPO specialDayPO = specialDayConverter.toPO(specialDay);
         SpecialDayPO savedPO = specialDayRepository.save(specialDayPO);
-        calendarService.resetSpecialDaysCache();
+        reloadYear(savedPO.getDate().getYear());
         return specialDayConverter.toModel(savedPO);
     }
 
@@ -70,28 +78,31 @@ public class SpecialDayService {
         SpecialDayPO existingPO = specialDayRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("special.day.not.found"));
 
+        int previousYear = existingPO.getDate().getYear();
         existingPO.setName(specialDay.getName());
         existingPO.setDayType(specialDay.getDayType());
         existingPO.setDate(specialDay.getDate());
 
         SpecialDayPO savedPO = specialDayRepository.save(existingPO);
-        calendarService.resetSpecialDaysCache();
+        reloadYear(previousYear);
+        if (savedPO.getDate().getYear() != previousYear) {
+            reloadYear(savedPO.getDate().getYear());
+        }
         return specialDayConverter.toModel(savedPO);
     }
 
     public void deleteSpecialDay(Long id) {
-        if (!specialDayRepository.existsById(id)) {
-            throw new NotFoundException("special.day.not.found");
-        }
+        SpecialDayPO specialDayPO = specialDayRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("special.day.not.found"));
         specialDayRepository.deleteById(id);
-        calendarService.resetSpecialDaysCache();
+        reloadYear(specialDayPO.getDate().getYear());
     }
 
     public void deleteSpecialDaysByYear(int year) {
         List<SpecialDayPO> specialDaysToDelete = specialDayRepository.findByYear(year);
         if (!specialDaysToDelete.isEmpty()) {
             specialDayRepository.deleteAll(specialDaysToDelete);
-            calendarService.resetSpecialDaysCache();
+            reloadYear(year);
             log.info("Deleted {} special days for year {}", specialDaysToDelete.size(), year);
         }
     }
@@ -126,7 +137,7 @@ public class SpecialDayService {
                     .toList();
 
             List<SpecialDayPO> savedPOs = specialDayRepository.saveAll(specialDayPOs);
-            calendarService.resetSpecialDaysCache();
+            savedPOs.stream().map(savedPO -> savedPO.getDate().getYear()).distinct().forEach(this::reloadYear);
 
             log.info("Successfully uploaded {} special days from JSON file", savedPOs.size());
 
@@ -139,4 +150,14 @@ public class SpecialDayService {
             throw new ValidationException("Invalid JSON file format");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Reloads the calendar of {@code year} on this node and tells the other nodes to drop theirs. Cached reports
+     * embed workable hours and are dropped as well, including those of periods that span the turn of the year.
+     */
+    private void reloadYear(int year) {
+        calendarService.reloadYear(year);
+        eventPublisher.publishEvent(new CacheInvalidationEvent(CalendarService.CACHE_NAME, String.valueOf(year)));
+        reportCache.invalidateAll();
+    }
+}
@@ -0,0 +1,74 @@
+package se.dtime.service.system;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import se.dtime.repository.jdbc.EmailOutboxRepository;
+import se.dtime.service.calendar.CalendarService;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Queues emails in the outbox for the {@link EmailOutboxSender}, so producers return without waiting for SMTP.
+ */
+@Slf4j
+@Service
+public class EmailOutbox {
+    private final static String REMINDER_SUBJECT = "Dtime!";
+    private final static String REMINDER_TEXT = "En vänlig påminnelse att rapporera månadens tid J.\n\nMvh\nDtime";
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxSender emailOutboxSender;
+    private final EmailSender emailSender;
+    private final CalendarService calendarService;
+
+    public EmailOutbox(EmailOutboxRepository emailOutboxRepository, EmailOutboxSender emailOutboxSender, EmailSender emailSender, CalendarService calendarService) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailOutboxSender = emailOutboxSender;
+        this.emailSender = emailSender;
+        this.calendarService = calendarService;
+    }
+
+    /**
+     * Queues one reminder per distinct, non blank address in one batch.
+     *
+     * @return the number of reminders queued
+     */
+    public int enqueueReminders(Collection<String> recipients) {
+        if (!emailSender.isEnabled()) {
+            log.info("Email sending is disabled - no reminders queued");
+            return 0;
+        }
+
+        List<String> distinctRecipients = recipients.stream()
+                .filter(StringUtils::isNotBlank)
+                .map(String::trim)
+                .distinct()
+                .toList();
+        if (distinctRecipients.isEmpty()) {
+            return 0;
+        }
+
+        emailOutboxRepository.enqueue(distinctRecipients, REMINDER_SUBJECT, REMINDER_TEXT, calendarService.getNowDateTime());
+        wakeUpSender();
+        log.info("Queued {} reminder emails", distinctRecipients.size());
+        return distinctRecipients.size();
+    }
+
+    private void wakeUpSender() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            emailOutboxSender.wakeUp();
+            return;
+        }
+        // The sender only sees the emails once they are committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emailOutboxSender.wakeUp();
+            }
+        });
+    }
+}
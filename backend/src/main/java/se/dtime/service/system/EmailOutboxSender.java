@@ -0,0 +1,205 @@
+package se.dtime.service.system;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import se.dtime.repository.jdbc.EmailOutboxRepository;
+import se.dtime.repository.jdbc.EmailOutboxRepository.OutboxEmail;
+import se.dtime.service.calendar.CalendarService;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains the email outbox on a dedicated thread.
+ * <p>
+ * Due emails are claimed in batches and sent over one SMTP connection, which is kept open across batches and replaced
+ * after {@code messages-per-connection} messages, on an error or when the outbox is empty. Sending is paced to
+ * {@code rate-per-second}. A failed email is retried with exponential backoff until {@code max-attempts} is reached and
+ * is then marked {@code FAILED}; invalid addresses fail at once.
+ * <p>
+ * The sender is inactive unless mail is enabled. Emails queued meanwhile are sent once it is.
+ */
+@Slf4j
+@Component
+public class EmailOutboxSender {
+
+    private static final long STOP_TIMEOUT_MILLIS = 5_000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailSender emailSender;
+    private final CalendarService calendarService;
+    private final int batchSize;
+    private final long sendIntervalNanos;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration pollInterval;
+    private final Duration lease;
+    private final int messagesPerConnection;
+
+    private volatile boolean stopped;
+    private volatile Thread worker;
+    private EmailSender.SmtpConnection connection;
+    private int sentOnConnection;
+    private long nextSendAt;
+
+    public EmailOutboxSender(EmailOutboxRepository emailOutboxRepository,
+                             EmailSender emailSender,
+                             CalendarService calendarService,
+                             @Value("${mail.outbox.batch-size:50}") int batchSize,
+                             @Value("${mail.outbox.rate-per-second:5}") int ratePerSecond,
+                             @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${mail.outbox.initial-backoff:PT1M}") Duration initialBackoff,
+                             @Value("${mail.outbox.max-backoff:PT6H}") Duration maxBackoff,
+                             @Value("${mail.outbox.poll-interval:PT30S}") Duration pollInterval,
+                             @Value("${mail.outbox.lease:PT10M}") Duration lease,
+                             @Value("${mail.outbox.messages-per-connection:100}") int messagesPerConnection) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailSender = emailSender;
+        this.calendarService = calendarService;
+        this.batchSize = batchSize;
+        this.sendIntervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+        this.messagesPerConnection = messagesPerConnection;
+        // System.nanoTime() may be negative, so pacing starts from now rather than from 0
+        this.nextSendAt = System.nanoTime();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!emailSender.isEnabled()) {
+            log.info("Email outbox sender is disabled - mail is not enabled or not configured");
+            return;
+        }
+        worker = Thread.ofPlatform().daemon().name("email-outbox-sender").start(this::drain);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopped = true;
+        Thread thread = worker;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(STOP_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Makes the sender look for due emails now instead of at the next poll.
+     */
+    public void wakeUp() {
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void drain() {
+        try {
+            while (!stopped) {
+                try {
+                    if (drainBatch() == 0) {
+                        closeConnection();
+                        LockSupport.parkNanos(pollInterval.toNanos());
+                    }
+                } catch (RuntimeException e) {
+                    // Keep the worker alive, the outbox is retried after the poll interval
+                    log.error("Email outbox sender failed, retrying in {}", pollInterval, e);
+                    closeConnection();
+                    LockSupport.parkNanos(pollInterval.toNanos());
+                }
+            }
+        } finally {
+            closeConnection();
+        }
+    }
+
+    /**
+     * Claims one batch of due emails and sends it.
+     *
+     * @return the number of emails claimed
+     */
+    int drainBatch() {
+        List<OutboxEmail> batch = emailOutboxRepository.claim(batchSize, calendarService.getNowDateTime(), lease);
+        for (OutboxEmail email : batch) {
+            if (stopped) {
+                // Unsent emails of the batch are claimed again when their lease runs out
+                break;
+            }
+            send(email);
+        }
+        return batch.size();
+    }
+
+    private void send(OutboxEmail email) {
+        try {
+            if (connection == null || sentOnConnection >= messagesPerConnection) {
+                closeConnection();
+                connection = emailSender.connect();
+            }
+            pace();
+            connection.send(email.recipient(), email.subject(), email.body());
+            sentOnConnection++;
+        } catch (MessagingException | RuntimeException e) {
+            closeConnection();
+            failed(email, e);
+            return;
+        }
+
+        try {
+            emailOutboxRepository.markSent(email.id(), calendarService.getNowDateTime());
+        } catch (DataAccessException e) {
+            log.error("Email {} was sent but could not be marked as sent and may be sent again", email.id(), e);
+        }
+    }
+
+    private void failed(OutboxEmail email, Exception e) {
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        try {
+            if (e instanceof AddressException || email.attempts() >= maxAttempts) {
+                log.error("Giving up on email {} to {} after {} attempts: {}", email.id(), email.recipient(), email.attempts(), error);
+                emailOutboxRepository.markFailed(email.id(), error);
+            } else {
+                Duration backoff = backoff(email.attempts());
+                log.warn("Failed to send email {} to {}, retrying in {}: {}", email.id(), email.recipient(), backoff, error);
+                emailOutboxRepository.markRetry(email.id(), error, calendarService.getNowDateTime().plus(backoff));
+            }
+        } catch (DataAccessException dataAccessException) {
+            log.warn("Failed to record the failure of email {}, it is retried when its lease runs out", email.id(), dataAccessException);
+        }
+    }
+
+    private void pace() {
+        long wait = nextSendAt - System.nanoTime();
+        while (wait > 0 && !stopped) {
+            LockSupport.parkNanos(wait);
+            wait = nextSendAt - System.nanoTime();
+        }
+        nextSendAt = Math.max(nextSendAt, System.nanoTime()) + sendIntervalNanos;
+    }
+
+    private void closeConnection() {
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+        sentOnConnection = 0;
+    }
+}
@@ -1,61 +1,75 @@
 package se.dtime.service.system;
 
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 import se.dtime.config.EmailSendConfig;
-import se.dtime.model.error.BaseException;
 
 import java.util.Properties;
 
+/**
+ * SMTP access for the {@link EmailOutboxSender}. One mail session is created per application and a connection is
+ * reused for many messages instead of opening a new one per email.
+ */
 @Slf4j
 @Service
 public class EmailSender {
-    private final static String REMINDER_SUBJECT = "Dtime!";
-    private final static String REMINDER_TEXT = "En vänlig påminnelse att rapporera månadens tid J.\n\nMvh\nDtime";
 
     private final EmailSendConfig emailSendConfig;
+    private final JavaMailSenderImpl mailSender;
 
     public EmailSender(EmailSendConfig emailSendConfig) {
         this.emailSendConfig = emailSendConfig;
+        this.mailSender = createMailSender();
     }
 
-    public void sendReminderEmail(String to) {
-        if (StringUtils.isEmpty(to)) {
-            return;
-        }
+    /**
+     * Whether mail is enabled and configured with real credentials.
+     */
+    public boolean isEnabled() {
+        return emailSendConfig.isMailEnabled() && !isDummyEmailConfiguration();
+    }
+
+    /**
+     * Opens an authenticated SMTP connection; the caller must close it.
+     */
+    public SmtpConnection connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport();
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        return new SmtpConnection(transport);
+    }
+
+    public final class SmtpConnection implements AutoCloseable {
+        private final Transport transport;
 
-        // Check if email is enabled
-        if (!emailSendConfig.isMailEnabled()) {
-            log.info("Email sending is disabled - mail.enabled is false");
-            return;
+        private SmtpConnection(Transport transport) {
+            this.transport = transport;
         }
 
-        // Check if email credentials are properly configured
-        if (isDummyEmailConfiguration()) {
-            log.warn("Email sending is disabled - using dummy configuration");
-            return;
+        public void send(String to, String subject, String text) throws MessagingException {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+            helper.setFrom(emailSendConfig.getReminderMailUsername());
+            helper.setTo(to);
+            helper.setSubject(subject);
+            helper.setText(text);
+            message.saveChanges();
+
+            transport.sendMessage(message, message.getAllRecipients());
+            log.info("Email sent to: {}", to);
         }
 
-        try {
-            JavaMailSenderImpl emailSender = createMailSender();
-            emailSender.setUsername(emailSendConfig.getReminderMailUsername());
-            emailSender.setPassword(emailSendConfig.getReminderMailPassword());
-
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(emailSendConfig.getReminderMailUsername());
-            message.setTo(to);
-            message.setSubject(REMINDER_SUBJECT);
-            message.setText(REMINDER_TEXT);
-
-            emailSender.send(message);
-            log.info("Reminder email sent to: {}", to);
-        } catch (MailException e) {
-            log.error("Failed to send email", e);
-            throw new BaseException("system.failed.to.send.mail");
+        @Override
+        public void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close SMTP connection", e);
+            }
         }
     }
 
@@ -69,6 +83,8 @@ public class EmailSender {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
         mailSender.setHost(emailSendConfig.getHost());
         mailSender.setPort(emailSendConfig.getPort());
+        mailSender.setUsername(emailSendConfig.getReminderMailUsername());
+        mailSender.setPassword(emailSendConfig.getReminderMailPassword());
         mailSender.setDefaultEncoding("UTF-8");
 
         Properties props = mailSender.getJavaMailProperties();
@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import se.dtime.dbmodel.UserPO;
 import se.dtime.model.ActivationStatus;
+import se.dtime.model.report.UnclosedUser;
 import se.dtime.model.report.UnclosedUserReport;
 import se.dtime.repository.UserRepository;
 import se.dtime.service.report.TimeReportStatusService;
@@ -14,23 +15,23 @@ import java.util.List;
 @Service
 public class SystemOperationService {
 
-    private final EmailSender emailSender;
+    private final EmailOutbox emailOutbox;
     private final UserRepository userRepository;
     private final TimeReportStatusService timeReportStatusService;
 
-    public SystemOperationService(EmailSender emailSender, UserRepository userRepository, TimeReportStatusService timeReportStatusService) {
-        this.emailSender = emailSender;
+    public SystemOperationService(EmailOutbox emailOutbox, UserRepository userRepository, TimeReportStatusService timeReportStatusService) {
+        this.emailOutbox = emailOutbox;
         this.userRepository = userRepository;
         this.timeReportStatusService = timeReportStatusService;
     }
 
     public void sendMailReminder() {
         List<UserPO> userPOList = userRepository.findByActivationStatusOrderByDisplayNameAsc(ActivationStatus.ACTIVE);
-        userPOList.forEach(u -> emailSender.sendReminderEmail(u.getEmail()));
+        emailOutbox.enqueueReminders(userPOList.stream().map(UserPO::getEmail).toList());
     }
 
     public void sendMailReminderToUnclosedUsers() {
-        log.info("Sending email reminders to users with unclosed time reports");
+        log.info("Queueing email reminders to users with unclosed time reports");
         UnclosedUserReport report = timeReportStatusService.getUnclosedUsers(null);
 
         if (report.getUnclosedUsers() == null || report.getUnclosedUsers().isEmpty()) {
@@ -38,14 +39,10 @@ public class SystemOperationService {
             return;
         }
 
-        int emailCount = 0;
-        for (var unclosedUser : report.getUnclosedUsers()) {
-            if (unclosedUser.getEmail() != null && !unclosedUser.getEmail().isEmpty()) {
-                emailSender.sendReminderEmail(unclosedUser.getEmail());
-                emailCount++;
-            }
-        }
+        int emailCount = emailOutbox.enqueueReminders(report.getUnclosedUsers().stream()
+                .map(UnclosedUser::getEmail)
+                .toList());
 
-        log.info("Email reminders sent to {} users with unclosed time reports", emailCount);
+        log.info("Email reminders queued for {} users with unclosed time reports", emailCount);
     }
 }
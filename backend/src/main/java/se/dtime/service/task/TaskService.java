@@ -3,16 +3,22 @@ package se.dtime.service.task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import se.dtime.dbmodel.TaskContributorPO;
+import org.springframework.transaction.support.TransactionTemplate;
 import se.dtime.dbmodel.TaskPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.PagedResponse;
 import se.dtime.model.Task;
 import se.dtime.model.error.NotFoundException;
-import se.dtime.repository.TaskContributorRepository;
+import se.dtime.repository.KeysetPaging;
+import se.dtime.repository.SearchSpecifications;
 import se.dtime.repository.TaskRepository;
-import se.dtime.repository.TimeEntryRepository;
+import se.dtime.repository.jdbc.TaskContributorUpsertRepository;
+import se.dtime.repository.jdbc.TimeEntryUpsertRepository;
+import se.dtime.repository.jdbc.TimeReportMonthRepository;
+import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.report.ReportCache;
 
 import java.util.Arrays;
 import java.util.List;
@@ -20,18 +26,29 @@ import java.util.List;
 @Service
 public class TaskService {
 
+    // Time entries deleted per statement when a task is deleted
+    static final int DELETE_CHUNK_SIZE = 5_000;
+
     private final TaskRepository taskRepository;
     private final TaskConverter taskConverter;
     private final TaskValidator taskValidator;
-    private final TaskContributorRepository taskContributorRepository;
-    private final TimeEntryRepository timeEntryRepository;
-
-    public TaskService(TaskRepository taskRepository, TaskConverter taskConverter, TaskValidator taskValidator, TaskContributorRepository taskContributorRepository, TimeEntryRepository timeEntryRepository) {
+    private final TaskContributorUpsertRepository taskContributorUpsertRepository;
+    private final TimeEntryUpsertRepository timeEntryUpsertRepository;
+    private final TimeReportMonthRepository timeReportMonthRepository;
+    private final CalendarService calendarService;
+    private final ReportCache reportCache;
+    private final TransactionTemplate transactionTemplate;
+
+    public TaskService(TaskRepository taskRepository, TaskConverter taskConverter, TaskValidator taskValidator, TaskContributorUpsertRepository taskContributorUpsertRepository, TimeEntryUpsertRepository timeEntryUpsertRepository, TimeReportMonthRepository timeReportMonthRepository, CalendarService calendarService, ReportCache reportCache, TransactionTemplate transactionTemplate) {
         this.taskRepository = taskRepository;
         this.taskConverter = taskConverter;
         this.taskValidator = taskValidator;
-        this.taskContributorRepository = taskContributorRepository;
-        this.timeEntryRepository = timeEntryRepository;
+        this.taskContributorUpsertRepository = taskContributorUpsertRepository;
+        this.timeEntryUpsertRepository = timeEntryUpsertRepository;
+        this.timeReportMonthRepository = timeReportMonthRepository;
+        this.calendarService = calendarService;
+        this.reportCache = reportCache;
+        this.transactionTemplate = transactionTemplate;
     }
 
     public Task add(Task task) {
@@ -47,9 +64,10 @@ public class TaskService {
         taskRepository.save(updatedTask);
 
         if (task.getActivationStatus() == ActivationStatus.INACTIVE) {
-            List<TaskContributorPO> taskContributorPOS = taskContributorRepository.findByTask(updatedTask);
-            taskContributorPOS.forEach(p -> p.setActivationStatus(ActivationStatus.INACTIVE));
+            taskContributorUpsertRepository.deactivateByTask(updatedTask.getId(), taskConverter.resolveCurrentUserId(), calendarService.getNowDateTime());
         }
+        // Reports show task names and group by task type and billability
+        reportCache.invalidateAll();
     }
 
 
@@ -66,30 +84,25 @@ public class TaskService {
         return taskConverter.toModel(taskPOS);
     }
 
-    public PagedResponse<Task> getAllPaged(Pageable pageable, Boolean active, String name, Long accountId) {
-        Page<TaskPO> page;
-
-        if (active != null && accountId != null) {
-            ActivationStatus activationStatus = active ? ActivationStatus.ACTIVE : ActivationStatus.INACTIVE;
-            page = taskRepository.findByActivationStatusAndAccountId(pageable, activationStatus, accountId);
-        } else if (active != null) {
-            ActivationStatus activationStatus = active ? ActivationStatus.ACTIVE : ActivationStatus.INACTIVE;
-            page = taskRepository.findByActivationStatus(pageable, activationStatus);
-        } else if (accountId != null) {
-            page = taskRepository.findByAccountId(pageable, accountId);
-        } else {
-            page = taskRepository.findAll(pageable);
+    /**
+     * Offset paging, or cursor paging without a count when {@code after} is given (blank for the first page).
+     */
+    public PagedResponse<Task> getAllPaged(Pageable pageable, String after, Boolean active, String name, Long accountId) {
+        Specification<TaskPO> specification = SearchSpecifications.allOf(
+                SearchSpecifications.hasActivationStatus(active),
+                SearchSpecifications.hasAssociationId("account", accountId),
+                SearchSpecifications.containsIgnoreCase("name", name));
+
+        if (after != null) {
+            KeysetPaging.Slice<TaskPO> slice = KeysetPaging.fetch(taskRepository, specification,
+                    pageable.getSort().iterator().next(), after, pageable.getPageSize());
+            return new PagedResponse<>(Arrays.asList(taskConverter.toModel(slice.content())),
+                    pageable.getPageSize(), after.isBlank(), slice.nextCursor());
         }
 
-        // Apply name filter if provided
-        List<TaskPO> filteredTasks = page.getContent();
-        if (name != null && !name.isEmpty()) {
-            filteredTasks = page.getContent().stream()
-                    .filter(t -> t.getName().toLowerCase().contains(name.toLowerCase()))
-                    .toList();
-        }
+        Page<TaskPO> page = taskRepository.findAll(specification, pageable);
 
-        Task[] tasks = taskConverter.toModel(filteredTasks);
+        Task[] tasks = taskConverter.toModel(page.getContent());
 
         return new PagedResponse<>(
                 Arrays.asList(tasks),
@@ -107,12 +120,22 @@ public class TaskService {
         return taskConverter.toModel(taskPO);
     }
 
+    /**
+     * Deletes the task with its time entries, rollup and contributors as set based statements. The contributors are
+     * deactivated first so no cells are written during the delete, then the rollup is deleted and the time entries
+     * in chunks of {@link #DELETE_CHUNK_SIZE}, each committing on its own. The contributors and the task are deleted
+     * in one transaction at the end. Cached reports are invalidated once at the end.
+     */
     public void delete(long taskId) {
         taskValidator.validateDelete(taskId);
 
-        TaskPO taskPO = new TaskPO(taskId);
-        timeEntryRepository.deleteAll(timeEntryRepository.findByTask(taskId));
-        taskContributorRepository.deleteAll(taskContributorRepository.findByTask(taskPO));
-        taskRepository.deleteById(taskId);
+        taskContributorUpsertRepository.deactivateByTask(taskId, taskConverter.resolveCurrentUserId(), calendarService.getNowDateTime());
+        timeReportMonthRepository.deleteByTask(taskId);
+        timeEntryUpsertRepository.deleteByTask(taskId, DELETE_CHUNK_SIZE);
+        transactionTemplate.executeWithoutResult(status -> {
+            taskContributorUpsertRepository.deleteByTask(taskId);
+            taskRepository.deleteById(taskId);
+        });
+        reportCache.invalidateAll();
     }
 }
@@ -13,7 +13,8 @@ import se.dtime.service.user.UserConverter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskContributorConverter extends BaseConverter {
@@ -65,19 +66,17 @@ public class TaskContributorConverter extends BaseConverter {
 
     public List<TaskContributor> toModel(UserPO userPO, List<TaskContributorPO> taskContributorPOS, List<TaskPO> taskPOS) {
         User user = userConverter.toModel(userPO);
+        Set<Long> contributedTaskIds = taskContributorPOS.stream()
+                .map(taskContributorPO -> taskContributorPO.getTask().getId())
+                .collect(Collectors.toSet());
 
-        List<TaskContributor> taskContributors = new ArrayList<>();
+        List<TaskContributor> taskContributors = new ArrayList<>(taskPOS.size());
         for (TaskPO taskPO : taskPOS) {
-            Optional<TaskContributorPO> participationPO = taskContributorPOS.
-                    stream().
-                    filter(x -> x.getTask().getId() == taskPO.getId()).
-                    findFirst();
-
             TaskContributor taskContributor = TaskContributor.builder().
                     id(0L).
                     task(taskConverter.toModel(taskPO)).
                     user(user).
-                    activationStatus(participationPO.isPresent() ? ActivationStatus.ACTIVE : ActivationStatus.INACTIVE).
+                    activationStatus(contributedTaskIds.contains(taskPO.getId()) ? ActivationStatus.ACTIVE : ActivationStatus.INACTIVE).
                     build();
 
             taskContributors.add(taskContributor);
@@ -1,18 +1,27 @@
 package se.dtime.service.taskcontributor;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import se.dtime.dbmodel.TaskContributorPO;
 import se.dtime.dbmodel.TaskPO;
 import se.dtime.dbmodel.UserPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.TaskContributor;
+import se.dtime.model.TaskContributorAssignment;
 import se.dtime.model.error.NotFoundException;
 import se.dtime.repository.TaskContributorRepository;
 import se.dtime.repository.TaskRepository;
 import se.dtime.repository.UserRepository;
+import se.dtime.repository.jdbc.TaskContributorUpsertRepository;
+import se.dtime.repository.jdbc.TaskContributorUpsertRepository.Assignment;
+import se.dtime.service.calendar.CalendarService;
 import se.dtime.service.user.CurrentUserResolver;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TaskContributorService {
@@ -22,14 +31,19 @@ public class TaskContributorService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final CurrentUserResolver currentUserResolver;
+    private final TaskContributorUpsertRepository taskContributorUpsertRepository;
+    private final CalendarService calendarService;
 
-    public TaskContributorService(TaskContributorConverter taskContributorConverter, TaskContributorRepository taskContributorRepository, TaskContributorValidator taskContributorValidator, TaskRepository taskRepository, UserRepository userRepository, CurrentUserResolver currentUserResolver) {
+    public TaskContributorService(TaskContributorConverter taskContributorConverter, TaskContributorRepository taskContributorRepository, TaskContributorValidator taskContributorValidator, TaskRepository taskRepository, UserRepository userRepository, CurrentUserResolver currentUserResolver,
+                                  TaskContributorUpsertRepository taskContributorUpsertRepository, CalendarService calendarService) {
         this.taskContributorConverter = taskContributorConverter;
         this.taskContributorRepository = taskContributorRepository;
         this.taskContributorValidator = taskContributorValidator;
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.currentUserResolver = currentUserResolver;
+        this.taskContributorUpsertRepository = taskContributorUpsertRepository;
+        this.calendarService = calendarService;
     }
 
     public TaskContributor addOrUpdate(TaskContributor taskContributor) {
@@ -46,6 +60,37 @@ public class TaskContributorService {
         return taskContributorConverter.toModel(savedPO);
     }
 
+    /**
+     * Sets every (user, task) pair of the assignment to its activation status in one transaction. The existing
+     * assignments are loaded with one query and only the pairs whose status changes are written, as one JDBC batch.
+     * Deactivating a pair that was never assigned writes nothing.
+     *
+     * @return the number of pairs written
+     */
+    @Transactional
+    public int assign(TaskContributorAssignment assignment) {
+        taskContributorValidator.validateAssign(assignment);
+
+        Set<Long> userIds = new LinkedHashSet<>(assignment.getUserIds());
+        Set<Long> taskIds = new LinkedHashSet<>(assignment.getTaskIds());
+        ActivationStatus activationStatus = assignment.getActivationStatus();
+        Map<Assignment, ActivationStatus> statuses = taskContributorUpsertRepository.findStatuses(userIds, taskIds);
+
+        List<Assignment> changed = new ArrayList<>();
+        for (long userId : userIds) {
+            for (long taskId : taskIds) {
+                Assignment pair = new Assignment(userId, taskId);
+                ActivationStatus current = statuses.get(pair);
+                if (current == null ? activationStatus == ActivationStatus.ACTIVE : current != activationStatus) {
+                    changed.add(pair);
+                }
+            }
+        }
+
+        taskContributorUpsertRepository.upsert(changed, activationStatus, currentUserResolver.resolveCurrentUserId(), calendarService.getNowDateTime());
+        return changed.size();
+    }
+
     public List<TaskContributor> getTasksForUser(long userId) {
         UserPO userPO = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("user.not.found"));
         List<TaskContributorPO> taskContributorPOS = taskContributorRepository.findByUserAndActivationStatus(userPO, ActivationStatus.ACTIVE);
@@ -10,13 +10,17 @@ import se.dtime.dbmodel.UserPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.Attribute;
 import se.dtime.model.TaskContributor;
+import se.dtime.model.TaskContributorAssignment;
 import se.dtime.model.error.ValidationException;
 import se.dtime.repository.AccountRepository;
 import se.dtime.repository.TaskRepository;
 import se.dtime.repository.UserRepository;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TaskContributorValidator extends ValidatorBase<TaskContributor> {
@@ -31,6 +35,8 @@ public class TaskContributorValidator extends ValidatorBase<TaskContributor> {
         this.taskRepository = taskRepository;
     }
 
+    public static final int MAX_ASSIGNMENT_SIZE = 10_000;
+
     static final String FIELD_NAME = "name";
     static final String FIELD_ACTIVATION_STATUS = "activationStatus";
 
@@ -54,6 +60,24 @@ public class TaskContributorValidator extends ValidatorBase<TaskContributor> {
         check(taskPO.getActivationStatus() == ActivationStatus.ACTIVE, "task.not.active");
     }
 
+    /**
+     * The checks of {@link #validateAdd(TaskContributor)} for every user and task of the assignment, with one query
+     * for all users and one for all tasks.
+     */
+    public void validateAssign(TaskContributorAssignment assignment) {
+        Set<Long> userIds = new HashSet<>(assignment.getUserIds());
+        Set<Long> taskIds = new HashSet<>(assignment.getTaskIds());
+        checkInvalidInput((long) userIds.size() * taskIds.size() <= MAX_ASSIGNMENT_SIZE, "task.contributor.assignment.too.large");
+
+        List<UserPO> userPOS = userRepository.findAllById(userIds);
+        check(userPOS.size() == userIds.size(), "user.not.found");
+        userPOS.forEach(userPO -> check(userPO.getActivationStatus() == ActivationStatus.ACTIVE, "user.not.active"));
+
+        List<TaskPO> taskPOS = taskRepository.findAllById(taskIds);
+        check(taskPOS.size() == taskIds.size(), "task.not.found");
+        taskPOS.forEach(taskPO -> check(taskPO.getActivationStatus() == ActivationStatus.ACTIVE, "task.not.active"));
+    }
+
     @Override
     public void validateDelete(long idEntity) {
 
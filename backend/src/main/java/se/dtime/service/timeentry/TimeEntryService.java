@@ -5,26 +5,40 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import se.dtime.dbmodel.TaskContributorPO;
 import se.dtime.dbmodel.UserPO;
 import se.dtime.dbmodel.timereport.CloseDatePO;
 import se.dtime.dbmodel.timereport.TimeEntryPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.ReportDates;
-import se.dtime.model.TaskType;
 import se.dtime.model.error.NotFoundException;
 import se.dtime.model.timereport.*;
 import se.dtime.repository.CloseDateRepository;
 import se.dtime.repository.TaskContributorRepository;
 import se.dtime.repository.TimeEntryRepository;
 import se.dtime.repository.UserRepository;
+import se.dtime.repository.jdbc.TimeEntryUpsertRepository;
+import se.dtime.repository.jdbc.TimeEntryUpsertRepository.Cell;
+import se.dtime.repository.jdbc.TimeEntryUpsertRepository.CellKey;
+import se.dtime.repository.jdbc.TimeReportMonthRepository;
+import se.dtime.repository.jdbc.TimeReportMonthRepository.ContributorMonth;
+import se.dtime.repository.jdbc.VacationReportRepository;
+import se.dtime.repository.jdbc.VacationReportRepository.UserVacationDays;
 import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.report.ReportCache;
 import se.dtime.service.user.CurrentUserResolver;
 import se.dtime.service.user.UserValidator;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Slf4j
@@ -39,8 +53,12 @@ public class TimeEntryService {
     private final TimeReportValidator timeReportValidator;
     private final TaskContributorRepository taskContributorRepository;
     private final CloseDateRepository closeDateRepository;
+    private final TimeReportMonthRepository timeReportMonthRepository;
+    private final TimeEntryUpsertRepository timeEntryUpsertRepository;
+    private final VacationReportRepository vacationReportRepository;
+    private final ReportCache reportCache;
 
-    public TimeEntryService(CalendarService calendarService, CurrentUserResolver currentUserResolver, UserRepository userRepository, TimeEntryRepository timeEntiryRepository, TimeReportConverter timeReportConverter, UserValidator userValidator, TimeReportValidator timeReportValidator, TaskContributorRepository taskContributorRepository, CloseDateRepository closeDateRepository) {
+    public TimeEntryService(CalendarService calendarService, CurrentUserResolver currentUserResolver, UserRepository userRepository, TimeEntryRepository timeEntiryRepository, TimeReportConverter timeReportConverter, UserValidator userValidator, TimeReportValidator timeReportValidator, TaskContributorRepository taskContributorRepository, CloseDateRepository closeDateRepository, TimeReportMonthRepository timeReportMonthRepository, TimeEntryUpsertRepository timeEntryUpsertRepository, VacationReportRepository vacationReportRepository, ReportCache reportCache) {
         this.calendarService = calendarService;
         this.currentUserResolver = currentUserResolver;
         this.userRepository = userRepository;
@@ -50,35 +68,109 @@ public class TimeEntryService {
         this.timeReportValidator = timeReportValidator;
         this.taskContributorRepository = taskContributorRepository;
         this.closeDateRepository = closeDateRepository;
+        this.timeReportMonthRepository = timeReportMonthRepository;
+        this.timeEntryUpsertRepository = timeEntryUpsertRepository;
+        this.vacationReportRepository = vacationReportRepository;
+        this.reportCache = reportCache;
     }
 
+    /**
+     * Saves or deletes one time sheet cell and adds the change of time to the monthly rollup in the same transaction.
+     * The cell and the rollup are written by one statement that also checks the contributor and the closed month;
+     * only when it writes nothing are the checks repeated to report which one failed.
+     * Cached reports for the periods containing the cell's date are invalidated.
+     */
+    @Transactional
     public long addOrUpdate(TimeEntry timeEntry) {
         log.debug("Time: {} {}", timeEntry.getTime(), timeEntry.getDay().getDate());
         userValidator.validateLoggedIn();
 
         // User is just tabbing around in the grid
-        boolean noTime = timeEntry.getTime() == null || timeEntry.getTime().compareTo(java.math.BigDecimal.ZERO) == 0;
-        if (noTime) {
-            boolean exists = timeEntiryRepository.existsById(timeEntry.getId());
-            if (exists) {
-                timeEntiryRepository.deleteById(timeEntry.getId());
-            }
+        if (!hasTime(timeEntry.getTime())) {
+            timeEntiryRepository.findById(timeEntry.getId()).ifPresent(this::delete);
             return 0L;
         }
 
-        timeReportValidator.validateAdd(timeEntry);
+        timeReportValidator.validateTime(timeEntry.getTime());
+
+        LocalDate date = timeEntry.getDay().getDate();
+        Cell cell = new Cell(timeEntry.getTaskContributorId(), date, timeEntry.getTime());
+        long id = timeEntryUpsertRepository.upsertChecked(cell, timeReportConverter.resolveCurrentUserId(), calendarService.getNowDateTime())
+                .orElseThrow(() -> timeReportValidator.rejectedAdd(timeEntry));
 
-        TimeEntryPO timeReportDayPO = timeEntiryRepository.findByTaskContributorAndDate(timeEntry.getTaskContributorId(), timeEntry.getDay().getDate());
-        if (timeReportDayPO != null) {
-            timeReportDayPO.setTime(timeEntry.getTime());
-            timeReportConverter.updateBaseDate(timeReportDayPO);
-        } else {
-            timeReportDayPO = timeReportConverter.toPO(timeEntry);
+        reportCache.invalidate(date);
+
+        return id;
+    }
+
+    /**
+     * Saves a whole time sheet grid in one transaction: the current time of the cells is read and locked, then new
+     * cells are inserted, existing cells updated and cells without time deleted, each as one JDBC batch, followed by
+     * one batch adding the change of time to the monthly rollup. When a cell occurs more than once the last one wins.
+     *
+     * @return the row id of every cell in request order, 0 for deleted cells
+     */
+    @Transactional
+    public List<Long> addOrUpdateBatch(List<TimeEntry> timeEntries) {
+        userValidator.validateLoggedIn();
+        timeReportValidator.validateBatch(timeEntries);
+
+        Map<CellKey, Cell> cells = new LinkedHashMap<>();
+        for (TimeEntry timeEntry : timeEntries) {
+            Cell cell = new Cell(timeEntry.getTaskContributorId(), timeEntry.getDay().getDate(), timeEntry.getTime());
+            cells.put(cell.key(), cell);
         }
 
-        timeEntiryRepository.save(timeReportDayPO);
+        Map<CellKey, BigDecimal> oldTimes = timeEntryUpsertRepository.lockTimes(cells.keySet());
+
+        List<Cell> inserts = new ArrayList<>();
+        List<Cell> updates = new ArrayList<>();
+        List<Cell> deletes = new ArrayList<>();
+        Map<ContributorMonth, BigDecimal> deltas = new HashMap<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (Cell cell : cells.values()) {
+            BigDecimal oldTime = oldTimes.get(cell.key());
+            BigDecimal newTime = hasTime(cell.time()) ? cell.time() : BigDecimal.ZERO;
+            if (!hasTime(cell.time())) {
+                deletes.add(cell);
+            } else if (oldTime == null) {
+                inserts.add(cell);
+            } else {
+                updates.add(cell);
+            }
+            deltas.merge(ContributorMonth.of(cell.taskContributorId(), cell.date()),
+                    newTime.subtract(oldTime != null ? oldTime : BigDecimal.ZERO), BigDecimal::add);
+            dates.add(cell.date());
+        }
 
-        return timeReportDayPO.getId();
+        long userId = timeReportConverter.resolveCurrentUserId();
+        LocalDateTime now = calendarService.getNowDateTime();
+        timeEntryUpsertRepository.insert(inserts, userId, now);
+        timeEntryUpsertRepository.update(updates, userId, now);
+        timeEntryUpsertRepository.delete(deletes);
+        timeReportMonthRepository.add(deltas);
+        dates.forEach(reportCache::invalidate);
+
+        Map<CellKey, Long> ids = timeEntryUpsertRepository.findIds(cells.values().stream()
+                .filter(cell -> hasTime(cell.time()))
+                .map(Cell::key)
+                .toList());
+        return timeEntries.stream()
+                .map(timeEntry -> ids.getOrDefault(new CellKey(timeEntry.getTaskContributorId(), timeEntry.getDay().getDate()), 0L))
+                .toList();
+    }
+
+    private static boolean hasTime(BigDecimal time) {
+        return time != null && time.compareTo(BigDecimal.ZERO) != 0;
+    }
+
+    private void delete(TimeEntryPO timeEntryPO) {
+        CellKey cell = new CellKey(timeEntryPO.getTaskContributor().getId(), timeEntryPO.getDate());
+        BigDecimal oldTime = timeEntryUpsertRepository.lockTimes(List.of(cell)).getOrDefault(cell, BigDecimal.ZERO);
+        timeEntiryRepository.delete(timeEntryPO);
+        timeEntiryRepository.flush();
+        timeReportMonthRepository.add(cell.taskContributorId(), cell.date(), oldTime.negate());
+        reportCache.invalidate(timeEntryPO.getDate());
     }
 
     /**
@@ -126,11 +218,11 @@ public class TimeEntryService {
 
     private TimeReport getTimeReportBetweenDatesForUser(ReportDates reportDates, UserPO userPO, TimeReportView timeReportView) {
         Day[] days = calendarService.getDays(reportDates.getFromDate(), reportDates.getToDate());
-        List<TimeEntryPO> timeReportDayPOS = timeEntiryRepository.findByUserAndBetweenDates(userPO.getId(), reportDates.getFromDate(), reportDates.getToDate());
-        List<TaskContributorPO> taskContributorPOS = taskContributorRepository.findByUserAndActivationStatus(userPO, ActivationStatus.ACTIVE);
+        List<TimeEntryPO> timeReportDayPOS = timeEntiryRepository.findTimeSheetByUserAndBetweenDates(userPO.getId(), reportDates.getFromDate(), reportDates.getToDate());
+        List<TaskContributorPO> taskContributorPOS = taskContributorRepository.findTimeSheetByUserAndActivationStatus(userPO, ActivationStatus.ACTIVE);
 
         TimeReport timeReport = timeReportConverter.convertToTimeReport(days, userPO, timeReportDayPOS, taskContributorPOS);
-        timeReport.setWorkableHours(calendarService.calcWorkableHours(days));
+        timeReport.setWorkableHours(calendarService.workableHours(reportDates.getFromDate(), reportDates.getToDate()));
 
         Set<LocalDate> closedMonths = getClosedMonths(days, userPO);
         updateClosedDays(timeReport, closedMonths);
@@ -195,12 +287,13 @@ public class TimeEntryService {
             yearMonthSet.add(date);
         }
 
+        if (yearMonthSet.isEmpty()) {
+            return new HashSet<>();
+        }
+
         Set<LocalDate> closedMonths = new HashSet<>();
-        for (LocalDate date : yearMonthSet) {
-            CloseDatePO closeDatePO = closeDateRepository.findByUserAndDate(userPO, date);
-            if (closeDatePO != null) {
-                closedMonths.add(closeDatePO.getDate());
-            }
+        for (CloseDatePO closeDatePO : closeDateRepository.findByUserIdsAndDates(Set.of(userPO.getId()), yearMonthSet)) {
+            closedMonths.add(closeDatePO.getDate());
         }
 
         return closedMonths;
@@ -218,50 +311,14 @@ public class TimeEntryService {
         ReportDates reportDates = getReportDates(timeReportView, date);
         Day[] days = calendarService.getDays(reportDates.getFromDate(), reportDates.getToDate());
 
-        // Get users who have vacation tasks (TaskType.VACATION)
-        List<UserPO> usersWithVacationTasks = getUsersWithVacationTasks();
-        log.debug("Found {} users with vacation tasks", usersWithVacationTasks.size());
-
-        // Get time entries for vacation tasks only for these specific users
-        List<TimeEntryPO> vacationTimeEntries = getVacationTimeEntriesForUsers(usersWithVacationTasks, reportDates.getFromDate(), reportDates.getToDate());
-        log.debug("Found {} vacation time entries between {} and {}", vacationTimeEntries.size(), reportDates.getFromDate(), reportDates.getToDate());
-
-        // Convert to vacation report
-        List<UserVacation> userVacations = timeReportConverter.convertToUserVacations(usersWithVacationTasks, vacationTimeEntries, days);
-        log.debug("Created vacation report with {} user vacations", userVacations.size());
+        List<UserVacationDays> userVacationDays = vacationReportRepository.getUserVacationDays(reportDates.getFromDate(), reportDates.getToDate());
+        log.debug("Found {} users with vacation tasks between {} and {}", userVacationDays.size(), reportDates.getFromDate(), reportDates.getToDate());
 
         return VacationReport.builder()
                 .firstDate(reportDates.getFromDate().toString())
                 .lastDate(reportDates.getToDate().toString())
                 .days(days)
-                .userVacations(userVacations)
+                .userVacations(timeReportConverter.convertToUserVacations(userVacationDays, days))
                 .build();
     }
-
-    private List<UserPO> getUsersWithVacationTasks() {
-        // Find all users who have task contributors for vacation tasks
-        return userRepository.findAll().stream()
-                .filter(user -> {
-                    // Check if user has any task contributors for vacation tasks
-                    List<TaskContributorPO> taskContributors = taskContributorRepository.findByUserAndActivationStatus(user, ActivationStatus.ACTIVE);
-                    return taskContributors.stream()
-                            .anyMatch(tc -> tc.getTask().getTaskType() == TaskType.VACATION);
-                })
-                .toList();
-    }
-
-    private List<TimeEntryPO> getVacationTimeEntriesForUsers(List<UserPO> users, LocalDate fromDate, LocalDate toDate) {
-        // Get all time entries for vacation tasks between the dates for specific users
-        return timeEntiryRepository.findByBetweenDates(fromDate, toDate).stream()
-                .filter(timeEntry -> {
-                    // Check if the time entry is for a vacation task
-                    if (timeEntry.getTaskContributor().getTask().getTaskType() != TaskType.VACATION) {
-                        return false;
-                    }
-                    // Check if the user is in our list of users with vacation tasks
-                    return users.stream().anyMatch(user ->
-                            user.getId().equals(timeEntry.getTaskContributor().getUser().getId()));
-                })
-                .toList();
-    }
 }
@@ -7,6 +7,7 @@ import se.dtime.dbmodel.UserPO;
 import se.dtime.dbmodel.timereport.TimeEntryPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.timereport.*;
+import se.dtime.repository.jdbc.VacationReportRepository.UserVacationDays;
 import se.dtime.service.BaseConverter;
 import se.dtime.service.task.TaskConverter;
 import se.dtime.service.user.UserConverter;
@@ -45,35 +46,66 @@ public class TimeReportConverter extends BaseConverter {
     }
 
     private List<TimeReportTask> convertToTimeReportTask(Day[] days, Map<Long, TaskContributorPO> taskContributorMap, List<TimeEntryPO> timeEntryPOS, Set<TaskPO> taskPOS) {
-        List<TimeReportTask> timeReportTasks = new ArrayList<>();
+        List<TaskPO> taskPOList = new ArrayList<>(mergeCategories(timeEntryPOS, taskPOS));
+        TimeEntryPO[][] timeEntryGrid = createTimeEntryGrid(days, taskPOList, timeEntryPOS);
 
-        Set<TaskPO> taskPOSet = mergeCategories(timeEntryPOS, taskPOS);
-
-        for (TaskPO taskPO : taskPOSet) {
+        List<TimeReportTask> timeReportTasks = new ArrayList<>(taskPOList.size());
+        for (int row = 0; row < taskPOList.size(); row++) {
+            TaskPO taskPO = taskPOList.get(row);
             TaskContributorPO taskContributorPO = taskContributorMap.get(taskPO.getId());
-            TimeReportTask timeReportTask = TimeReportTask.builder().
+
+            List<TimeEntry> timeEntries = new ArrayList<>(days.length);
+            BigDecimal totalTime = BigDecimal.ZERO;
+            for (int column = 0; column < days.length; column++) {
+                TimeEntryPO timeEntryPO = timeEntryGrid[row][column];
+                TimeEntry timeEntry = timeEntryPO != null ?
+                        convertToTimeReportDay(days[column], timeEntryPO) :
+                        convertToTimeReportDay(days[column], taskContributorPO);
+
+                if (timeEntry.getTime() != null) {
+                    totalTime = totalTime.add(timeEntry.getTime());
+                }
+                timeEntries.add(timeEntry);
+            }
+
+            timeReportTasks.add(TimeReportTask.builder().
                     task(taskConverter.toModel(taskPO)).
-                    timeEntries(new ArrayList<>()).
-                    totalTime(BigDecimal.ZERO).
+                    timeEntries(timeEntries).
+                    totalTime(totalTime).
                     editable(isRowEditable(taskPO, taskContributorPO)).
-                    build();
+                    build());
+        }
 
-            timeReportTasks.add(timeReportTask);
+        timeReportTasks.sort((TimeReportTask t1, TimeReportTask t2) -> t1.getTask().getName().compareTo(t2.getTask().getName()));
 
-            for (Day day : days) {
-                TimeEntry timeEntry = timeEntryPOS.stream().
-                        filter(t -> t.getTaskContributor().getTask().getId().equals(taskPO.getId()) && day.getDate().equals(t.getDate())).
-                        findFirst().map(te -> convertToTimeReportDay(day, te)).
-                        orElse(convertToTimeReportDay(day, taskContributorPO));
+        return timeReportTasks;
+    }
 
-                timeReportTask.setTotalTime(timeReportTask.getTotalTime().add(timeEntry.getTime() != null ? timeEntry.getTime() : BigDecimal.ZERO));
-                timeReportTask.getTimeEntries().add(timeEntry);
-            }
+    /**
+     * Places every time entry in a dense [task][day] grid in one pass over the entries. The days are consecutive,
+     * so the column is the entry's offset in days from the first day. When several entries share a cell the first wins.
+     */
+    private TimeEntryPO[][] createTimeEntryGrid(Day[] days, List<TaskPO> taskPOList, List<TimeEntryPO> timeEntryPOS) {
+        TimeEntryPO[][] timeEntryGrid = new TimeEntryPO[taskPOList.size()][days.length];
+        if (days.length == 0) {
+            return timeEntryGrid;
         }
 
-        timeReportTasks.sort((TimeReportTask t1, TimeReportTask t2) -> t1.getTask().getName().compareTo(t2.getTask().getName()));
+        Map<Long, Integer> rowByTaskId = new HashMap<>();
+        for (int row = 0; row < taskPOList.size(); row++) {
+            rowByTaskId.put(taskPOList.get(row).getId(), row);
+        }
 
-        return timeReportTasks;
+        long firstEpochDay = days[0].getDate().toEpochDay();
+        for (TimeEntryPO timeEntryPO : timeEntryPOS) {
+            Integer row = rowByTaskId.get(timeEntryPO.getTaskContributor().getTask().getId());
+            long column = timeEntryPO.getDate().toEpochDay() - firstEpochDay;
+            if (row != null && column >= 0 && column < days.length && timeEntryGrid[row][(int) column] == null) {
+                timeEntryGrid[row][(int) column] = timeEntryPO;
+            }
+        }
+
+        return timeEntryGrid;
     }
 
     private boolean isRowEditable(TaskPO taskPO, TaskContributorPO taskContributorPO) {
@@ -150,31 +182,26 @@ public class TimeReportConverter extends BaseConverter {
         return taskContributorMap;
     }
 
-    public List<UserVacation> convertToUserVacations(List<UserPO> userPOs, List<TimeEntryPO> timeEntryPOS, Day[] days) {
-        return userPOs.stream()
-                .map(u -> convertToUserVacation(u, timeEntryPOS, days))
+    /**
+     * Expands the vacation day bitsets, which are relative to the first of {@code days}, into one row per user.
+     */
+    public List<UserVacation> convertToUserVacations(List<UserVacationDays> userVacationDays, Day[] days) {
+        return userVacationDays.stream()
+                .map(u -> convertToUserVacation(u, days))
                 .toList();
     }
 
-    private UserVacation convertToUserVacation(UserPO userPO, List<TimeEntryPO> timeEntryPOS, Day[] days) {
-        List<TimeEntryPO> timeForUser = timeEntryPOS.stream()
-                .filter(t -> t.getTaskContributor().getUser().getId().equals(userPO.getId()))
-                .toList();
-
-        VacationDay[] vacationDays = Arrays.stream(days).
-                map(d -> VacationDay.builder().day(d).isVacation(isVacation(d, timeForUser)).build()).
-                toArray(VacationDay[]::new);
-
-        long noVacationDays = Arrays.stream(vacationDays).filter(v -> v.isVacation()).count();
+    private UserVacation convertToUserVacation(UserVacationDays userVacationDays, Day[] days) {
+        BitSet vacationDayBits = userVacationDays.vacationDays();
+        VacationDay[] vacationDays = new VacationDay[days.length];
+        for (int i = 0; i < days.length; i++) {
+            vacationDays[i] = VacationDay.builder().day(days[i]).isVacation(vacationDayBits.get(i)).build();
+        }
 
         return UserVacation.builder().
-                userId(userPO.getId()).
-                name(userPO.getFullName()).
-                noVacationDays((int) noVacationDays).
+                userId(userVacationDays.userId()).
+                name(userVacationDays.name()).
+                noVacationDays(vacationDayBits.get(0, days.length).cardinality()).
                 vacationsDays(vacationDays).build();
     }
-
-    private boolean isVacation(Day day, List<TimeEntryPO> timeEntryPOS) {
-        return timeEntryPOS.stream().anyMatch(t -> t.getDate().equals(day.getDate()));
-    }
 }
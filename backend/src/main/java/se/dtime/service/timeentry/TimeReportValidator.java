@@ -15,9 +15,14 @@ import se.dtime.repository.CloseDateRepository;
 import se.dtime.repository.TaskContributorRepository;
 import se.dtime.service.calendar.CalendarService;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TimeReportValidator extends ValidatorBase<TimeEntry> {
@@ -40,6 +45,7 @@ public class TimeReportValidator extends ValidatorBase<TimeEntry> {
     public static final int LAST_MONTH_OF_YEAR = 12;
     public static final int FIRST_YEAR = 0;
     public static final int FIRST_DAY_OF_MOUTH = 1;
+    public static final int MAX_BATCH_SIZE = 1000;
     static final String FIELD_DATE = "time";
 
     private static Map<String, AttributeValidator> VALIDATOR_MAP;
@@ -55,28 +61,77 @@ public class TimeReportValidator extends ValidatorBase<TimeEntry> {
     public void validateAdd(TimeEntry timeEntry) {
         TaskContributorPO taskContributorPO = taskContributorRepository.findById(timeEntry.getTaskContributorId()).orElseThrow(() -> new ValidationException("time.report.task.not.found"));
         check(taskContributorPO.getActivationStatus() == ActivationStatus.ACTIVE, "time.report.task.not.active");
+        validateTime(timeEntry.getTime());
+        validateClosed(timeEntry, taskContributorPO.getUser());
+    }
+
+    /**
+     * Applies the {@link #validateAdd(TimeEntry)} rules to every cell of a batch, and to cells without time since
+     * those delete rows. Contributors and closed months are loaded once for the whole batch.
+     */
+    public void validateBatch(List<TimeEntry> timeEntries) {
+        checkInvalidInput(timeEntries.size() <= MAX_BATCH_SIZE, "time.report.batch.too.large");
+        timeEntries.forEach(timeEntry -> checkInvalidInput(timeEntry != null && timeEntry.getDay() != null && timeEntry.getDay().getDate() != null, "invalid.day.input"));
+
+        Set<Long> taskContributorIds = timeEntries.stream().map(TimeEntry::getTaskContributorId).collect(Collectors.toSet());
+        Map<Long, TaskContributorPO> taskContributors = taskContributorRepository.findAllById(taskContributorIds).stream()
+                .collect(Collectors.toMap(TaskContributorPO::getId, Function.identity()));
+
+        Set<Long> userIds = taskContributors.values().stream().map(taskContributorPO -> taskContributorPO.getUser().getId()).collect(Collectors.toSet());
+        Set<LocalDate> months = timeEntries.stream().map(TimeReportValidator::toMonth).collect(Collectors.toSet());
+        Set<String> closedMonths = userIds.isEmpty() ? Set.of() : closeDateRepository.findByUserIdsAndDates(userIds, months).stream()
+                .map(closeDatePO -> closedMonthKey(closeDatePO.getUser().getId(), closeDatePO.getDate()))
+                .collect(Collectors.toSet());
+
+        for (TimeEntry timeEntry : timeEntries) {
+            TaskContributorPO taskContributorPO = taskContributors.get(timeEntry.getTaskContributorId());
+            check(taskContributorPO != null, "time.report.task.not.found");
+            check(taskContributorPO.getActivationStatus() == ActivationStatus.ACTIVE, "time.report.task.not.active");
+            validateTime(timeEntry.getTime());
+            check(!closedMonths.contains(closedMonthKey(taskContributorPO.getUser().getId(), toMonth(timeEntry))), "time.report.is.closed");
+        }
+    }
+
+    /**
+     * The exception to throw when a checked upsert wrote nothing: repeats the {@link #validateAdd(TimeEntry)}
+     * checks to find the failing one.
+     */
+    ValidationException rejectedAdd(TimeEntry timeEntry) {
+        try {
+            validateAdd(timeEntry);
+        } catch (ValidationException e) {
+            return e;
+        }
+        return new ValidationException("time.report.task.not.found");
+    }
 
-        if (timeEntry.getTime() != null) {
-            checkInvalidInput(timeEntry.getTime().compareTo(java.math.BigDecimal.valueOf(MIN_TIME)) >= 0, "time.report.invalid.time.min");
-            checkInvalidInput(timeEntry.getTime().compareTo(java.math.BigDecimal.valueOf(MAX_TIME)) <= 0, "time.report.invalid.time.max");
+    void validateTime(BigDecimal time) {
+        if (time != null) {
+            checkInvalidInput(time.compareTo(BigDecimal.valueOf(MIN_TIME)) >= 0, "time.report.invalid.time.min");
+            checkInvalidInput(time.compareTo(BigDecimal.valueOf(MAX_TIME)) <= 0, "time.report.invalid.time.max");
 
-            String timeStr = timeEntry.getTime().toPlainString();
+            String timeStr = time.toPlainString();
             int integerPlaces = timeStr.indexOf('.');
             if (integerPlaces != -1) {
                 int decimalPlaces = timeStr.length() - integerPlaces - 1;
                 checkInvalidInput(decimalPlaces <= MAX_NUMBER_OF_DECIMALS, "time.report.invalid.time.decimals");
             }
         }
-
-        validateClosed(timeEntry, taskContributorPO.getUser());
     }
 
     private void validateClosed(TimeEntry timeEntry, UserPO userPO) {
-        LocalDate date = LocalDate.of(timeEntry.getDay().getYear(), timeEntry.getDay().getMonth(), 1);
-        CloseDatePO closeDatePO = closeDateRepository.findByUserAndDate(userPO, date);
+        CloseDatePO closeDatePO = closeDateRepository.findByUserAndDate(userPO, toMonth(timeEntry));
         check(closeDatePO == null, "time.report.is.closed");
     }
 
+    private static LocalDate toMonth(TimeEntry timeEntry) {
+        return timeEntry.getDay().getDate().withDayOfMonth(1);
+    }
+
+    private static String closedMonthKey(long userId, LocalDate month) {
+        return userId + ":" + month;
+    }
+
     public void validateDelete(long id) {
 
     }
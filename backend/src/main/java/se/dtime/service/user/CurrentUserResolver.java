@@ -1,5 +1,8 @@
 package se.dtime.service.user;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
@@ -7,24 +10,124 @@ import se.dtime.dbmodel.UserPO;
 import se.dtime.model.UserExt;
 import se.dtime.model.error.NotFoundException;
 import se.dtime.repository.UserRepository;
+import se.dtime.service.cache.CacheInvalidationEvent;
+import se.dtime.service.cache.ClusteredCache;
 
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the authenticated principal to a user.
+ * <p>
+ * OAuth2 and other non {@link UserExt} principals are looked up by {@code sub}, email and authentication name;
+ * the resolved user id is cached per principal for {@code dtime.user.principal-cache.ttl} so that subsequent
+ * requests need no lookup at all ({@link #resolveCurrentUserId()}) or only a primary key read
+ * ({@link #resolveCurrentUser()}). Activating or deactivating a user evicts its entries on every node.
+ */
 @Service
-public class CurrentUserResolver {
+public class CurrentUserResolver implements ClusteredCache {
+
+    public static final String CACHE_NAME = "current-user";
+    private static final long FALLBACK_USER_ID = 1L;
+
+    private record CachedUserId(long userId, long expiresAt) {
+    }
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlNanos;
+    // One entry per principal that has resolved to a user
+    private final ConcurrentMap<String, CachedUserId> userIdsByPrincipal = new ConcurrentHashMap<>();
 
-    public CurrentUserResolver(UserRepository userRepository) {
+    public CurrentUserResolver(UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+                               @Value("${dtime.user.principal-cache.ttl:PT5M}") Duration ttl) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.ttlNanos = ttl.toNanos();
     }
 
     public UserPO resolveCurrentUser() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-
-        if (principal instanceof UserExt userExt) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof UserExt userExt) {
             return userRepository.findById(userExt.getId()).orElseThrow(() -> new NotFoundException("user.not.found"));
         }
 
-        if (principal instanceof OAuth2User oauth2User) {
+        String principalKey = principalKey(authentication);
+        Long cachedUserId = getCachedUserId(principalKey);
+        if (cachedUserId != null) {
+            UserPO cachedUser = userRepository.findById(cachedUserId).orElse(null);
+            if (cachedUser != null) {
+                return cachedUser;
+            }
+            userIdsByPrincipal.remove(principalKey);
+        }
+
+        UserPO user = lookUp(authentication);
+        if (user != null) {
+            cache(principalKey, user.getId());
+            return user;
+        }
+
+        return userRepository.findById(FALLBACK_USER_ID).orElseThrow(() -> new NotFoundException("user.not.found"));
+    }
+
+    /**
+     * Id of the authenticated user, falling back to the system user when the principal has no user.
+     * Answered from the principal or the cache without any query once the principal has been resolved.
+     */
+    public long resolveCurrentUserId() {
+        return findUserId(SecurityContextHolder.getContext().getAuthentication()).orElse(FALLBACK_USER_ID);
+    }
+
+    /**
+     * Id of the user {@code authentication} belongs to, empty when there is no such user.
+     */
+    public OptionalLong findUserId(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof UserExt userExt) {
+            return OptionalLong.of(userExt.getId());
+        }
+
+        String principalKey = principalKey(authentication);
+        Long cachedUserId = getCachedUserId(principalKey);
+        if (cachedUserId != null) {
+            return OptionalLong.of(cachedUserId);
+        }
+
+        UserPO user = lookUp(authentication);
+        if (user == null) {
+            return OptionalLong.empty();
+        }
+        cache(principalKey, user.getId());
+        return OptionalLong.of(user.getId());
+    }
+
+    /**
+     * Drops the cached principals of {@code userId} on this and all other nodes.
+     */
+    public void evictUser(long userId) {
+        evict(String.valueOf(userId));
+        eventPublisher.publishEvent(new CacheInvalidationEvent(CACHE_NAME, String.valueOf(userId)));
+    }
+
+    @Override
+    public String getCacheName() {
+        return CACHE_NAME;
+    }
+
+    @Override
+    public void evict(String key) {
+        if (key == null) {
+            userIdsByPrincipal.clear();
+        } else {
+            long userId = Long.parseLong(key);
+            userIdsByPrincipal.values().removeIf(cachedUserId -> cachedUserId.userId() == userId);
+        }
+    }
+
+    private UserPO lookUp(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof OAuth2User oauth2User) {
             String sub = oauth2User.getAttribute("sub");
             if (sub != null && !sub.isBlank()) {
                 UserPO userByExternalId = userRepository.findByExternalId(sub);
@@ -42,14 +145,34 @@ public class CurrentUserResolver {
             }
         }
 
-        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        String username = authentication.getName();
         if (username != null && !username.isBlank()) {
-            UserPO userByUsername = userRepository.findByEmail(username);
-            if (userByUsername != null) {
-                return userByUsername;
-            }
+            return userRepository.findByEmail(username);
         }
+        return null;
+    }
+
+    /**
+     * Everything {@link #lookUp(Authentication)} depends on, so equal keys resolve to the same user.
+     */
+    private static String principalKey(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof OAuth2User oauth2User) {
+            String sub = oauth2User.getAttribute("sub");
+            String email = oauth2User.getAttribute("email");
+            return String.join("|", "oauth2", sub, email, authentication.getName());
+        }
+        return "name|" + authentication.getName();
+    }
+
+    private Long getCachedUserId(String principalKey) {
+        CachedUserId cachedUserId = userIdsByPrincipal.get(principalKey);
+        if (cachedUserId == null || System.nanoTime() - cachedUserId.expiresAt() >= 0) {
+            return null;
+        }
+        return cachedUserId.userId();
+    }
 
-        return userRepository.findById(1L).orElseThrow(() -> new NotFoundException("user.not.found"));
+    private void cache(String principalKey, long userId) {
+        userIdsByPrincipal.put(principalKey, new CachedUserId(userId, System.nanoTime() + ttlNanos));
     }
 }
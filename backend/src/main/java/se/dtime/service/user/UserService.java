@@ -3,15 +3,19 @@ package se.dtime.service.user;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import se.dtime.dbmodel.TaskContributorPO;
 import se.dtime.dbmodel.UserPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.PagedResponse;
 import se.dtime.model.User;
 import se.dtime.model.error.NotFoundException;
-import se.dtime.repository.TaskContributorRepository;
+import se.dtime.repository.KeysetPaging;
+import se.dtime.repository.SearchSpecifications;
 import se.dtime.repository.UserRepository;
+import se.dtime.repository.jdbc.TaskContributorUpsertRepository;
+import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.report.ReportCache;
 
 import java.util.Arrays;
 import java.util.List;
@@ -22,13 +26,20 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserConverter userConverter;
     private final UserValidator userValidator;
-    private final TaskContributorRepository taskContributorRepository;
+    private final TaskContributorUpsertRepository taskContributorUpsertRepository;
+    private final CurrentUserResolver currentUserResolver;
+    private final CalendarService calendarService;
+    private final ReportCache reportCache;
 
-    public UserService(UserRepository userRepository, UserConverter userConverter, UserValidator userValidator, TaskContributorRepository taskContributorRepository) {
+    public UserService(UserRepository userRepository, UserConverter userConverter, UserValidator userValidator, TaskContributorUpsertRepository taskContributorUpsertRepository,
+                       CurrentUserResolver currentUserResolver, CalendarService calendarService, ReportCache reportCache) {
         this.userRepository = userRepository;
         this.userConverter = userConverter;
         this.userValidator = userValidator;
-        this.taskContributorRepository = taskContributorRepository;
+        this.taskContributorUpsertRepository = taskContributorUpsertRepository;
+        this.currentUserResolver = currentUserResolver;
+        this.calendarService = calendarService;
+        this.reportCache = reportCache;
     }
 
     public void deactivate(long userId) {
@@ -36,9 +47,11 @@ public class UserService {
         UserPO userPO = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("user.not.found"));
 
         userPO.setActivationStatus(ActivationStatus.INACTIVE);
-        List<TaskContributorPO> taskContributorPOS = taskContributorRepository.findByUser(userPO);
-        taskContributorPOS.forEach(a -> a.setActivationStatus(ActivationStatus.INACTIVE));
         userRepository.save(userPO);
+        taskContributorUpsertRepository.deactivateByUser(userId, currentUserResolver.resolveCurrentUserId(), calendarService.getNowDateTime());
+        currentUserResolver.evictUser(userId);
+        // Whether a month counts as closed depends on the active users
+        reportCache.invalidateAll();
     }
 
     public void activate(long userId) {
@@ -46,6 +59,8 @@ public class UserService {
         UserPO userPO = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("user.not.found"));
         userPO.setActivationStatus(ActivationStatus.ACTIVE);
         userRepository.save(userPO);
+        currentUserResolver.evictUser(userId);
+        reportCache.invalidateAll();
     }
 
     public User[] getAll(Boolean active) {
@@ -61,24 +76,27 @@ public class UserService {
         return userConverter.toModel(userPOS);
     }
 
-    public PagedResponse<User> getAllPaged(Pageable pageable, Boolean active, String firstName, String lastName) {
-        Page<UserPO> page;
-
-        if (active != null) {
-            ActivationStatus activationStatus = active ? ActivationStatus.ACTIVE : ActivationStatus.INACTIVE;
-            page = userRepository.findByActivationStatus(pageable, activationStatus);
-        } else {
-            page = userRepository.findAll(pageable);
+    /**
+     * First and last name are both searched in the display name ("first last"), so the filtering and the totals
+     * are done by the database. Given {@code after} (blank for the first page) the page is read by cursor without a
+     * count.
+     */
+    public PagedResponse<User> getAllPaged(Pageable pageable, String after, Boolean active, String firstName, String lastName) {
+        Specification<UserPO> specification = SearchSpecifications.allOf(
+                SearchSpecifications.hasActivationStatus(active),
+                SearchSpecifications.containsIgnoreCase("displayName", firstName),
+                SearchSpecifications.containsIgnoreCase("displayName", lastName));
+
+        if (after != null) {
+            KeysetPaging.Slice<UserPO> slice = KeysetPaging.fetch(userRepository, specification,
+                    pageable.getSort().iterator().next(), after, pageable.getPageSize());
+            return new PagedResponse<>(Arrays.asList(userConverter.toModel(slice.content())),
+                    pageable.getPageSize(), after.isBlank(), slice.nextCursor());
         }
 
-        List<UserPO> filteredUserPOS = page.getContent().stream()
-                .filter(u -> firstName == null || firstName.isEmpty() ||
-                        u.getFirstName().toLowerCase().contains(firstName.toLowerCase()))
-                .filter(u -> lastName == null || lastName.isEmpty() ||
-                        u.getLastName().toLowerCase().contains(lastName.toLowerCase()))
-                .toList();
+        Page<UserPO> page = userRepository.findAll(specification, pageable);
 
-        User[] users = userConverter.toModel(filteredUserPOS);
+        User[] users = userConverter.toModel(page.getContent());
 
         return new PagedResponse<>(
                 Arrays.asList(users),
@@ -5,6 +5,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 import se.dtime.repository.jdbc.ReportRepository;
+import se.dtime.repository.jdbc.TimeReportMonthRepository;
 
 @TestConfiguration
 public class TestReportRepositoryConfig {
@@ -14,4 +15,9 @@ public class TestReportRepositoryConfig {
     public ReportRepository testReportRepository(JdbcTemplate jdbcTemplate) {
         return new ReportRepository(jdbcTemplate);
     }
+
+    @Bean
+    public TimeReportMonthRepository testTimeReportMonthRepository(JdbcTemplate jdbcTemplate) {
+        return new TimeReportMonthRepository(jdbcTemplate);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package se.dtime.repository.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import se.dtime.model.EmailDeliveryStatus;
+import se.dtime.repository.BaseRepositoryIT;
+import se.dtime.repository.jdbc.EmailOutboxRepository.OutboxEmail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(EmailOutboxRepository.class)
+class EmailOutboxRepositoryIT extends BaseRepositoryIT {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 31, 10, 0);
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    void claimShouldReturnDueEmailsOnceWithinLease() {
+        emailOutboxRepository.enqueue(List.of("a@example.com", "b@example.com", "c@example.com"), "Subject", "Body", NOW);
+
+        List<OutboxEmail> first = emailOutboxRepository.claim(2, NOW, LEASE);
+        List<OutboxEmail> second = emailOutboxRepository.claim(2, NOW, LEASE);
+
+        assertThat(first).extracting(OutboxEmail::recipient).containsExactly("a@example.com", "b@example.com");
+        assertThat(first).extracting(OutboxEmail::attempts).containsOnly(1);
+        assertThat(second).extracting(OutboxEmail::recipient).containsExactly("c@example.com");
+        assertThat(emailOutboxRepository.claim(2, NOW, LEASE)).isEmpty();
+        assertThat(emailOutboxRepository.countByStatus(EmailDeliveryStatus.SENDING)).isEqualTo(3);
+    }
+
+    @Test
+    void claimShouldReturnEmailAgainWhenLeaseHasRunOut() {
+        emailOutboxRepository.enqueue(List.of("a@example.com"), "Subject", "Body", NOW);
+        emailOutboxRepository.claim(10, NOW, LEASE);
+
+        List<OutboxEmail> reclaimed = emailOutboxRepository.claim(10, NOW.plus(LEASE), LEASE);
+
+        assertThat(reclaimed).extracting(OutboxEmail::attempts).containsExactly(2);
+    }
+
+    @Test
+    void markRetryShouldDelayNextAttempt() {
+        emailOutboxRepository.enqueue(List.of("a@example.com"), "Subject", "Body", NOW);
+        OutboxEmail email = emailOutboxRepository.claim(10, NOW, LEASE).getFirst();
+
+        emailOutboxRepository.markRetry(email.id(), "Connection refused", NOW.plusMinutes(1));
+
+        assertThat(emailOutboxRepository.countByStatus(EmailDeliveryStatus.PENDING)).isEqualTo(1);
+        assertThat(emailOutboxRepository.claim(10, NOW.plusSeconds(59), LEASE)).isEmpty();
+        assertThat(emailOutboxRepository.claim(10, NOW.plusMinutes(1), LEASE)).extracting(OutboxEmail::id).containsExactly(email.id());
+    }
+
+    @Test
+    void sentAndFailedEmailsShouldNotBeClaimedAgain() {
+        emailOutboxRepository.enqueue(List.of("a@example.com", "b@example.com"), "Subject", "Body", NOW);
+        List<OutboxEmail> emails = emailOutboxRepository.claim(10, NOW, LEASE);
+
+        emailOutboxRepository.markSent(emails.get(0).id(), NOW);
+        emailOutboxRepository.markFailed(emails.get(1).id(), "x".repeat(600));
+
+        assertThat(emailOutboxRepository.claim(10, NOW.plusDays(1), LEASE)).isEmpty();
+        assertThat(emailOutboxRepository.countByStatus(EmailDeliveryStatus.SENT)).isEqualTo(1);
+        assertThat(emailOutboxRepository.countByStatus(EmailDeliveryStatus.FAILED)).isEqualTo(1);
+    }
+}
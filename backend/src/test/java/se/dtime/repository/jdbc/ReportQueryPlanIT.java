@@ -0,0 +1,196 @@
+package se.dtime.repository.jdbc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import se.dtime.model.report.ReportType;
+import se.dtime.model.report.TrendGroup;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Captures {@code EXPLAIN (ANALYZE, BUFFERS)} for every query {@link ReportRepository} issues and fails when
+ * a plan reads {@code time_report} with a sequential scan. Since {@code time_report} is partitioned, plans name the
+ * scanned partitions ({@code time_report_yYYYY}, {@code time_report_default}), which count as {@code time_report}.
+ * <p>
+ * Runs only against a real Postgres migrated by the application, e.g. the docker-compose database:
+ * <pre>
+ * DTIME_PLAN_DATABASE_URL=jdbc:postgresql://localhost:5432/dtime DTIME_PLAN_DATABASE_USERNAME=dtime \
+ * DTIME_PLAN_DATABASE_PASSWORD=... mvn verify -Dit.test=ReportQueryPlanIT
+ * </pre>
+ * The seed data is inserted in a transaction that is rolled back afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "DTIME_PLAN_DATABASE_URL", matches = ".+")
+class ReportQueryPlanIT {
+
+    private static final long ID_OFFSET = 900_000_000L;
+    private static final Pattern TIME_REPORT_RELATION = Pattern.compile("time_report(_default|_y\\d+)?");
+    // No yearly partition exists for this year, so its rows are stored in time_report_default
+    private static final int DEFAULT_PARTITION_YEAR = 2090;
+    private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().build();
+
+    private Connection connection;
+    private final List<String> plans = new ArrayList<>();
+    private final List<String> seqScans = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection(System.getenv("DTIME_PLAN_DATABASE_URL"),
+                System.getenv("DTIME_PLAN_DATABASE_USERNAME"), System.getenv("DTIME_PLAN_DATABASE_PASSWORD"));
+        connection.setAutoCommit(false);
+        seed();
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    void reportQueriesShouldNotSequentiallyScanTimeReport() {
+        Connection explaining = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if ("prepareStatement".equals(method.getName())) {
+                        return explaining((PreparedStatement) result, (String) args[0]);
+                    }
+                    return result;
+                });
+        ReportRepository reportRepository = new ReportRepository(new JdbcTemplate(new SingleConnectionDataSource(explaining, true)));
+
+        // Partial months at both ends so both the rollup and the raw time_report rows are read
+        runReports(reportRepository, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 9, 20), YearMonth.of(2024, 5));
+        runReports(reportRepository, LocalDate.of(DEFAULT_PARTITION_YEAR, 1, 10), LocalDate.of(DEFAULT_PARTITION_YEAR, 2, 20),
+                YearMonth.of(DEFAULT_PARTITION_YEAR, 1));
+
+        assertThat(plans).isNotEmpty();
+        assertThat(seqScans)
+                .withFailMessage(() -> "Sequential scan on time_report:\n" + String.join("\n\n", seqScans))
+                .isEmpty();
+    }
+
+    private void runReports(ReportRepository reportRepository, LocalDate fromDate, LocalDate toDate, YearMonth fullMonth) {
+        LocalDate monthStart = fullMonth.atDay(1);
+        LocalDate monthEnd = fullMonth.atEndOfMonth();
+
+        reportRepository.getUserTaskReports(fromDate, toDate);
+        reportRepository.getUserTaskReports(ID_OFFSET + 1, fromDate, toDate);
+        reportRepository.getUserTaskReportsForUnclosedUsers(monthStart, monthEnd);
+        reportRepository.getUserReports(fromDate, toDate);
+        reportRepository.getTaskReports(fromDate, toDate);
+        reportRepository.getAccountReports(fromDate, toDate);
+        reportRepository.getBillableTaskTypeReports(fromDate, toDate);
+        for (TrendGroup trendGroup : TrendGroup.values()) {
+            reportRepository.getTrendSeries(trendGroup, YearMonth.of(fromDate.getYear(), 1), YearMonth.of(fromDate.getYear(), 12));
+        }
+        for (ReportType reportType : ReportType.values()) {
+            reportRepository.exportReport(reportType, fromDate, toDate, rs -> {
+            });
+        }
+    }
+
+    private PreparedStatement explaining(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>();
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        parameters.put(index, args[1]);
+                    } else if ("executeQuery".equals(method.getName()) || "execute".equals(method.getName())) {
+                        explain(sql, parameters);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private void explain(String sql, Map<Integer, Object> parameters) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("explain (analyze, buffers, format json) " + sql)) {
+            for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                explain.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet rs = explain.executeQuery()) {
+                rs.next();
+                String plan = rs.getString(1);
+                plans.add(plan);
+                if (hasTimeReportSeqScan(OBJECT_MAPPER.readTree(plan).get(0).get("Plan"))) {
+                    seqScans.add(sql + "\n" + plan);
+                }
+            }
+        }
+    }
+
+    private static boolean hasTimeReportSeqScan(JsonNode node) {
+        if ("Seq Scan".equals(node.path("Node Type").asString())
+                && TIME_REPORT_RELATION.matcher(node.path("Relation Name").asString()).matches()) {
+            return true;
+        }
+        for (JsonNode child : node.path("Plans")) {
+            if (hasTimeReportSeqScan(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("set local search_path to dtime");
+            statement.execute("insert into users (id, external_id, displayname, email, status, userrole, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "select " + ID_OFFSET + " + g, 'plan-' || g, 'Plan User ' || g, 'plan' || g || '@example.com', 'ACTIVE', 'USER', now(), now(), 1, 1 " +
+                    "from generate_series(1, 300) g");
+            statement.execute("insert into account (id, name, status, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "select " + ID_OFFSET + " + g, 'Plan Account ' || g, 'ACTIVE', now(), now(), 1, 1 " +
+                    "from generate_series(1, 30) g");
+            statement.execute("insert into task (id, id_account, name, status, task_type, is_billable, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "select " + ID_OFFSET + " + g, " + ID_OFFSET + " + (g % 30) + 1, 'Plan Task ' || g, 'ACTIVE', 'NORMAL', g % 2 = 0, now(), now(), 1, 1 " +
+                    "from generate_series(1, 300) g");
+            statement.execute("insert into task_contributor (id, id_user, id_task, status, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "select " + ID_OFFSET + " + (u - 1) * 10 + t, " + ID_OFFSET + " + u, " + ID_OFFSET + " + ((u + t * 31) % 300) + 1, 'ACTIVE', now(), now(), 1, 1 " +
+                    "from generate_series(1, 300) u, generate_series(1, 10) t");
+            statement.execute("insert into time_report (id, id_task_contributor, date, reportedtime, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "select " + ID_OFFSET + " + row_number() over (), tc.id, d.day, 1 + (tc.id % 7), now(), now(), 1, 1 " +
+                    "from task_contributor tc, generate_series(date '2024-01-01', date '2024-12-31', interval '1 day') d(day) " +
+                    "where tc.id > " + ID_OFFSET + " and extract(isodow from d.day) < 6");
+            statement.execute("insert into time_report (id, id_task_contributor, date, reportedtime, createdatetime, updatedatetime, createdby, updatedby) " +
+                    "select " + (ID_OFFSET + 10_000_000L) + " + row_number() over (), tc.id, d.day, 1 + (tc.id % 7), now(), now(), 1, 1 " +
+                    "from task_contributor tc, generate_series(date '" + DEFAULT_PARTITION_YEAR + "-01-01', date '" + DEFAULT_PARTITION_YEAR + "-03-31', interval '1 day') d(day) " +
+                    "where tc.id > " + ID_OFFSET + " and extract(isodow from d.day) < 6");
+            statement.execute("insert into time_report_month (id_task_contributor, month_date, reportedtime) " +
+                    "select id_task_contributor, cast(date_trunc('month', date) as date), sum(reportedtime) " +
+                    "from time_report where id_task_contributor > " + ID_OFFSET + " " +
+                    "group by id_task_contributor, cast(date_trunc('month', date) as date)");
+            statement.execute("analyze users, account, task, task_contributor, time_report, time_report_month");
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
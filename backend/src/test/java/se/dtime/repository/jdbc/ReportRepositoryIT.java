@@ -17,11 +17,14 @@ import se.dtime.model.ActivationStatus;
 import se.dtime.model.UserRole;
 import se.dtime.model.report.AccountReport;
 import se.dtime.model.report.TaskReport;
+import se.dtime.model.report.TrendGroup;
+import se.dtime.model.report.TrendSeries;
 import se.dtime.model.report.UserReport;
 import se.dtime.repository.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.math.BigDecimal;
 
@@ -51,6 +54,9 @@ class ReportRepositoryIT extends BaseRepositoryIT {
     @Autowired
     private TimeEntryRepository timeEntryRepository;
 
+    @Autowired
+    private TimeReportMonthRepository timeReportMonthRepository;
+
     private UserPO user1, user2, user3;
     private AccountPO account1, account2;
     private TaskPO task1, task2, task3;
@@ -96,6 +102,9 @@ class ReportRepositoryIT extends BaseRepositoryIT {
         // Flush and clear to ensure data is committed to database for JDBC queries
         entityManager.flush();
         entityManager.clear();
+
+        // Whole-month report ranges are answered from the monthly rollup
+        timeReportMonthRepository.rebuild();
     }
 
     @Test
@@ -305,6 +314,72 @@ class ReportRepositoryIT extends BaseRepositoryIT {
          assertThat(taskAReport.getTotalHours()).isEqualByComparingTo(BigDecimal.valueOf(24.0)); // Alice: 8.0 + 7.5 + Bob: 8.5
     }
 
+    @Test
+    void shouldCombineRollupMonthsWithPartialMonthEntries() {
+        // November 30th is read from time_report, December from the monthly rollup
+        List<TaskReport> reports = reportRepository.getTaskReports(LocalDate.of(2024, 11, 30), toDate);
+
+        TaskReport taskAReport = reports.stream()
+                .filter(tr -> "Task A".equals(tr.getTaskName()))
+                .findFirst()
+                .orElse(null);
+
+        assertThat(taskAReport).isNotNull();
+        assertThat(taskAReport.getTotalHours()).isEqualByComparingTo(BigDecimal.valueOf(28.0)); // 4.0 + 8.0 + 7.5 + 8.5
+    }
+
+    @Test
+    void shouldReflectTimeAddedToRollupMonth() {
+        createTimeEntry(contributor4, LocalDate.of(2024, 12, 20), BigDecimal.valueOf(3.0));
+        entityManager.flush();
+
+        timeReportMonthRepository.add(contributor4.getId(), LocalDate.of(2024, 12, 20), BigDecimal.valueOf(3.0));
+
+        List<AccountReport> reports = reportRepository.getAccountReports(fromDate, toDate);
+        AccountReport account2Report = reports.stream()
+                .filter(ar -> "Account Beta".equals(ar.getAccountName()))
+                .findFirst()
+                .orElse(null);
+
+        assertThat(account2Report).isNotNull();
+        assertThat(account2Report.getTotalHours()).isEqualByComparingTo(BigDecimal.valueOf(8.0)); // 5.0 + 3.0
+    }
+
+    @Test
+    void shouldGetAccountTrendSeriesPerMonth() {
+        List<TrendSeries> series = reportRepository.getTrendSeries(TrendGroup.ACCOUNT, YearMonth.of(2024, 10), YearMonth.of(2025, 1));
+
+        assertThat(series).extracting(TrendSeries::getName).containsExactly("Account Alpha", "Account Beta");
+
+        TrendSeries alpha = series.get(0);
+        assertThat(alpha.getId()).isEqualTo(account1.getId());
+        assertThat(alpha.getValues()).hasSize(4);
+        assertThat(alpha.getValues()[0]).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(alpha.getValues()[1]).isEqualByComparingTo(BigDecimal.valueOf(4.0));
+        assertThat(alpha.getValues()[2]).isEqualByComparingTo(BigDecimal.valueOf(30.0)); // 8.0 + 7.5 + 6.0 + 8.5
+        assertThat(alpha.getValues()[3]).isEqualByComparingTo(BigDecimal.ZERO);
+
+        assertThat(series.get(1).getValues()[2]).isEqualByComparingTo(BigDecimal.valueOf(5.0));
+    }
+
+    @Test
+    void shouldLeaveMonthWithoutTimeOutOfTrendSeries() {
+        // Contributor 4 is the only one on Account Beta; its rollup month drops to zero time
+        timeReportMonthRepository.add(contributor4.getId(), LocalDate.of(2024, 12, 19), BigDecimal.valueOf(-5.0));
+
+        List<TrendSeries> series = reportRepository.getTrendSeries(TrendGroup.ACCOUNT, YearMonth.of(2024, 12), YearMonth.of(2024, 12));
+
+        assertThat(series).extracting(TrendSeries::getName).containsExactly("Account Alpha");
+    }
+
+    @Test
+    void shouldGetBillableTrendSeries() {
+        List<TrendSeries> series = reportRepository.getTrendSeries(TrendGroup.BILLABLE, YearMonth.of(2024, 12), YearMonth.of(2024, 12));
+
+        BigDecimal total = series.stream().map(s -> s.getValues()[0]).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo(BigDecimal.valueOf(35.0));
+    }
+
     private UserPO createAndSaveUser(String email, String firstName, String lastName) {
         UserPO user = new UserPO();
         user.setEmail(email);
@@ -0,0 +1,119 @@
+package se.dtime.repository.jdbc;
+
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import se.dtime.model.report.TaskReport;
+import se.dtime.model.report.UserReport;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former map based decoding of the user-task report rows ({@code queryForList} plus casts)
+ * with {@link ReportRowMappers#userTaskReports(LocalDate, LocalDate)} on 100k in-memory rows.
+ * Run with {@code -prof gc} to see the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportRowDecodingBenchmark {
+
+    private static final int USERS = 2_000;
+    private static final int TASKS_PER_USER = 50;
+    private static final LocalDate FROM_DATE = LocalDate.of(2025, 1, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(2025, 12, 31);
+
+    private SimpleResultSet resultSet;
+
+    @Setup(Level.Trial)
+    public void createRows() {
+        resultSet = new SimpleResultSet();
+        resultSet.setAutoClose(false);
+        resultSet.addColumn("userId", Types.BIGINT, 19, 0);
+        resultSet.addColumn("displayname", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("email", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("accountId", Types.BIGINT, 19, 0);
+        resultSet.addColumn("accountName", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("taskId", Types.BIGINT, 19, 0);
+        resultSet.addColumn("taskName", Types.VARCHAR, 255, 0);
+        resultSet.addColumn("isBillable", Types.BOOLEAN, 1, 0);
+        resultSet.addColumn("totalTime", Types.NUMERIC, 10, 2);
+
+        for (long user = 0; user < USERS; user++) {
+            for (long task = 0; task < TASKS_PER_USER; task++) {
+                resultSet.addRow(user, "User " + user, "user" + user + "@example.com", task % 10, "Account " + (task % 10),
+                        task, "Task " + task, task % 2 == 0, BigDecimal.valueOf(100 + user + task, 2));
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void rewind() throws SQLException {
+        resultSet.beforeFirst();
+    }
+
+    @Benchmark
+    public List<UserReport> mapBasedDecoding() throws SQLException {
+        List<Map<String, Object>> rows = new RowMapperResultSetExtractor<>(new ColumnMapRowMapper()).extractData(resultSet);
+
+        List<UserReport> userReports = new ArrayList<>();
+        Map<Long, UserReport> userReportMap = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            long userId = (Long) row.get("userId");
+            UserReport userReport = userReportMap.get(userId);
+            if (userReport == null) {
+                userReport = new UserReport();
+                userReport.setUserId(userId);
+                userReport.setFullName((String) row.get("displayname"));
+                userReport.setEmail((String) row.get("email"));
+                userReportMap.put(userId, userReport);
+                userReports.add(userReport);
+                userReport.setFromDate(FROM_DATE);
+                userReport.setToDate(TO_DATE);
+            }
+
+            TaskReport taskReport = new TaskReport();
+            taskReport.setAccountId((Long) row.get("accountId"));
+            taskReport.setAccountName((String) row.get("accountName"));
+            taskReport.setTaskId((Long) row.get("taskId"));
+            taskReport.setTaskName((String) row.get("taskName"));
+            Object isBillableObj = row.get("isBillable");
+            boolean isBillable = isBillableObj instanceof Boolean ? (Boolean) isBillableObj :
+                    isBillableObj instanceof Number ? ((Number) isBillableObj).intValue() == 1 : false;
+            taskReport.setIsBillable(isBillable);
+            BigDecimal totalHoursTask = new BigDecimal(((Number) row.get("totalTime")).toString());
+            taskReport.setTotalHours(totalHoursTask);
+            userReport.getTaskReports().add(taskReport);
+            userReport.setTotalTime(userReport.getTotalTime().add(totalHoursTask));
+        }
+
+        return userReports;
+    }
+
+    @Benchmark
+    public List<UserReport> indexBasedDecoding() throws SQLException {
+        return ReportRowMappers.userTaskReports(FROM_DATE, TO_DATE).extractData(resultSet);
+    }
+}
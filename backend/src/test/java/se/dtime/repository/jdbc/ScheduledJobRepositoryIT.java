@@ -0,0 +1,85 @@
+package se.dtime.repository.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import se.dtime.model.ScheduledJobRunStatus;
+import se.dtime.repository.BaseRepositoryIT;
+import se.dtime.repository.jdbc.ScheduledJobRepository.ScheduledJobRun;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+@Import(ScheduledJobRepository.class)
+class ScheduledJobRepositoryIT extends BaseRepositoryIT {
+
+    private static final String JOB = "test-job";
+    private static final String CRON = "0 0 10 27-31 * ?";
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 31, 10, 0);
+
+    @Autowired
+    private ScheduledJobRepository scheduledJobRepository;
+
+    @Test
+    void claimShouldSucceedForOneNodeOnly() {
+        scheduledJobRepository.register(JOB, CRON, NOW);
+
+        assertThat(scheduledJobRepository.claim(JOB, "node-1", NOW, NOW.plusHours(1))).contains(NOW);
+        assertThat(scheduledJobRepository.claim(JOB, "node-2", NOW, NOW.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    void claimShouldNotSucceedBeforeJobIsDue() {
+        scheduledJobRepository.register(JOB, CRON, NOW);
+
+        assertThat(scheduledJobRepository.claim(JOB, "node-1", NOW.minusSeconds(1), NOW.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    void claimShouldTakeOverExpiredLock() {
+        scheduledJobRepository.register(JOB, CRON, NOW);
+        scheduledJobRepository.claim(JOB, "node-1", NOW, NOW.plusHours(1));
+
+        assertThat(scheduledJobRepository.claim(JOB, "node-2", NOW.plusHours(1), NOW.plusHours(2))).contains(NOW);
+        assertThat(scheduledJobRepository.complete(JOB, "node-1", NOW, NOW.plusDays(1))).isFalse();
+        assertThat(scheduledJobRepository.complete(JOB, "node-2", NOW, NOW.plusDays(1))).isTrue();
+    }
+
+    @Test
+    void completeShouldReleaseLockAndScheduleNextRun() {
+        scheduledJobRepository.register(JOB, CRON, NOW);
+        scheduledJobRepository.claim(JOB, "node-1", NOW, NOW.plusHours(1));
+
+        scheduledJobRepository.complete(JOB, "node-1", NOW, NOW.plusDays(1));
+
+        assertThat(scheduledJobRepository.claim(JOB, "node-2", NOW.plusHours(2), NOW.plusHours(3))).isEmpty();
+        assertThat(scheduledJobRepository.claim(JOB, "node-2", NOW.plusDays(1), NOW.plusDays(1).plusHours(1))).contains(NOW.plusDays(1));
+    }
+
+    @Test
+    void registerShouldKeepMissedRunUnlessScheduleChanged() {
+        scheduledJobRepository.register(JOB, CRON, NOW);
+
+        scheduledJobRepository.register(JOB, CRON, NOW.plusDays(1));
+        assertThat(scheduledJobRepository.claim(JOB, "node-1", NOW, NOW.plusHours(1))).contains(NOW);
+        scheduledJobRepository.complete(JOB, "node-1", NOW, NOW);
+
+        scheduledJobRepository.register(JOB, "0 0 2 1 * ?", NOW.plusDays(1));
+        assertThat(scheduledJobRepository.claim(JOB, "node-1", NOW, NOW.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    void findRunsShouldReturnNewestFirst() {
+        scheduledJobRepository.recordRun(new ScheduledJobRun(JOB, "node-1", NOW, NOW, 12, ScheduledJobRunStatus.SUCCEEDED, null));
+        scheduledJobRepository.recordRun(new ScheduledJobRun(JOB, "node-2", NOW.plusDays(1), NOW.plusDays(1), 5,
+                ScheduledJobRunStatus.FAILED, "x".repeat(600)));
+
+        assertThat(scheduledJobRepository.findRuns(JOB, 10))
+                .extracting(ScheduledJobRun::node, ScheduledJobRun::status)
+                .containsExactly(
+                        tuple("node-2", ScheduledJobRunStatus.FAILED),
+                        tuple("node-1", ScheduledJobRunStatus.SUCCEEDED));
+    }
+}
@@ -0,0 +1,124 @@
+package se.dtime.repository.jdbc;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import se.dtime.dbmodel.AccountPO;
+import se.dtime.dbmodel.BasePO;
+import se.dtime.dbmodel.TaskContributorPO;
+import se.dtime.dbmodel.TaskPO;
+import se.dtime.dbmodel.UserPO;
+import se.dtime.dbmodel.timereport.TimeEntryPO;
+import se.dtime.model.ActivationStatus;
+import se.dtime.model.UserRole;
+import se.dtime.repository.BaseRepositoryIT;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import({TimeEntryUpsertRepository.class, TimeReportMonthRepository.class})
+class TimeEntryUpsertRepositoryIT extends BaseRepositoryIT {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TimeEntryUpsertRepository timeEntryUpsertRepository;
+
+    private UserPO user;
+    private AccountPO account;
+
+    @BeforeEach
+    void setUp() {
+        user = new UserPO();
+        user.setEmail("cascade@example.com");
+        user.setFirstName("Cascade");
+        user.setLastName("User");
+        user.setExternalId("ext-cascade");
+        user.setUserRole(UserRole.USER);
+        user.setActivationStatus(ActivationStatus.ACTIVE);
+        setBaseData(user);
+        entityManager.persist(user);
+
+        account = new AccountPO();
+        account.setName("Cascade Account");
+        account.setActivationStatus(ActivationStatus.ACTIVE);
+        setBaseData(account);
+        entityManager.persist(account);
+    }
+
+    @Test
+    void deleteByTaskShouldDeleteAllEntriesOfTaskInChunks() {
+        TaskContributorPO deleted = createContributor("Deleted Task");
+        TaskContributorPO kept = createContributor("Kept Task");
+        createEntries(deleted, 7);
+        createEntries(kept, 2);
+        entityManager.flush();
+        entityManager.clear();
+
+        int count = timeEntryUpsertRepository.deleteByTask(deleted.getTask().getId(), 3);
+
+        assertThat(count).isEqualTo(7);
+        assertThat(countEntries(deleted)).isZero();
+        assertThat(countEntries(kept)).isEqualTo(2);
+    }
+
+    @Test
+    void deleteByTaskShouldStopWhenLastChunkIsFull() {
+        TaskContributorPO deleted = createContributor("Deleted Task");
+        createEntries(deleted, 6);
+        entityManager.flush();
+
+        assertThat(timeEntryUpsertRepository.deleteByTask(deleted.getTask().getId(), 3)).isEqualTo(6);
+        assertThat(countEntries(deleted)).isZero();
+    }
+
+    private long countEntries(TaskContributorPO taskContributor) {
+        return entityManager.createQuery("select count(te) from TimeEntry te where te.taskContributor.id = :id", Long.class)
+                .setParameter("id", taskContributor.getId())
+                .getSingleResult();
+    }
+
+    private TaskContributorPO createContributor(String taskName) {
+        TaskPO task = new TaskPO();
+        task.setName(taskName);
+        task.setActivationStatus(ActivationStatus.ACTIVE);
+        task.setAccount(account);
+        setBaseData(task);
+        entityManager.persist(task);
+
+        TaskContributorPO taskContributor = new TaskContributorPO();
+        taskContributor.setUser(user);
+        taskContributor.setTask(task);
+        taskContributor.setActivationStatus(ActivationStatus.ACTIVE);
+        setBaseData(taskContributor);
+        entityManager.persist(taskContributor);
+        return taskContributor;
+    }
+
+    private void createEntries(TaskContributorPO taskContributor, int days) {
+        for (int i = 0; i < days; i++) {
+            TimeEntryPO timeEntry = new TimeEntryPO();
+            timeEntry.setTaskContributor(taskContributor);
+            timeEntry.setDate(START.plusDays(i));
+            timeEntry.setTime(BigDecimal.valueOf(2));
+            setBaseData(timeEntry);
+            entityManager.persist(timeEntry);
+        }
+    }
+
+    private static void setBaseData(BasePO basePO) {
+        basePO.setCreatedBy(1L);
+        basePO.setUpdatedBy(1L);
+        basePO.setCreateDateTime(LocalDateTime.now());
+        basePO.setUpdatedDateTime(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,186 @@
+package se.dtime.repository.jdbc;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.dtime.dbmodel.AccountPO;
+import se.dtime.dbmodel.BasePO;
+import se.dtime.dbmodel.TaskContributorPO;
+import se.dtime.dbmodel.TaskPO;
+import se.dtime.dbmodel.UserPO;
+import se.dtime.model.ActivationStatus;
+import se.dtime.model.UserRole;
+import se.dtime.repository.BaseRepositoryIT;
+import se.dtime.repository.jdbc.TimeEntryUpsertRepository.Cell;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two writers of the same contributor month in concurrent transactions, as when the time sheet grid saves two cells
+ * at once. Runs outside the test transaction so every writer commits on its own.
+ * <p>
+ * The month already has a committed rollup row, so both writers add to it: H2 has no ON CONFLICT and cannot merge
+ * two concurrent inserts of a new month row, which only Postgres does.
+ */
+@Import({TimeReportMonthRepository.class, TimeEntryUpsertRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TimeReportMonthRepositoryIT extends BaseRepositoryIT {
+
+    private static final LocalDate MONTH = LocalDate.of(2025, 3, 1);
+    private static final long HOLD_MILLIS = 300;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TimeReportMonthRepository timeReportMonthRepository;
+
+    @Autowired
+    private TimeEntryUpsertRepository timeEntryUpsertRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private long userId;
+    private long accountId;
+    private long taskId;
+    private long taskContributorId;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            UserPO user = new UserPO();
+            user.setEmail("rollup@example.com");
+            user.setFirstName("Rollup");
+            user.setLastName("User");
+            user.setExternalId("ext-rollup");
+            user.setUserRole(UserRole.USER);
+            user.setActivationStatus(ActivationStatus.ACTIVE);
+            setBaseData(user);
+            entityManager.persist(user);
+
+            AccountPO account = new AccountPO();
+            account.setName("Rollup Account");
+            account.setActivationStatus(ActivationStatus.ACTIVE);
+            setBaseData(account);
+            entityManager.persist(account);
+
+            TaskPO task = new TaskPO();
+            task.setName("Rollup Task");
+            task.setActivationStatus(ActivationStatus.ACTIVE);
+            task.setAccount(account);
+            setBaseData(task);
+            entityManager.persist(task);
+
+            TaskContributorPO taskContributor = new TaskContributorPO();
+            taskContributor.setUser(user);
+            taskContributor.setTask(task);
+            taskContributor.setActivationStatus(ActivationStatus.ACTIVE);
+            setBaseData(taskContributor);
+            entityManager.persist(taskContributor);
+
+            userId = user.getId();
+            accountId = account.getId();
+            taskId = task.getId();
+            taskContributorId = taskContributor.getId();
+        });
+        write(MONTH.plusDays(2), BigDecimal.ONE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from time_report_month where id_task_contributor = ?", taskContributorId);
+            jdbcTemplate.update("delete from time_report where id_task_contributor = ?", taskContributorId);
+            jdbcTemplate.update("delete from task_contributor where id = ?", taskContributorId);
+            jdbcTemplate.update("delete from task where id = ?", taskId);
+            jdbcTemplate.update("delete from account where id = ?", accountId);
+            jdbcTemplate.update("delete from users where id = ?", userId);
+        });
+    }
+
+    @Test
+    void concurrentWritersOfSameMonthShouldBothBeInRollup() throws Exception {
+        CompletableFuture<Void> first = writeAndHold(MONTH, BigDecimal.valueOf(2), false);
+
+        write(MONTH.plusDays(1), BigDecimal.valueOf(3));
+        first.get(5, TimeUnit.SECONDS);
+
+        assertThat(rollup()).isEqualByComparingTo(BigDecimal.valueOf(6));
+    }
+
+    @Test
+    void rolledBackWriterShouldNotBeInRollup() throws Exception {
+        CompletableFuture<Void> first = writeAndHold(MONTH, BigDecimal.valueOf(2), true);
+
+        write(MONTH.plusDays(1), BigDecimal.valueOf(3));
+        first.get(5, TimeUnit.SECONDS);
+
+        assertThat(rollup()).isEqualByComparingTo(BigDecimal.valueOf(4));
+    }
+
+    /**
+     * Writes a cell and adds it to the rollup, then keeps the transaction open for a while before it ends, so the
+     * second writer adds to the rollup while the first one is still uncommitted.
+     */
+    private CompletableFuture<Void> writeAndHold(LocalDate date, BigDecimal time, boolean rollback) throws InterruptedException {
+        CountDownLatch written = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            writeCell(date, time);
+            written.countDown();
+            try {
+                Thread.sleep(HOLD_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        }));
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue();
+        return writer;
+    }
+
+    private void write(LocalDate date, BigDecimal time) {
+        transactionTemplate.executeWithoutResult(status -> writeCell(date, time));
+    }
+
+    private void writeCell(LocalDate date, BigDecimal time) {
+        timeEntryUpsertRepository.insert(List.of(new Cell(taskContributorId, date, time)), 1L, LocalDateTime.now());
+        timeReportMonthRepository.add(taskContributorId, date, time);
+    }
+
+    private BigDecimal rollup() {
+        return jdbcTemplate.queryForObject("select reportedtime from time_report_month where id_task_contributor = ? and month_date = ?",
+                BigDecimal.class, taskContributorId, MONTH);
+    }
+
+    private static void setBaseData(BasePO basePO) {
+        basePO.setCreatedBy(1L);
+        basePO.setUpdatedBy(1L);
+        basePO.setCreateDateTime(LocalDateTime.now());
+        basePO.setUpdatedDateTime(LocalDateTime.now());
+    }
+}
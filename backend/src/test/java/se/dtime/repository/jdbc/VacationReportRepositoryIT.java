@@ -0,0 +1,156 @@
+package se.dtime.repository.jdbc;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import se.dtime.dbmodel.AccountPO;
+import se.dtime.dbmodel.TaskContributorPO;
+import se.dtime.dbmodel.TaskPO;
+import se.dtime.dbmodel.UserPO;
+import se.dtime.dbmodel.timereport.TimeEntryPO;
+import se.dtime.model.ActivationStatus;
+import se.dtime.model.TaskType;
+import se.dtime.model.UserRole;
+import se.dtime.repository.*;
+import se.dtime.repository.jdbc.VacationReportRepository.UserVacationDays;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(VacationReportRepository.class)
+class VacationReportRepositoryIT extends BaseRepositoryIT {
+
+    private static final LocalDate FROM_DATE = LocalDate.of(2025, 7, 1);
+    private static final LocalDate TO_DATE = LocalDate.of(2025, 7, 31);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private VacationReportRepository vacationReportRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskContributorRepository taskContributorRepository;
+
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+
+    private UserPO alice, bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = createAndSaveUser("alice@example.com", "Alice", "Smith");
+        bob = createAndSaveUser("bob@example.com", "Bob", "Johnson");
+        UserPO charlie = createAndSaveUser("charlie@example.com", "Charlie", "Brown");
+
+        AccountPO account = createAndSaveAccount("Internal");
+        TaskPO vacation = createAndSaveTask("Vacation", account, TaskType.VACATION);
+        TaskPO development = createAndSaveTask("Development", account, TaskType.NORMAL);
+
+        TaskContributorPO aliceVacation = createAndSaveTaskContributor(alice, vacation);
+        TaskContributorPO aliceDevelopment = createAndSaveTaskContributor(alice, development);
+        createAndSaveTaskContributor(bob, vacation);
+        TaskContributorPO charlieDevelopment = createAndSaveTaskContributor(charlie, development);
+
+        createTimeEntry(aliceVacation, LocalDate.of(2025, 7, 7));
+        createTimeEntry(aliceVacation, LocalDate.of(2025, 7, 8));
+        createTimeEntry(aliceVacation, LocalDate.of(2025, 6, 30)); // outside the period
+        createTimeEntry(aliceDevelopment, LocalDate.of(2025, 7, 9));
+        createTimeEntry(charlieDevelopment, LocalDate.of(2025, 7, 7));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldReturnVacationDaysOfUsersWithVacationTask() {
+        List<UserVacationDays> userVacationDays = vacationReportRepository.getUserVacationDays(FROM_DATE, TO_DATE);
+
+        assertThat(userVacationDays).extracting(UserVacationDays::userId).containsExactly(alice.getId(), bob.getId());
+
+        UserVacationDays aliceDays = userVacationDays.get(0);
+        assertThat(aliceDays.name()).isEqualTo("Alice Smith");
+        assertThat(aliceDays.vacationDays().stream().toArray()).containsExactly(6, 7);
+
+        assertThat(userVacationDays.get(1).vacationDays().isEmpty()).isTrue();
+    }
+
+    private UserPO createAndSaveUser(String email, String firstName, String lastName) {
+        UserPO user = new UserPO();
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setExternalId("ext-" + email);
+        user.setUserRole(UserRole.USER);
+        user.setActivationStatus(ActivationStatus.ACTIVE);
+        user.setCreatedBy(1L);
+        user.setUpdatedBy(1L);
+        user.setCreateDateTime(LocalDateTime.now());
+        user.setUpdatedDateTime(LocalDateTime.now());
+        return userRepository.save(user);
+    }
+
+    private AccountPO createAndSaveAccount(String name) {
+        AccountPO account = new AccountPO();
+        account.setName(name);
+        account.setActivationStatus(ActivationStatus.ACTIVE);
+        account.setCreatedBy(1L);
+        account.setUpdatedBy(1L);
+        account.setCreateDateTime(LocalDateTime.now());
+        account.setUpdatedDateTime(LocalDateTime.now());
+        return accountRepository.save(account);
+    }
+
+    private TaskPO createAndSaveTask(String name, AccountPO account, TaskType taskType) {
+        TaskPO task = new TaskPO();
+        task.setName(name);
+        task.setActivationStatus(ActivationStatus.ACTIVE);
+        task.setTaskType(taskType);
+        task.setAccount(account);
+        task.setCreatedBy(1L);
+        task.setUpdatedBy(1L);
+        task.setCreateDateTime(LocalDateTime.now());
+        task.setUpdatedDateTime(LocalDateTime.now());
+        return taskRepository.save(task);
+    }
+
+    private TaskContributorPO createAndSaveTaskContributor(UserPO user, TaskPO task) {
+        TaskContributorPO contributor = new TaskContributorPO();
+        contributor.setUser(user);
+        contributor.setTask(task);
+        contributor.setActivationStatus(ActivationStatus.ACTIVE);
+        contributor.setCreatedBy(1L);
+        contributor.setUpdatedBy(1L);
+        contributor.setCreateDateTime(LocalDateTime.now());
+        contributor.setUpdatedDateTime(LocalDateTime.now());
+        return taskContributorRepository.save(contributor);
+    }
+
+    private void createTimeEntry(TaskContributorPO contributor, LocalDate date) {
+        TimeEntryPO timeEntry = new TimeEntryPO();
+        timeEntry.setTaskContributor(contributor);
+        timeEntry.setDate(date);
+        timeEntry.setTime(BigDecimal.valueOf(8));
+        timeEntry.setCreatedBy(1L);
+        timeEntry.setUpdatedBy(1L);
+        timeEntry.setCreateDateTime(LocalDateTime.now());
+        timeEntry.setUpdatedDateTime(LocalDateTime.now());
+        timeEntryRepository.save(timeEntry);
+    }
+}
@@ -1,5 +1,6 @@
 package se.dtime.restcontroller;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -7,6 +8,10 @@ import se.dtime.model.Account;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.Attribute;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -147,6 +152,99 @@ class AccountRestControllerIT extends BaseRestControllerIT {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldFilterPagedAccountsInDatabaseWithCorrectTotals() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            createAndSaveAccount("Searched Account " + i);
+            createAndSaveAccount("Other " + i);
+        }
+
+        mockMvc.perform(get("/api/account/paged")
+                .param("page", "0")
+                .param("size", "5")
+                .param("name", "searched")
+                .param("sort", "name")
+                .param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(jsonPath("$.content[0].name").value("Searched Account 0"))
+                .andExpect(jsonPath("$.totalElements").value(7))
+                .andExpect(jsonPath("$.totalPages").value(2));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldWalkPagedAccountsByCursorWithoutCounting() throws Exception {
+        for (String name : List.of("Cursor E", "Cursor A", "Cursor D", "Cursor B", "Cursor C")) {
+            createAndSaveAccount(name);
+        }
+
+        List<String> names = new ArrayList<>();
+        String after = "";
+        int pages = 0;
+        while (after != null) {
+            String json = mockMvc.perform(get("/api/account/paged")
+                    .param("size", "2")
+                    .param("name", "cursor")
+                    .param("sort", "name")
+                    .param("after", after))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").value(-1))
+                    .andReturn().getResponse().getContentAsString();
+            names.addAll(JsonPath.read(json, "$.content[*].name"));
+            after = JsonPath.read(json, "$.nextCursor");
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(names).containsExactly("Cursor A", "Cursor B", "Cursor C", "Cursor D", "Cursor E");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldBreakSortKeyTiesById() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            createAndSaveAccount("Tied " + i);
+        }
+
+        List<String> names = new ArrayList<>();
+        String after = "";
+        while (after != null) {
+            String json = mockMvc.perform(get("/api/account/paged")
+                    .param("size", "2")
+                    .param("name", "tied")
+                    .param("sort", "activationStatus")
+                    .param("direction", "desc")
+                    .param("after", after))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            names.addAll(JsonPath.read(json, "$.content[*].name"));
+            after = JsonPath.read(json, "$.nextCursor");
+        }
+
+        assertThat(names).containsExactly("Tied 4", "Tied 3", "Tied 2", "Tied 1", "Tied 0");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/account/paged")
+                .param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldTreatLikeWildcardsInPagedAccountFilterLiterally() throws Exception {
+        createAndSaveAccount("Account 100% billable");
+
+        mockMvc.perform(get("/api/account/paged")
+                .param("name", "0%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void shouldReturnForbiddenForGetPagedWithUserRole() throws Exception {
@@ -21,6 +21,7 @@ import se.dtime.repository.AccountRepository;
 import se.dtime.repository.SystemPropertyRepository;
 import se.dtime.repository.TaskRepository;
 import se.dtime.repository.UserRepository;
+import se.dtime.service.user.CurrentUserResolver;
 import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDateTime;
@@ -64,6 +65,9 @@ public abstract class BaseRestControllerIT {
     @Autowired
     protected SystemPropertyRepository systemPropertyRepository;
 
+    @Autowired
+    private CurrentUserResolver currentUserResolver;
+
     protected UserPO testUser;
     protected UserPO testAdmin;
     protected AccountPO testAccount;
@@ -78,6 +82,9 @@ public abstract class BaseRestControllerIT {
                 .apply(springSecurity())
                 .build();
 
+        // Test users are rolled back after every test, so their cached ids must not outlive it
+        currentUserResolver.evict(null);
+
         // Create test users
         testUser = createAndSaveUser("user@example.com", "Test", "User", UserRole.USER);
         testAdmin = createAndSaveUser("admin@example.com", "Test", "Admin", UserRole.ADMIN);
@@ -0,0 +1,73 @@
+package se.dtime.restcontroller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import se.dtime.config.TestStatementCounterConfig;
+import se.dtime.config.TestStatementCounterConfig.StatementCounter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the statements the shared JDBC session store issues when it loads and saves a session directly through
+ * the repository. A request through {@code SessionRepositoryFilter} also updates the last accessed time, which costs
+ * one UPDATE per request on top of the load.
+ */
+@Import(TestStatementCounterConfig.class)
+class JdbcSessionStoreIT extends BaseRestControllerIT {
+
+    @Autowired
+    private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Test
+    void shouldLoadSessionWithAllAttributesInOneStatement() {
+        loadSessionWithAllAttributesInOneStatement(sessionRepository);
+    }
+
+    @Test
+    void shouldSkipSaveOfUnchangedSession() {
+        skipSaveOfUnchangedSession(sessionRepository);
+    }
+
+    @Test
+    void shouldFindSessionsOfPrincipalOnAnyNode() {
+        Session session = createSession(sessionRepository);
+
+        assertThat(sessionRepository.findByPrincipalName("user@example.com")).containsKey(session.getId());
+    }
+
+    private <S extends Session> void loadSessionWithAllAttributesInOneStatement(SessionRepository<S> repository) {
+        S session = createSession(repository);
+
+        statementCounter.reset();
+        S loaded = repository.findById(session.getId());
+
+        assertThat(statementCounter.getCount()).isEqualTo(1);
+        assertThat(loaded.<String>getAttribute("switchUser")).isEqualTo("false");
+        assertThat(loaded.<Integer>getAttribute("counter")).isEqualTo(1);
+    }
+
+    private <S extends Session> void skipSaveOfUnchangedSession(SessionRepository<S> repository) {
+        S loaded = repository.findById(createSession(repository).getId());
+
+        statementCounter.reset();
+        repository.save(loaded);
+
+        assertThat(statementCounter.getCount()).isZero();
+    }
+
+    private <S extends Session> S createSession(SessionRepository<S> repository) {
+        S session = repository.createSession();
+        session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "user@example.com");
+        session.setAttribute("switchUser", "false");
+        session.setAttribute("counter", 1);
+        repository.save(session);
+        return session;
+    }
+}
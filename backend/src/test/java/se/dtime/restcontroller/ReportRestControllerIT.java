@@ -3,15 +3,21 @@ package se.dtime.restcontroller;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
 import se.dtime.model.report.ReportType;
 import se.dtime.model.report.ReportView;
 import se.dtime.model.timereport.CloseDate;
 
 import java.time.LocalDate;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ReportRestControllerIT extends BaseRestControllerIT {
@@ -67,6 +73,108 @@ class ReportRestControllerIT extends BaseRestControllerIT {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldGetDashboardSuccessfully() throws Exception {
+        mockMvc.perform(get("/api/report/dashboard")
+                        .param("view", ReportView.MONTH.name())
+                        .param("date", "2024-01-15"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.fromDate").value("2024-01-01"))
+                .andExpect(jsonPath("$.toDate").value("2024-01-31"))
+                .andExpect(jsonPath("$.taskReports").isArray())
+                .andExpect(jsonPath("$.userReports").isArray())
+                .andExpect(jsonPath("$.accountReports").isArray())
+                .andExpect(jsonPath("$.billableTaskTypeReports").isArray());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void shouldReturnForbiddenForDashboardWithUserRole() throws Exception {
+        mockMvc.perform(get("/api/report/dashboard"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldGetTrendReportSuccessfully() throws Exception {
+        mockMvc.perform(get("/api/report/trend")
+                        .param("group", "ACCOUNT")
+                        .param("fromDate", "2023-01-01")
+                        .param("toDate", "2025-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.periods.length()").value(36))
+                .andExpect(jsonPath("$.periods[0]").value("2023-01"))
+                .andExpect(jsonPath("$.series").isArray());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldReturnBadRequestForTrendReportWithInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/report/trend")
+                        .param("group", "TASK")
+                        .param("fromDate", "2025-01-01")
+                        .param("toDate", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldExportTaskReportAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/report/export")
+                        .param("type", ReportType.TASK.name())
+                        .param("fromDate", "2024-01-01")
+                        .param("toDate", "2024-03-15"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"report-task-2024-01-01-2024-03-15.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).startsWith("Account id,Account,Task id,Task,Billable,Hours\r\n");
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldExportUserTaskReportAsXlsx() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/report/export")
+                        .param("type", ReportType.USER_TASK.name())
+                        .param("format", "XLSX")
+                        .param("view", ReportView.YEAR.name())
+                        .param("date", "2024-01-15"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(body).startsWith((byte) 'P', (byte) 'K');
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldReturnBadRequestForExportWithInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/report/export")
+                        .param("type", ReportType.ACCOUNT.name())
+                        .param("fromDate", "2024-03-01")
+                        .param("toDate", "2024-01-31"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void shouldReturnForbiddenForExportWithUserRole() throws Exception {
+        mockMvc.perform(get("/api/report/export")
+                        .param("type", ReportType.TASK.name()))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     @WithMockUser(username = "user@example.com", roles = "USER")
     void shouldGetUserReportWithViewSuccessfully() throws Exception {
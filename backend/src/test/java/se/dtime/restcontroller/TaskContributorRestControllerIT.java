@@ -1,19 +1,36 @@
 package se.dtime.restcontroller;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import se.dtime.config.TestStatementCounterConfig;
+import se.dtime.config.TestStatementCounterConfig.StatementCounter;
+import se.dtime.dbmodel.TaskPO;
+import se.dtime.dbmodel.UserPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.Attribute;
 import se.dtime.model.Task;
 import se.dtime.model.TaskContributor;
+import se.dtime.model.TaskContributorAssignment;
 import se.dtime.model.User;
+import se.dtime.model.UserRole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+@Import(TestStatementCounterConfig.class)
 class TaskContributorRestControllerIT extends BaseRestControllerIT {
 
+    @Autowired
+    private StatementCounter statementCounter;
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void shouldAddTaskContributorSuccessfully() throws Exception {
@@ -236,4 +253,121 @@ class TaskContributorRestControllerIT extends BaseRestControllerIT {
         mockMvc.perform(delete("/api/taskcontributor/1"))
                 .andExpect(status().isUnauthorized());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldAssignAllUsersToAllTasks() throws Exception {
+        TaskPO otherTask = createAndSaveTask("Other Task", testAccount);
+        TaskContributorAssignment assignment = TaskContributorAssignment.builder()
+                .userIds(List.of(testUser.getId(), testAdmin.getId()))
+                .taskIds(List.of(testTask.getId(), otherTask.getId()))
+                .activationStatus(ActivationStatus.ACTIVE)
+                .build();
+
+        mockMvc.perform(post("/api/taskcontributor/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(assignment)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("4"));
+
+        mockMvc.perform(get("/api/taskcontributor/" + testAdmin.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.task.id == " + otherTask.getId() + ")].activationStatus").value("ACTIVE"));
+
+        // Repeating the assignment changes nothing
+        mockMvc.perform(post("/api/taskcontributor/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(assignment)))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldDeactivateOnlyAssignedPairs() throws Exception {
+        TaskPO otherTask = createAndSaveTask("Other Task", testAccount);
+        mockMvc.perform(post("/api/taskcontributor/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(TaskContributorAssignment.builder()
+                        .userIds(List.of(testUser.getId()))
+                        .taskIds(List.of(testTask.getId()))
+                        .activationStatus(ActivationStatus.ACTIVE)
+                        .build())))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/taskcontributor/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(TaskContributorAssignment.builder()
+                        .userIds(List.of(testUser.getId()))
+                        .taskIds(List.of(testTask.getId(), otherTask.getId()))
+                        .activationStatus(ActivationStatus.INACTIVE)
+                        .build())))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+
+        mockMvc.perform(get("/api/taskcontributor/" + testUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.task.id == " + testTask.getId() + ")].activationStatus").value("INACTIVE"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldAssignWithStatementCountIndependentOfMatrixSize() throws Exception {
+        int smallAssignment = countAssignmentStatements(1, 1);
+        int largeAssignment = countAssignmentStatements(10, 5);
+
+        assertThat(largeAssignment).isEqualTo(smallAssignment);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldRejectAssignmentOfUnknownTask() throws Exception {
+        mockMvc.perform(post("/api/taskcontributor/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(TaskContributorAssignment.builder()
+                        .userIds(List.of(testUser.getId()))
+                        .taskIds(List.of(testTask.getId(), 999_999L))
+                        .activationStatus(ActivationStatus.ACTIVE)
+                        .build())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void shouldReturnForbiddenForBulkAssignmentWithUserRole() throws Exception {
+        mockMvc.perform(post("/api/taskcontributor/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(TaskContributorAssignment.builder()
+                        .userIds(List.of(testUser.getId()))
+                        .taskIds(List.of(testTask.getId()))
+                        .activationStatus(ActivationStatus.ACTIVE)
+                        .build())))
+                .andExpect(status().isForbidden());
+    }
+
+    private int countAssignmentStatements(int users, int tasks) throws Exception {
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            UserPO user = createAndSaveUser("bulk" + users + "-" + i + "@example.com", "Bulk", "User" + i, UserRole.USER);
+            userIds.add(user.getId());
+        }
+        List<Long> taskIds = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            taskIds.add(createAndSaveTask("Bulk Task " + users + "-" + i, testAccount).getId());
+        }
+        String json = asJsonString(TaskContributorAssignment.builder()
+                .userIds(userIds)
+                .taskIds(taskIds)
+                .activationStatus(ActivationStatus.ACTIVE)
+                .build());
+        taskRepository.flush();
+
+        statementCounter.reset();
+        mockMvc.perform(post("/api/taskcontributor/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(content().string(String.valueOf(users * tasks)));
+        return statementCounter.getCount();
+    }
+}
@@ -175,6 +175,25 @@ class TaskRestControllerIT extends BaseRestControllerIT {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldFilterPagedTasksInDatabaseWithCorrectTotals() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            createAndSaveTask("Searched Task " + i, testAccount);
+            createAndSaveTask("Other Task " + i, testAccount);
+        }
+
+        mockMvc.perform(get("/api/task/paged")
+                .param("page", "1")
+                .param("size", "4")
+                .param("name", "SEARCHED")
+                .param("accountId", testAccount.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(6))
+                .andExpect(jsonPath("$.totalPages").value(2));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void shouldReturnForbiddenForGetPagedWithUserRole() throws Exception {
@@ -15,10 +15,13 @@ import se.dtime.repository.TaskContributorRepository;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class TimeReportRestControllerIT extends BaseRestControllerIT {
@@ -43,7 +46,7 @@ class TimeReportRestControllerIT extends BaseRestControllerIT {
         contributor.setUpdatedBy(1L);
         contributor.setCreateDateTime(LocalDateTime.now());
         contributor.setUpdatedDateTime(LocalDateTime.now());
-        return taskContributorRepository.save(contributor);
+        return taskContributorRepository.saveAndFlush(contributor);
     }
 
     @Test
@@ -112,6 +115,87 @@ class TimeReportRestControllerIT extends BaseRestControllerIT {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser(username = "user@example.com", roles = "USER")
+    void shouldReturnSameIdWhenUpdatingTimeEntry() throws Exception {
+        TimeEntry timeEntry = batchEntry(LocalDate.of(2025, 3, 4), BigDecimal.valueOf(8));
+
+        String id = mockMvc.perform(post("/api/timereport")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(timeEntry)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        timeEntry.setTime(BigDecimal.valueOf(4.25));
+        mockMvc.perform(post("/api/timereport")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(timeEntry)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(id));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = "USER")
+    void shouldReturnBadRequestForInactiveTaskContributor() throws Exception {
+        testTaskContributor.setActivationStatus(ActivationStatus.INACTIVE);
+        taskContributorRepository.saveAndFlush(testTaskContributor);
+
+        mockMvc.perform(post("/api/timereport")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(batchEntry(LocalDate.of(2025, 3, 4), BigDecimal.valueOf(8)))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = "USER")
+    void shouldAddUpdateAndDeleteTimeEntriesInBatch() throws Exception {
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        List<TimeEntry> timeEntries = List.of(
+                batchEntry(monday, BigDecimal.valueOf(8)),
+                batchEntry(monday.plusDays(1), BigDecimal.valueOf(7.5)));
+
+        mockMvc.perform(post("/api/timereport/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(timeEntries)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0]").value(greaterThan(0)))
+                .andExpect(jsonPath("$[1]").value(greaterThan(0)));
+
+        timeEntries = List.of(
+                batchEntry(monday, BigDecimal.valueOf(6)),
+                batchEntry(monday.plusDays(1), BigDecimal.ZERO));
+
+        mockMvc.perform(post("/api/timereport/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(timeEntries)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(greaterThan(0)))
+                .andExpect(jsonPath("$[1]").value(0));
+    }
+
+    @Test
+    @WithMockUser(username = "user@example.com", roles = "USER")
+    void shouldRejectWholeBatchWhenOneCellIsInvalid() throws Exception {
+        LocalDate monday = LocalDate.of(2025, 3, 3);
+        List<TimeEntry> timeEntries = List.of(
+                batchEntry(monday, BigDecimal.valueOf(8)),
+                batchEntry(monday.plusDays(1), BigDecimal.valueOf(25)));
+
+        mockMvc.perform(post("/api/timereport/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(asJsonString(timeEntries)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private TimeEntry batchEntry(LocalDate date, BigDecimal time) {
+        return TimeEntry.builder()
+                .taskContributorId(testTaskContributor.getId())
+                .day(Day.builder().year(date.getYear()).month(date.getMonthValue()).date(date).build())
+                .time(time)
+                .build();
+    }
+
     @Test
     void shouldReturnUnauthorizedForAddTimeEntryWithNoAuthentication() throws Exception {
         TimeEntry timeEntry = TimeEntry.builder()
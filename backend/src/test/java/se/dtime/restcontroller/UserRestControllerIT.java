@@ -3,6 +3,7 @@ package se.dtime.restcontroller;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
+import se.dtime.model.UserRole;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -67,6 +68,24 @@ class UserRestControllerIT extends BaseRestControllerIT {
                 .andExpect(jsonPath("$.content").isArray());
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void shouldFilterPagedUsersInDatabaseWithCorrectTotals() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            createAndSaveUser("searched" + i + "@example.com", "Searched", "Person" + i, UserRole.USER);
+        }
+
+        mockMvc.perform(get("/api/users/paged")
+                .param("page", "0")
+                .param("size", "2")
+                .param("firstName", "searched")
+                .param("lastName", "person"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.totalPages").value(2));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void shouldReturnForbiddenForGetPagedWithUserRole() throws Exception {
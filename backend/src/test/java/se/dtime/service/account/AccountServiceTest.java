@@ -12,6 +12,7 @@ import se.dtime.model.Account;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.error.NotFoundException;
 import se.dtime.repository.AccountRepository;
+import se.dtime.service.report.ReportCache;
 
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +37,8 @@ class AccountServiceTest {
     private AccountConverter accountConverter;
     @Mock
     private AccountValidator accountValidator;
+    @Mock
+    private ReportCache reportCache;
 
     private Account testAccount;
     private AccountPO testAccountPO;
@@ -81,6 +84,7 @@ class AccountServiceTest {
         // Then
         verify(accountValidator).validateUpdate(testAccount);
         verify(accountRepository).save(testAccountPO);
+        verify(reportCache).invalidateAll();
     }
 
     @Test
@@ -0,0 +1,156 @@
+package se.dtime.service.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.dtime.dbmodel.SpecialDayPO;
+import se.dtime.model.ReportDates;
+import se.dtime.model.report.Report;
+import se.dtime.model.report.ReportType;
+import se.dtime.model.report.ReportView;
+import se.dtime.model.timereport.DayType;
+import se.dtime.repository.SpecialDayRepository;
+import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.report.ReportCache;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs two application contexts ("nodes") against one Postgres and checks that an invalidation on one node
+ * reaches the caches of the other.
+ * <p>
+ * Runs only against a real Postgres, e.g. the docker-compose database:
+ * <pre>
+ * DTIME_CLUSTER_DATABASE_URL=jdbc:postgresql://localhost:5432/dtime DTIME_CLUSTER_DATABASE_USERNAME=dtime \
+ * DTIME_CLUSTER_DATABASE_PASSWORD=... mvn verify -Dit.test=CacheInvalidationBusIT
+ * </pre>
+ */
+@EnabledIfEnvironmentVariable(named = "DTIME_CLUSTER_DATABASE_URL", matches = ".+")
+class CacheInvalidationBusIT {
+
+    private static final ReportDates MARCH = new ReportDates(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+    private static final LocalDate CHRISTMAS_EVE = LocalDate.of(2018, 12, 24);
+
+    private AnnotationConfigApplicationContext nodeA;
+    private AnnotationConfigApplicationContext nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new AnnotationConfigApplicationContext(NodeConfig.class);
+        nodeB = new AnnotationConfigApplicationContext(NodeConfig.class);
+        await(() -> nodeA.getBean(CacheInvalidationBus.class).isListening() && nodeB.getBean(CacheInvalidationBus.class).isListening());
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void specialDayChangeOnOneNodeShouldReloadCalendarOnTheOther() {
+        CalendarService calendarB = nodeB.getBean(CalendarService.class);
+        assertThat(calendarB.getDays(CHRISTMAS_EVE, CHRISTMAS_EVE)[0].isMajorHoliday()).isFalse();
+
+        SpecialDayPO specialDayPO = new SpecialDayPO();
+        specialDayPO.setDate(CHRISTMAS_EVE);
+        specialDayPO.setDayType(DayType.PUBLIC_HOLIDAY);
+        when(nodeB.getBean(SpecialDayRepository.class).findByYear(2018)).thenReturn(List.of(specialDayPO));
+
+        nodeA.publishEvent(new CacheInvalidationEvent(CalendarService.CACHE_NAME, "2018"));
+
+        await(() -> calendarB.getDays(CHRISTMAS_EVE, CHRISTMAS_EVE)[0].isMajorHoliday());
+    }
+
+    @Test
+    void reportInvalidationShouldOnlyReachOtherNodeWhenCommitted() throws InterruptedException {
+        ReportCache reportCacheA = nodeA.getBean(ReportCache.class);
+        ReportCache reportCacheB = nodeB.getBean(ReportCache.class);
+        reportCacheB.get(ReportType.TASK, ReportView.MONTH, MARCH, () -> new Report(MARCH.getFromDate(), MARCH.getToDate(), 160), () -> false);
+        TransactionTemplate transactionTemplate = nodeA.getBean(TransactionTemplate.class);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            reportCacheA.invalidate(LocalDate.of(2025, 3, 10));
+            status.setRollbackOnly();
+        });
+        Thread.sleep(2000);
+        assertThat(reportCacheB.size()).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> reportCacheA.invalidate(LocalDate.of(2025, 3, 10)));
+        await(() -> reportCacheB.size() == 0);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).withFailMessage("Timed out waiting for the other node").isNegative();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Configuration
+    static class NodeConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource(url(), System.getenv("DTIME_CLUSTER_DATABASE_USERNAME"), System.getenv("DTIME_CLUSTER_DATABASE_PASSWORD"));
+        }
+
+        @Bean
+        JdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new JdbcTemplate(dataSource);
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(DataSource dataSource) {
+            return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        @Bean
+        SpecialDayRepository specialDayRepository() {
+            return mock(SpecialDayRepository.class);
+        }
+
+        @Bean
+        CalendarService calendarService(SpecialDayRepository specialDayRepository) {
+            return new CalendarService(specialDayRepository, "2020-01-01", 8);
+        }
+
+        @Bean
+        ReportCache reportCache(ApplicationEventPublisher eventPublisher) {
+            return new ReportCache(200, Duration.ofMinutes(10), Duration.ofHours(6), eventPublisher);
+        }
+
+        @Bean
+        CacheInvalidationBus cacheInvalidationBus(JdbcTemplate jdbcTemplate, List<ClusteredCache> caches) {
+            return new CacheInvalidationBus(jdbcTemplate, caches, url(), System.getenv("DTIME_CLUSTER_DATABASE_USERNAME"),
+                    System.getenv("DTIME_CLUSTER_DATABASE_PASSWORD"), true);
+        }
+
+        private static String url() {
+            return System.getenv("DTIME_CLUSTER_DATABASE_URL");
+        }
+    }
+}
@@ -5,16 +5,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import se.dtime.dbmodel.SpecialDayPO;
 import se.dtime.model.timereport.Day;
+import se.dtime.model.timereport.DayType;
 import se.dtime.model.timereport.Month;
 import se.dtime.model.timereport.Week;
 import se.dtime.repository.SpecialDayRepository;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class CalendarServiceTest {
@@ -115,27 +119,118 @@ public class CalendarServiceTest {
     }
 
     @Test
-    public void calcWorkableDaysTest() {
-        Day[] days = createDays(LocalDate.of(2018, 12, 1),
-                LocalDate.of(2018, 12, 31));
+    public void testGetDaysAcrossYearsSharesPrecomputedDays() {
+        Day[] days = calendarService.getDays(LocalDate.of(2018, 12, 30), LocalDate.of(2019, 1, 2));
+
+        assertEquals(4, days.length);
+        assertEquals(LocalDate.of(2018, 12, 30), days[0].getDate());
+        assertEquals(LocalDate.of(2019, 1, 2), days[3].getDate());
+        assertSame(days[2], calendarService.getDays(LocalDate.of(2019, 1, 1), LocalDate.of(2019, 1, 1))[0]);
+        verify(specialDayRepository, times(1)).findByYear(2019);
+    }
+
+    @Test
+    public void testReloadYearSwapsSpecialDays() {
+        LocalDate christmasEve = LocalDate.of(2018, 12, 24);
+        assertFalse(calendarService.getDays(christmasEve, christmasEve)[0].isMajorHoliday());
+
+        SpecialDayPO specialDayPO = new SpecialDayPO();
+        specialDayPO.setDate(christmasEve);
+        specialDayPO.setDayType(DayType.PUBLIC_HOLIDAY);
+        when(specialDayRepository.findByYear(2018)).thenReturn(List.of(specialDayPO));
+        calendarService.reloadYear(2018);
+
+        assertTrue(calendarService.getDays(christmasEve, christmasEve)[0].isMajorHoliday());
+    }
+
+    @Test
+    void reloadDuringLoadShouldWinOverLoadedSpecialDays() throws Exception {
+        LocalDate christmasEve = LocalDate.of(2018, 12, 24);
+        SpecialDayPO specialDayPO = new SpecialDayPO();
+        specialDayPO.setDate(christmasEve);
+        specialDayPO.setDayType(DayType.PUBLIC_HOLIDAY);
+
+        // The first load reads the special days before the holiday is committed, the reload after
+        Thread[] reload = new Thread[1];
+        when(specialDayRepository.findByYear(2018)).thenAnswer(invocation -> {
+            reload[0] = Thread.ofPlatform().start(() -> calendarService.reloadYear(2018));
+            reload[0].join(200);
+            return List.of();
+        }).thenReturn(List.of(specialDayPO));
+
+        calendarService.getDays(christmasEve, christmasEve);
+        reload[0].join();
+
+        assertTrue(calendarService.getDays(christmasEve, christmasEve)[0].isMajorHoliday());
+    }
+
+    @Test
+    void evictionDuringLoadShouldDropLoadedSpecialDays() throws Exception {
+        LocalDate christmasEve = LocalDate.of(2018, 12, 24);
+        SpecialDayPO specialDayPO = new SpecialDayPO();
+        specialDayPO.setDate(christmasEve);
+        specialDayPO.setDayType(DayType.PUBLIC_HOLIDAY);
+
+        // Another node commits the holiday and notifies while this node is still loading the old special days
+        Thread[] eviction = new Thread[1];
+        when(specialDayRepository.findByYear(2018)).thenAnswer(invocation -> {
+            eviction[0] = Thread.ofPlatform().start(() -> calendarService.evict("2018"));
+            eviction[0].join(200);
+            return List.of();
+        }).thenReturn(List.of(specialDayPO));
+
+        assertFalse(calendarService.getDays(christmasEve, christmasEve)[0].isMajorHoliday());
+        eviction[0].join();
+
+        assertTrue(calendarService.getDays(christmasEve, christmasEve)[0].isMajorHoliday());
+    }
 
-        days[0].setWeekend(true);
-        days[1].setWeekend(true);
-        days[7].setWeekend(true);
-        days[8].setWeekend(true);
-        days[14].setWeekend(true);
-        days[15].setWeekend(true);
-        days[21].setWeekend(true);
-        days[22].setWeekend(true);
-        days[28].setWeekend(true);
-        days[29].setWeekend(true);
+    @Test
+    void workableHoursShouldSkipWeekendsAndPublicHolidays() {
+        when(specialDayRepository.findByYear(2018)).thenReturn(List.of(
+                specialDay(LocalDate.of(2018, 12, 24), DayType.PUBLIC_HOLIDAY),
+                specialDay(LocalDate.of(2018, 12, 25), DayType.PUBLIC_HOLIDAY),
+                specialDay(LocalDate.of(2018, 12, 26), DayType.PUBLIC_HOLIDAY),
+                specialDay(LocalDate.of(2018, 12, 31), DayType.PUBLIC_HOLIDAY)));
+
+        // 31 days less 10 weekend days and 4 public holidays: 17 * 8
+        assertEquals(136, calendarService.workableHours(LocalDate.of(2018, 12, 1), LocalDate.of(2018, 12, 31)));
+    }
 
-        days[23].setMajorHoliday(true);
-        days[24].setMajorHoliday(true);
-        days[25].setMajorHoliday(true);
-        days[30].setMajorHoliday(true);
+    @Test
+    void workableHoursShouldSumAcrossYears() {
+        LocalDate fromDate = LocalDate.of(2018, 11, 14);
+        LocalDate toDate = LocalDate.of(2021, 2, 3);
 
-        assertEquals(136, calendarService.calcWorkableHours(days));
+        // 581 weekdays without special days
+        assertEquals(4648, calendarService.workableHours(fromDate, toDate));
+        assertEquals(0, calendarService.workableHours(toDate, fromDate));
+    }
+
+    @Test
+    void workableHoursShouldCountHalfDaysAcrossYears() {
+        calendarService = new CalendarService(specialDayRepository, "2020-01-01", 7.5f);
+        when(specialDayRepository.findByYear(2018)).thenReturn(List.of(
+                specialDay(LocalDate.of(2018, 12, 31), DayType.HALF_DAY)));
+        when(specialDayRepository.findByYear(2019)).thenReturn(List.of(
+                specialDay(LocalDate.of(2019, 1, 1), DayType.PUBLIC_HOLIDAY)));
+
+        // Dec 27, 28 and Jan 2, 3, 4 are full workdays and Dec 31 a half day: 5 * 7.5 + 3.75, rounded once
+        assertEquals(41, calendarService.workableHours(LocalDate.of(2018, 12, 27), LocalDate.of(2019, 1, 4)));
+    }
+
+    @Test
+    void workableHoursShouldCountHalfDaysExactly() {
+        calendarService = new CalendarService(specialDayRepository, "2020-01-01", 7.5f);
+        when(specialDayRepository.findByYear(2018)).thenReturn(List.of(
+                specialDay(LocalDate.of(2018, 12, 24), DayType.HALF_DAY),
+                specialDay(LocalDate.of(2018, 12, 31), DayType.HALF_DAY),
+                specialDay(LocalDate.of(2018, 12, 25), DayType.PUBLIC_HOLIDAY)));
+
+        // 13 full workdays and 2 half days: 13 * 7.5 + 2 * 3.75
+        assertEquals(105, calendarService.workableHours(LocalDate.of(2018, 12, 10), LocalDate.of(2018, 12, 31)));
+        // A single half day is 3.75 hours, rounded once
+        assertEquals(4, calendarService.workableHours(LocalDate.of(2018, 12, 24), LocalDate.of(2018, 12, 24)));
     }
 
     @Test
@@ -182,14 +277,10 @@ public class CalendarServiceTest {
         assertEquals(LocalDate.of(2018, 12, 31), calendarService.getLastWorkingDayOfMonth(LocalDate.of(2018, 12, 24)));
     }
 
-    private Day[] createDays(LocalDate fromDate, LocalDate toDate) {
-        List<Day> days = new ArrayList<>();
-        LocalDate date = fromDate;
-        while (date.isBefore(toDate) || date.isEqual(toDate)) {
-            days.add(Day.builder().date(date).build());
-            date = date.plusDays(1);
-        }
-
-        return days.toArray(new Day[days.size()]);
+    private SpecialDayPO specialDay(LocalDate date, DayType dayType) {
+        SpecialDayPO specialDayPO = new SpecialDayPO();
+        specialDayPO.setDate(date);
+        specialDayPO.setDayType(dayType);
+        return specialDayPO;
     }
 }
\ No newline at end of file
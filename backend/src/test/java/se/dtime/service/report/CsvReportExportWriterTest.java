@@ -0,0 +1,45 @@
+package se.dtime.service.report;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvReportExportWriterTest {
+
+    @Test
+    void shouldQuoteFieldsWithSeparatorsAndQuotes() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (CsvReportExportWriter writer = new CsvReportExportWriter(outputStream)) {
+            writer.writeRow(new Object[]{"Task", "Hours"});
+            writer.writeRow(new Object[]{"Design, \"phase 1\"", new BigDecimal("1E+1")});
+            writer.writeRow(new Object[]{null, true});
+        }
+
+        assertEquals("Task,Hours\r\n\"Design, \"\"phase 1\"\"\",10\r\n,true\r\n",
+                outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldQuoteFieldsWithLineBreaks() {
+        assertEquals("\"line1\nline2\"", CsvReportExportWriter.format("line1\nline2"));
+        assertEquals("plain", CsvReportExportWriter.format("plain"));
+    }
+
+    @Test
+    void shouldPrefixTextThatSpreadsheetsReadAsFormula() {
+        assertEquals("'=1+1", CsvReportExportWriter.format("=1+1"));
+        assertEquals("'+1", CsvReportExportWriter.format("+1"));
+        assertEquals("'-2", CsvReportExportWriter.format("-2"));
+        assertEquals("'@SUM(A1:A2)", CsvReportExportWriter.format("@SUM(A1:A2)"));
+        assertEquals("'\tTab", CsvReportExportWriter.format("\tTab"));
+        assertEquals("\"'\rReturn\"", CsvReportExportWriter.format("\rReturn"));
+        assertEquals("\"'=1,2\"", CsvReportExportWriter.format("=1,2"));
+        assertEquals("a=b", CsvReportExportWriter.format("a=b"));
+        assertEquals("-1.5", CsvReportExportWriter.format(new BigDecimal("-1.5")));
+    }
+}
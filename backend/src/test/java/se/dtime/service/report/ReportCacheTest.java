@@ -0,0 +1,185 @@
+package se.dtime.service.report;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.dtime.model.ReportDates;
+import se.dtime.model.report.Report;
+import se.dtime.model.report.ReportType;
+import se.dtime.model.report.ReportView;
+import se.dtime.service.cache.CacheInvalidationEvent;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReportCacheTest {
+
+    private static final ReportDates MARCH = new ReportDates(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31));
+    private static final ReportDates APRIL = new ReportDates(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30));
+    private static final ReportDates YEAR = new ReportDates(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<Object> events = new ArrayList<>();
+    private ReportCache reportCache;
+
+    @BeforeEach
+    void setUp() {
+        reportCache = new ReportCache(2, Duration.ofMinutes(10), Duration.ofHours(6), nanoTime::get, events::add);
+    }
+
+    @Test
+    void shouldServeRepeatedRequestsFromCache() {
+        Report first = get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+        Report second = get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, reportCache.getHitCount());
+        assertEquals(1, reportCache.getMissCount());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntry() {
+        get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+        get(ReportType.USER, ReportView.MONTH, MARCH, false);
+        get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+        get(ReportType.ACCOUNT, ReportView.MONTH, MARCH, false);
+
+        assertEquals(1, reportCache.getEvictionCount());
+        get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+        assertEquals(3, loads.get());
+        get(ReportType.USER, ReportView.MONTH, MARCH, false);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void shouldOnlyInvalidatePeriodsContainingDate() {
+        get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+        get(ReportType.TASK, ReportView.MONTH, APRIL, false);
+
+        reportCache.invalidate(LocalDate.of(2025, 4, 15));
+
+        get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+        assertEquals(2, loads.get());
+        get(ReportType.TASK, ReportView.MONTH, APRIL, false);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void shouldInvalidateYearContainingDate() {
+        get(ReportType.ACCOUNT, ReportView.YEAR, YEAR, false);
+
+        reportCache.invalidate(LocalDate.of(2025, 7, 1));
+
+        get(ReportType.ACCOUNT, ReportView.YEAR, YEAR, false);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldExpireOpenPeriodsButKeepClosedMonths() {
+        Report open = get(ReportType.TASK, ReportView.MONTH, APRIL, false);
+        Report closed = get(ReportType.TASK, ReportView.MONTH, MARCH, true);
+
+        nanoTime.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        assertNotSame(open, get(ReportType.TASK, ReportView.MONTH, APRIL, false));
+        assertSame(closed, get(ReportType.TASK, ReportView.MONTH, MARCH, true));
+    }
+
+    @Test
+    void shouldExpireClosedMonthsAfterClosedTtl() {
+        Report closed = get(ReportType.TASK, ReportView.MONTH, MARCH, true);
+
+        nanoTime.addAndGet(Duration.ofHours(6).toNanos());
+
+        assertNotSame(closed, get(ReportType.TASK, ReportView.MONTH, MARCH, true));
+    }
+
+    @Test
+    void shouldDropClosedMonthWhenReopened() {
+        Report closed = get(ReportType.TASK, ReportView.MONTH, MARCH, true);
+
+        reportCache.invalidateMonth(YearMonth.of(2025, 3));
+
+        assertNotSame(closed, get(ReportType.TASK, ReportView.MONTH, MARCH, false));
+    }
+
+    @Test
+    void shouldDropEveryPeriodStartingInClosedMonth() {
+        reportCache = new ReportCache(10, Duration.ofMinutes(10), Duration.ofHours(6), nanoTime::get, events::add);
+        ReportDates firstWeek = new ReportDates(LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 9));
+        // Reads the closed flags of March although most of it is in April
+        ReportDates lastWeek = new ReportDates(LocalDate.of(2025, 3, 31), LocalDate.of(2025, 4, 6));
+        ReportDates februaryWeek = new ReportDates(LocalDate.of(2025, 2, 24), LocalDate.of(2025, 3, 2));
+        get(ReportType.USER, ReportView.MONTH, MARCH, false);
+        get(ReportType.USER, ReportView.WEEK, firstWeek, false);
+        get(ReportType.USER, ReportView.WEEK, lastWeek, false);
+        get(ReportType.USER, ReportView.WEEK, februaryWeek, false);
+        get(ReportType.USER, ReportView.MONTH, APRIL, false);
+
+        reportCache.invalidateMonth(YearMonth.of(2025, 3));
+
+        assertEquals(2, reportCache.size());
+        get(ReportType.USER, ReportView.WEEK, februaryWeek, false);
+        get(ReportType.USER, ReportView.MONTH, APRIL, false);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheReportLoadedDuringInvalidation() {
+        reportCache.get(ReportType.TASK, ReportView.MONTH, MARCH, () -> {
+            reportCache.invalidate(MARCH.getFromDate());
+            return load(MARCH);
+        }, () -> false);
+
+        get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldPublishInvalidationsForOtherNodes() {
+        reportCache.invalidate(LocalDate.of(2025, 4, 15));
+        reportCache.invalidateMonth(YearMonth.of(2025, 3));
+        reportCache.invalidateAll();
+
+        assertEquals(List.of(new CacheInvalidationEvent(ReportCache.CACHE_NAME, "2025-04-15"),
+                new CacheInvalidationEvent(ReportCache.CACHE_NAME, "2025-03"),
+                CacheInvalidationEvent.all(ReportCache.CACHE_NAME)), events);
+    }
+
+    @Test
+    void shouldEvictPeriodsInvalidatedOnAnotherNode() {
+        get(ReportType.TASK, ReportView.MONTH, MARCH, false);
+        get(ReportType.TASK, ReportView.MONTH, APRIL, false);
+
+        reportCache.evict("2025-04-15");
+
+        assertEquals(1, reportCache.size());
+        assertEquals(List.of(), events);
+
+        reportCache.evict("2025-03");
+        assertEquals(0, reportCache.size());
+        get(ReportType.TASK, ReportView.MONTH, APRIL, false);
+
+        reportCache.evict(null);
+        assertEquals(0, reportCache.size());
+    }
+
+    private Report get(ReportType reportType, ReportView reportView, ReportDates reportDates, boolean closed) {
+        return reportCache.get(reportType, reportView, reportDates, () -> load(reportDates), () -> closed);
+    }
+
+    private Report load(ReportDates reportDates) {
+        loads.incrementAndGet();
+        return new Report(reportDates.getFromDate(), reportDates.getToDate(), 160);
+    }
+}
@@ -0,0 +1,59 @@
+package se.dtime.service.report;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportQueryExecutorTest {
+
+    private final ReportQueryExecutor reportQueryExecutor = new ReportQueryExecutor(2);
+
+    @AfterEach
+    void tearDown() {
+        reportQueryExecutor.shutdown();
+    }
+
+    @Test
+    void shouldNotRunMoreQueriesThanLimitAtTheSameTime() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int value = i;
+            futures.add(reportQueryExecutor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return value;
+            }));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, ReportQueryExecutor.join(futures.get(i)));
+        }
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void shouldRethrowQueryException() {
+        CompletableFuture<Object> future = reportQueryExecutor.submit(() -> {
+            throw new IllegalStateException("query failed");
+        });
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> ReportQueryExecutor.join(future));
+        assertEquals("query failed", exception.getMessage());
+    }
+}
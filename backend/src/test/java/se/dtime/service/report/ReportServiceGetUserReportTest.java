@@ -6,7 +6,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import se.dtime.dbmodel.UserPO;
-import se.dtime.model.timereport.Day;
 import se.dtime.repository.CloseDateRepository;
 import se.dtime.repository.jdbc.ReportRepository;
 import se.dtime.service.calendar.CalendarService;
@@ -52,11 +51,7 @@ class ReportServiceGetUserReportTest {
 
         LocalDate from = LocalDate.of(2024, 6, 1);
         LocalDate to = LocalDate.of(2024, 6, 30);
-        Day[] days = new Day[]{
-                Day.builder().date(from).year(2024).month(6).day(1).build()
-        };
-        when(calendarService.getDays(from, to)).thenReturn(days);
-        when(calendarService.calcWorkableHours(days)).thenReturn(160);
+        when(calendarService.workableHours(from, to)).thenReturn(160);
         when(reportRepository.getUserTaskReports(42L, from, to)).thenReturn(Collections.emptyList());
 
         var report = reportService.getUserReport(ReportView.MONTH, anchor);
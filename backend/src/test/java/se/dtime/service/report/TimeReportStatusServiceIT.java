@@ -0,0 +1,125 @@
+package se.dtime.service.report;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import se.dtime.config.TestReportRepositoryConfig;
+import se.dtime.config.TestStatementCounterConfig;
+import se.dtime.config.TestStatementCounterConfig.StatementCounter;
+import se.dtime.dbmodel.UserPO;
+import se.dtime.dbmodel.timereport.CloseDatePO;
+import se.dtime.model.ActivationStatus;
+import se.dtime.model.UserRole;
+import se.dtime.model.report.UnclosedUser;
+import se.dtime.model.report.UnclosedUserReport;
+import se.dtime.repository.BaseRepositoryIT;
+import se.dtime.repository.CloseDateRepository;
+import se.dtime.repository.UserRepository;
+import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.user.CurrentUserResolver;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import({TestReportRepositoryConfig.class, TestStatementCounterConfig.class,
+        TimeReportStatusService.class, ReportConverter.class, ReportCache.class, CalendarService.class, CurrentUserResolver.class})
+class TimeReportStatusServiceIT extends BaseRepositoryIT {
+
+    private static final LocalDate MONTH = LocalDate.of(2025, 3, 1);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TimeReportStatusService timeReportStatusService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CloseDateRepository closeDateRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", "n/a"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldResolveCloseStatusWithConstantNumberOfStatements() {
+        createUsers(0, 4);
+        timeReportStatusService.getUnclosedUsers(MONTH); // warm up the special day cache
+
+        int statementsForFewUsers = countStatements();
+
+        createUsers(4, 40);
+        int statementsForManyUsers = countStatements();
+
+        assertThat(statementsForManyUsers).isEqualTo(statementsForFewUsers);
+    }
+
+    @Test
+    void shouldOnlyReturnUsersThatHaveNotClosedTheMonth() {
+        createUsers(0, 6);
+
+        UnclosedUserReport report = timeReportStatusService.getUnclosedUsers(MONTH);
+
+        assertThat(report.getUnclosedUsers()).hasSize(3);
+        assertThat(report.getUnclosedUsers()).extracting(UnclosedUser::getEmail)
+                .containsExactlyInAnyOrder("user1@example.com", "user3@example.com", "user5@example.com");
+    }
+
+    private int countStatements() {
+        entityManager.flush();
+        entityManager.clear();
+        statementCounter.reset();
+        timeReportStatusService.getUnclosedUsers(MONTH);
+        return statementCounter.getCount();
+    }
+
+    /**
+     * Creates active users {@code from..to-1}; every user with an even index has closed {@link #MONTH}.
+     */
+    private void createUsers(int from, int to) {
+        for (int i = from; i < to; i++) {
+            UserPO user = new UserPO();
+            user.setEmail("user" + i + "@example.com");
+            user.setFirstName("User");
+            user.setLastName("Number" + i);
+            user.setExternalId("ext-user" + i);
+            user.setUserRole(UserRole.USER);
+            user.setActivationStatus(ActivationStatus.ACTIVE);
+            user.setCreatedBy(1L);
+            user.setUpdatedBy(1L);
+            user.setCreateDateTime(LocalDateTime.now());
+            user.setUpdatedDateTime(LocalDateTime.now());
+            userRepository.save(user);
+
+            if (i % 2 == 0) {
+                CloseDatePO closeDate = new CloseDatePO();
+                closeDate.setUser(user);
+                closeDate.setDate(MONTH);
+                closeDate.setCreatedBy(1L);
+                closeDate.setUpdatedBy(1L);
+                closeDate.setCreateDateTime(LocalDateTime.now());
+                closeDate.setUpdatedDateTime(LocalDateTime.now());
+                closeDateRepository.save(closeDate);
+            }
+        }
+    }
+}
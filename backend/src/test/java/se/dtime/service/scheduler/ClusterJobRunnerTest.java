@@ -0,0 +1,129 @@
+package se.dtime.service.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import se.dtime.model.ScheduledJobRunStatus;
+import se.dtime.repository.jdbc.ScheduledJobRepository;
+import se.dtime.repository.jdbc.ScheduledJobRepository.ScheduledJobRun;
+import se.dtime.service.calendar.CalendarService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterJobRunnerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 31, 10, 0, 30);
+    private static final LocalDateTime SCHEDULED_AT = LocalDateTime.of(2025, 3, 31, 10, 0);
+
+    @Mock
+    private ScheduledJobRepository scheduledJobRepository;
+    @Mock
+    private CalendarService calendarService;
+
+    private final List<LocalDateTime> runs = new ArrayList<>();
+    private final ClusterJob job = new ClusterJob("test-job", "0 0 10 27-31 * ?", Duration.ofHours(12), runs::add);
+    private ClusterJobRunner clusterJobRunner;
+
+    @BeforeEach
+    void setUp() {
+        clusterJobRunner = new ClusterJobRunner(scheduledJobRepository, calendarService, List.of(job), Duration.ofHours(1), true);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+    }
+
+    @Test
+    void runDueJobsShouldRegisterJobsWithNextRunOnce() {
+        when(scheduledJobRepository.claim(eq("test-job"), anyString(), eq(NOW), eq(NOW.plusHours(1)))).thenReturn(Optional.empty());
+
+        clusterJobRunner.runDueJobs();
+        clusterJobRunner.runDueJobs();
+
+        verify(scheduledJobRepository, times(1)).register("test-job", "0 0 10 27-31 * ?", LocalDateTime.of(2025, 4, 27, 10, 0));
+    }
+
+    @Test
+    void runIfDueShouldNotRunJobClaimedElsewhere() {
+        when(scheduledJobRepository.claim(eq("test-job"), anyString(), eq(NOW), eq(NOW.plusHours(1)))).thenReturn(Optional.empty());
+
+        clusterJobRunner.runIfDue(job);
+
+        assertTrue(runs.isEmpty());
+        verify(scheduledJobRepository, never()).recordRun(any());
+        verify(scheduledJobRepository, never()).complete(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void runIfDueShouldRunClaimedJobAndScheduleNextRun() {
+        when(scheduledJobRepository.claim(eq("test-job"), anyString(), eq(NOW), eq(NOW.plusHours(1)))).thenReturn(Optional.of(SCHEDULED_AT));
+        when(scheduledJobRepository.complete(eq("test-job"), anyString(), eq(NOW), any())).thenReturn(true);
+
+        clusterJobRunner.runIfDue(job);
+
+        assertEquals(List.of(SCHEDULED_AT), runs);
+        assertEquals(ScheduledJobRunStatus.SUCCEEDED, recordedRun().status());
+        verify(scheduledJobRepository).complete(eq("test-job"), anyString(), eq(NOW), eq(LocalDateTime.of(2025, 4, 27, 10, 0)));
+    }
+
+    @Test
+    void runIfDueShouldSkipMissedRunPastCatchUpWindow() {
+        when(scheduledJobRepository.claim(eq("test-job"), anyString(), eq(NOW), eq(NOW.plusHours(1)))).thenReturn(Optional.of(SCHEDULED_AT.minusDays(1)));
+        when(scheduledJobRepository.complete(eq("test-job"), anyString(), eq(NOW), any())).thenReturn(true);
+
+        clusterJobRunner.runIfDue(job);
+
+        assertTrue(runs.isEmpty());
+        assertEquals(ScheduledJobRunStatus.SKIPPED, recordedRun().status());
+    }
+
+    @Test
+    void runIfDueShouldRecordFailureAndScheduleNextRun() {
+        ClusterJob failing = new ClusterJob("failing-job", "0 0 2 1 * ?", null, scheduledAt -> {
+            throw new IllegalStateException("boom");
+        });
+        when(scheduledJobRepository.claim(eq("failing-job"), anyString(), eq(NOW), eq(NOW.plusHours(1)))).thenReturn(Optional.of(SCHEDULED_AT));
+        when(scheduledJobRepository.complete(eq("failing-job"), anyString(), eq(NOW), any())).thenReturn(true);
+
+        clusterJobRunner.runIfDue(failing);
+
+        ScheduledJobRun run = recordedRun();
+        assertEquals(ScheduledJobRunStatus.FAILED, run.status());
+        assertEquals("IllegalStateException: boom", run.error());
+        verify(scheduledJobRepository).complete(eq("failing-job"), anyString(), eq(NOW), eq(LocalDateTime.of(2025, 4, 1, 2, 0)));
+    }
+
+    @Test
+    void runIfDueShouldScheduleNextRunWhenRecordingRunFails() {
+        when(scheduledJobRepository.claim(eq("test-job"), anyString(), eq(NOW), eq(NOW.plusHours(1)))).thenReturn(Optional.of(SCHEDULED_AT));
+        when(scheduledJobRepository.complete(eq("test-job"), anyString(), eq(NOW), any())).thenReturn(true);
+        doThrow(new QueryTimeoutException("timeout")).when(scheduledJobRepository).recordRun(any());
+
+        assertDoesNotThrow(() -> clusterJobRunner.runIfDue(job));
+
+        assertEquals(List.of(SCHEDULED_AT), runs);
+        InOrder inOrder = inOrder(scheduledJobRepository);
+        inOrder.verify(scheduledJobRepository).complete(eq("test-job"), anyString(), eq(NOW), eq(LocalDateTime.of(2025, 4, 27, 10, 0)));
+        inOrder.verify(scheduledJobRepository).recordRun(any());
+    }
+
+    private ScheduledJobRun recordedRun() {
+        ArgumentCaptor<ScheduledJobRun> captor = ArgumentCaptor.forClass(ScheduledJobRun.class);
+        verify(scheduledJobRepository).recordRun(captor.capture());
+        return captor.getValue();
+    }
+}
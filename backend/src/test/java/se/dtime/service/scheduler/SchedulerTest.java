@@ -8,11 +8,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import se.dtime.config.EmailSendConfig;
 import se.dtime.model.ActivationStatus;
 import se.dtime.repository.UserRepository;
+import se.dtime.repository.jdbc.TimeReportPartitionRepository;
 import se.dtime.service.calendar.CalendarService;
-import se.dtime.service.system.EmailSender;
+import se.dtime.service.system.EmailOutbox;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.mockito.Mockito.*;
 
@@ -27,7 +29,19 @@ public class SchedulerTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private EmailSender emailSender;
+    private EmailOutbox emailOutbox;
+    @Mock
+    private TimeReportPartitionRepository timeReportPartitionRepository;
+
+    @Test
+    public void createTimeReportPartitionsForCurrentAndNextYear() {
+        when(calendarService.getNowDate()).thenReturn(LocalDate.of(2026, 12, 1));
+
+        scheduler.createTimeReportPartitions();
+
+        verify(timeReportPartitionRepository).createYearPartition(2026);
+        verify(timeReportPartitionRepository).createYearPartition(2027);
+    }
 
 
     @Test
@@ -61,5 +75,6 @@ public class SchedulerTest {
 
         scheduler.emailReminder();
         verify(userRepository, times(1)).findByActivationStatusOrderByDisplayNameAsc(ActivationStatus.ACTIVE);
+        verify(emailOutbox).enqueueReminders(List.of());
     }
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package se.dtime.service.system;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.dtime.repository.jdbc.EmailOutboxRepository;
+import se.dtime.repository.jdbc.EmailOutboxRepository.OutboxEmail;
+import se.dtime.service.calendar.CalendarService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxSenderTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 31, 10, 0);
+    private static final Duration LEASE = Duration.ofMinutes(10);
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+    @Mock
+    private EmailSender emailSender;
+    @Mock
+    private CalendarService calendarService;
+    @Mock
+    private EmailSender.SmtpConnection connection;
+    @Mock
+    private EmailSender.SmtpConnection secondConnection;
+
+    private EmailOutboxSender emailOutboxSender;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (emailOutboxSender != null) {
+            emailOutboxSender.stop();
+        }
+    }
+
+    @Test
+    void drainBatchShouldSendBatchOverOneConnectionAndMarkEachSent() throws Exception {
+        emailOutboxSender = sender(0, 100);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of(email(1, 1), email(2, 1), email(3, 1)));
+        when(emailSender.connect()).thenReturn(connection);
+
+        assertEquals(3, emailOutboxSender.drainBatch());
+
+        verify(emailSender, times(1)).connect();
+        verify(connection).send("user1@example.com", "Subject", "Body");
+        verify(connection).send("user2@example.com", "Subject", "Body");
+        verify(connection).send("user3@example.com", "Subject", "Body");
+        verify(emailOutboxRepository).markSent(1, NOW);
+        verify(emailOutboxRepository).markSent(2, NOW);
+        verify(emailOutboxRepository).markSent(3, NOW);
+        verify(connection, never()).close();
+    }
+
+    @Test
+    void drainBatchShouldReuseConnectionAcrossBatches() throws Exception {
+        emailOutboxSender = sender(0, 100);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of(email(1, 1)), List.of(email(2, 1)));
+        when(emailSender.connect()).thenReturn(connection);
+
+        emailOutboxSender.drainBatch();
+        emailOutboxSender.drainBatch();
+
+        verify(emailSender, times(1)).connect();
+        verify(connection, times(2)).send(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void drainBatchShouldReplaceConnectionAfterMessagesPerConnection() throws Exception {
+        emailOutboxSender = sender(0, 2);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of(email(1, 1), email(2, 1), email(3, 1)));
+        when(emailSender.connect()).thenReturn(connection, secondConnection);
+
+        emailOutboxSender.drainBatch();
+
+        verify(connection, times(2)).send(anyString(), anyString(), anyString());
+        verify(connection).close();
+        verify(secondConnection).send("user3@example.com", "Subject", "Body");
+    }
+
+    @Test
+    void drainBatchShouldPaceSendingToRate() throws Exception {
+        emailOutboxSender = sender(20, 100);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of(email(1, 1), email(2, 1), email(3, 1)));
+        when(emailSender.connect()).thenReturn(connection);
+
+        long start = System.nanoTime();
+        emailOutboxSender.drainBatch();
+
+        // 20 per second leaves 50 ms between sends
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        verify(connection, times(3)).send(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void drainBatchShouldRetryFailedEmailWithBackoffOnNewConnection() throws Exception {
+        emailOutboxSender = sender(0, 100);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of(email(1, 3), email(2, 1)));
+        when(emailSender.connect()).thenReturn(connection, secondConnection);
+        doThrow(new MessagingException("Connection reset")).when(connection).send(eq("user1@example.com"), anyString(), anyString());
+
+        emailOutboxSender.drainBatch();
+
+        verify(emailOutboxRepository).markRetry(eq(1L), contains("Connection reset"), eq(NOW.plusMinutes(4)));
+        verify(connection).close();
+        verify(secondConnection).send("user2@example.com", "Subject", "Body");
+        verify(emailOutboxRepository).markSent(2, NOW);
+    }
+
+    @Test
+    void drainBatchShouldRetryWhenConnectFails() throws Exception {
+        emailOutboxSender = sender(0, 100);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of(email(1, 1)));
+        when(emailSender.connect()).thenThrow(new MessagingException("Connection refused"));
+
+        emailOutboxSender.drainBatch();
+
+        verify(emailOutboxRepository).markRetry(eq(1L), contains("Connection refused"), eq(NOW.plusMinutes(1)));
+        verify(emailOutboxRepository, never()).markSent(anyLong(), any());
+    }
+
+    @Test
+    void drainBatchShouldFailEmailAfterMaxAttempts() throws Exception {
+        emailOutboxSender = sender(0, 100);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of(email(1, 8)));
+        when(emailSender.connect()).thenReturn(connection);
+        doThrow(new MessagingException("Mailbox unavailable")).when(connection).send(anyString(), anyString(), anyString());
+
+        emailOutboxSender.drainBatch();
+
+        verify(emailOutboxRepository).markFailed(eq(1L), contains("Mailbox unavailable"));
+        verify(emailOutboxRepository, never()).markRetry(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void drainBatchShouldFailInvalidAddressAtOnce() throws Exception {
+        emailOutboxSender = sender(0, 100);
+        when(calendarService.getNowDateTime()).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of(email(1, 1)));
+        when(emailSender.connect()).thenReturn(connection);
+        doThrow(new AddressException("Illegal address")).when(connection).send(anyString(), anyString(), anyString());
+
+        emailOutboxSender.drainBatch();
+
+        verify(emailOutboxRepository).markFailed(eq(1L), contains("Illegal address"));
+        verify(emailOutboxRepository, never()).markRetry(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void backoffShouldDoublePerAttemptUpToMax() {
+        emailOutboxSender = sender(0, 100);
+
+        assertEquals(Duration.ofMinutes(1), emailOutboxSender.backoff(1));
+        assertEquals(Duration.ofMinutes(2), emailOutboxSender.backoff(2));
+        assertEquals(Duration.ofMinutes(8), emailOutboxSender.backoff(4));
+        assertEquals(Duration.ofHours(6), emailOutboxSender.backoff(10));
+        assertEquals(Duration.ofHours(6), emailOutboxSender.backoff(100));
+    }
+
+    @Test
+    void workerShouldKeepPollingAfterUnexpectedError() {
+        emailOutboxSender = sender(0, 100);
+        when(emailSender.isEnabled()).thenReturn(true);
+        when(calendarService.getNowDateTime()).thenThrow(new IllegalStateException("boom")).thenReturn(NOW);
+        when(emailOutboxRepository.claim(50, NOW, LEASE)).thenReturn(List.of());
+
+        emailOutboxSender.start();
+
+        verify(emailOutboxRepository, timeout(2000)).claim(50, NOW, LEASE);
+    }
+
+    private EmailOutboxSender sender(int ratePerSecond, int messagesPerConnection) {
+        return new EmailOutboxSender(emailOutboxRepository, emailSender, calendarService, 50, ratePerSecond, 8,
+                Duration.ofMinutes(1), Duration.ofHours(6), Duration.ofMillis(10), LEASE, messagesPerConnection);
+    }
+
+    private static OutboxEmail email(long id, int attempts) {
+        return new OutboxEmail(id, "user" + id + "@example.com", "Subject", "Body", attempts);
+    }
+}
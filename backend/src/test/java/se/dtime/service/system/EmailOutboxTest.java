@@ -0,0 +1,56 @@
+package se.dtime.service.system;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import se.dtime.repository.jdbc.EmailOutboxRepository;
+import se.dtime.service.calendar.CalendarService;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxTest {
+    @InjectMocks
+    private EmailOutbox emailOutbox;
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+    @Mock
+    private EmailOutboxSender emailOutboxSender;
+    @Mock
+    private EmailSender emailSender;
+    @Mock
+    private CalendarService calendarService;
+
+    @Test
+    void enqueueRemindersShouldQueueDistinctAddressesInOneBatch() {
+        LocalDateTime now = LocalDateTime.of(2025, 3, 31, 10, 0);
+        when(emailSender.isEnabled()).thenReturn(true);
+        when(calendarService.getNowDateTime()).thenReturn(now);
+
+        int count = emailOutbox.enqueueReminders(Arrays.asList("a@example.com", null, " ", "b@example.com", "a@example.com "));
+
+        assertEquals(2, count);
+        verify(emailOutboxRepository).enqueue(eq(List.of("a@example.com", "b@example.com")), anyString(), anyString(), eq(now));
+        verify(emailOutboxSender).wakeUp();
+    }
+
+    @Test
+    void enqueueRemindersShouldNotQueueWhenMailIsDisabled() {
+        when(emailSender.isEnabled()).thenReturn(false);
+
+        assertEquals(0, emailOutbox.enqueueReminders(List.of("a@example.com")));
+        verify(emailOutboxRepository, never()).enqueue(anyCollection(), anyString(), anyString(), any());
+        verify(emailOutboxSender, never()).wakeUp();
+    }
+}
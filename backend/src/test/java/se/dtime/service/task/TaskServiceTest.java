@@ -3,32 +3,41 @@ package se.dtime.service.task;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import se.dtime.dbmodel.AccountPO;
-import se.dtime.dbmodel.TaskContributorPO;
 import se.dtime.dbmodel.TaskPO;
-import se.dtime.dbmodel.timereport.TimeEntryPO;
 import se.dtime.model.Account;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.Task;
 import se.dtime.model.TaskType;
 import se.dtime.model.error.NotFoundException;
-import se.dtime.repository.TaskContributorRepository;
 import se.dtime.repository.TaskRepository;
-import se.dtime.repository.TimeEntryRepository;
+import se.dtime.repository.jdbc.TaskContributorUpsertRepository;
+import se.dtime.repository.jdbc.TimeEntryUpsertRepository;
+import se.dtime.repository.jdbc.TimeReportMonthRepository;
+import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.report.ReportCache;
 
-import java.util.Arrays;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -45,9 +54,17 @@ class TaskServiceTest {
     @Mock
     private TaskValidator taskValidator;
     @Mock
-    private TaskContributorRepository taskContributorRepository;
+    private TaskContributorUpsertRepository taskContributorUpsertRepository;
     @Mock
-    private TimeEntryRepository timeEntryRepository;
+    private TimeEntryUpsertRepository timeEntryUpsertRepository;
+    @Mock
+    private TimeReportMonthRepository timeReportMonthRepository;
+    @Mock
+    private CalendarService calendarService;
+    @Mock
+    private ReportCache reportCache;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     private Task testTask;
     private TaskPO testTaskPO;
@@ -111,6 +128,7 @@ class TaskServiceTest {
         // Then
         verify(taskValidator).validateUpdate(testTask);
         verify(taskRepository).save(testTaskPO);
+        verify(reportCache).invalidateAll();
     }
 
     @Test
@@ -120,23 +138,21 @@ class TaskServiceTest {
                 .activationStatus(ActivationStatus.INACTIVE)
                 .build();
 
-        TaskPO inactiveTaskPO = new TaskPO();
+        TaskPO inactiveTaskPO = new TaskPO(3L);
         inactiveTaskPO.setActivationStatus(ActivationStatus.INACTIVE);
         inactiveTaskPO.setIsBillable(false);
 
-        TaskContributorPO taskContributor = new TaskContributorPO();
-        taskContributor.setActivationStatus(ActivationStatus.ACTIVE);
-
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
         when(taskConverter.toPO(inactiveTask)).thenReturn(inactiveTaskPO);
-        when(taskContributorRepository.findByTask(inactiveTaskPO))
-                .thenReturn(Collections.singletonList(taskContributor));
+        when(taskConverter.resolveCurrentUserId()).thenReturn(7L);
+        when(calendarService.getNowDateTime()).thenReturn(now);
 
         // When
         taskService.update(inactiveTask);
 
         // Then
-        assertThat(taskContributor.getActivationStatus()).isEqualTo(ActivationStatus.INACTIVE);
         verify(taskRepository).save(inactiveTaskPO);
+        verify(taskContributorUpsertRepository).deactivateByTask(3L, 7L, now);
     }
 
     @Test
@@ -229,37 +245,58 @@ class TaskServiceTest {
     @Test
     void delete_ValidTaskId_ShouldDeleteTaskAndRelatedData() {
         // Given
-        TaskPO taskPO = new TaskPO(1L);
-        when(timeEntryRepository.findByTask(1L)).thenReturn(Collections.emptyList());
-        when(taskContributorRepository.findByTask(taskPO)).thenReturn(Collections.emptyList());
+        runTransactionCallbacks();
 
         // When
         assertDoesNotThrow(() -> taskService.delete(1L));
 
         // Then
         verify(taskValidator).validateDelete(1L);
-        verify(timeEntryRepository).deleteAll(any());
-        verify(taskContributorRepository).deleteAll(any());
+        verify(timeEntryUpsertRepository).deleteByTask(1L, TaskService.DELETE_CHUNK_SIZE);
+        verify(taskContributorUpsertRepository).deleteByTask(1L);
         verify(taskRepository).deleteById(1L);
     }
 
     @Test
     void delete_TaskWithTimeEntries_ShouldDeleteTimeEntriesFirst() {
         // Given
-        TaskPO taskPO = new TaskPO(1L);
-        List<TimeEntryPO> timeEntries = Arrays.asList(new TimeEntryPO(), new TimeEntryPO());
-        List<TaskContributorPO> taskContributors = Arrays.asList(new TaskContributorPO(), new TaskContributorPO());
-
-        when(timeEntryRepository.findByTask(1L)).thenReturn(timeEntries);
-        when(taskContributorRepository.findByTask(taskPO)).thenReturn(taskContributors);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 1, 12, 0);
+        when(taskConverter.resolveCurrentUserId()).thenReturn(7L);
+        when(calendarService.getNowDateTime()).thenReturn(now);
+        runTransactionCallbacks();
 
         // When
         taskService.delete(1L);
 
         // Then
-        verify(timeEntryRepository).deleteAll(timeEntries);
-        verify(taskContributorRepository).deleteAll(taskContributors);
-        verify(taskRepository).deleteById(1L);
+        InOrder inOrder = inOrder(timeEntryUpsertRepository, timeReportMonthRepository, taskContributorUpsertRepository, transactionTemplate, taskRepository, reportCache);
+        inOrder.verify(taskContributorUpsertRepository).deactivateByTask(1L, 7L, now);
+        inOrder.verify(timeReportMonthRepository).deleteByTask(1L);
+        inOrder.verify(timeEntryUpsertRepository).deleteByTask(1L, TaskService.DELETE_CHUNK_SIZE);
+        inOrder.verify(transactionTemplate).executeWithoutResult(any());
+        inOrder.verify(taskContributorUpsertRepository).deleteByTask(1L);
+        inOrder.verify(taskRepository).deleteById(1L);
+        inOrder.verify(reportCache).invalidateAll();
+    }
+
+    @Test
+    void delete_WhenTransactionFails_ShouldNotDeleteTaskOutsideIt() {
+        // Given
+        doThrow(new IllegalStateException("rollback")).when(transactionTemplate).executeWithoutResult(any());
+
+        // When/Then
+        assertThrows(IllegalStateException.class, () -> taskService.delete(1L));
+        verify(taskContributorUpsertRepository, never()).deleteByTask(1L);
+        verify(taskRepository, never()).deleteById(1L);
+        verify(reportCache, never()).invalidateAll();
+    }
+
+    private void runTransactionCallbacks() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
     @Test
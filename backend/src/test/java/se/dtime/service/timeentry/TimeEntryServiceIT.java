@@ -0,0 +1,197 @@
+package se.dtime.service.timeentry;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import se.dtime.config.TestReportRepositoryConfig;
+import se.dtime.config.TestStatementCounterConfig;
+import se.dtime.config.TestStatementCounterConfig.StatementCounter;
+import se.dtime.dbmodel.AccountPO;
+import se.dtime.dbmodel.TaskContributorPO;
+import se.dtime.dbmodel.TaskPO;
+import se.dtime.dbmodel.UserPO;
+import se.dtime.dbmodel.timereport.TimeEntryPO;
+import se.dtime.model.ActivationStatus;
+import se.dtime.model.UserRole;
+import se.dtime.model.timereport.TimeReport;
+import se.dtime.model.timereport.TimeReportView;
+import se.dtime.repository.AccountRepository;
+import se.dtime.repository.BaseRepositoryIT;
+import se.dtime.repository.TaskContributorRepository;
+import se.dtime.repository.TaskRepository;
+import se.dtime.repository.TimeEntryRepository;
+import se.dtime.repository.UserRepository;
+import se.dtime.repository.jdbc.TimeEntryUpsertRepository;
+import se.dtime.repository.jdbc.VacationReportRepository;
+import se.dtime.service.account.AccountConverter;
+import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.report.ReportCache;
+import se.dtime.service.task.TaskConverter;
+import se.dtime.service.user.CurrentUserResolver;
+import se.dtime.service.user.UserConverter;
+import se.dtime.service.user.UserValidator;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import({TestReportRepositoryConfig.class, TestStatementCounterConfig.class,
+        TimeEntryService.class, TimeReportConverter.class, TaskConverter.class, AccountConverter.class, UserConverter.class,
+        TimeReportValidator.class, UserValidator.class, CurrentUserResolver.class, CalendarService.class,
+        TimeEntryUpsertRepository.class, VacationReportRepository.class, ReportCache.class})
+class TimeEntryServiceIT extends BaseRepositoryIT {
+
+    private static final LocalDate MONTH = LocalDate.of(2025, 3, 1);
+
+    // User, time entries, task contributors and close dates
+    private static final int MAX_STATEMENTS = 4;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TimeEntryService timeEntryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskContributorRepository taskContributorRepository;
+
+    @Autowired
+    private TimeEntryRepository timeEntryRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private UserPO user;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", "n/a",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        user = createUser();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldBuildMonthTimeSheetWithConstantNumberOfStatements() {
+        createTasks(0, 2);
+        timeEntryService.getUserTimeReport(user.getId(), TimeReportView.MONTH, MONTH); // warm up the special day cache
+
+        int statementsForFewTasks = countStatements();
+
+        createTasks(2, 12);
+        int statementsForManyTasks = countStatements();
+
+        assertThat(statementsForFewTasks).isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(statementsForManyTasks).isEqualTo(statementsForFewTasks);
+    }
+
+    @Test
+    void shouldIncludeAccountOfEveryTask() {
+        createTasks(0, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        TimeReport timeReport = timeEntryService.getUserTimeReport(user.getId(), TimeReportView.MONTH, MONTH);
+
+        assertThat(timeReport.getTimeReportTasks()).hasSize(3);
+        assertThat(timeReport.getTimeReportTasks()).allSatisfy(timeReportTask ->
+                assertThat(timeReportTask.getTask().getAccount().getName()).startsWith("Account"));
+    }
+
+    private int countStatements() {
+        entityManager.flush();
+        entityManager.clear();
+        statementCounter.reset();
+        timeEntryService.getUserTimeReport(user.getId(), TimeReportView.MONTH, MONTH);
+        return statementCounter.getCount();
+    }
+
+    private UserPO createUser() {
+        UserPO userPO = new UserPO();
+        userPO.setEmail("sheet@example.com");
+        userPO.setFirstName("Sheet");
+        userPO.setLastName("User");
+        userPO.setExternalId("ext-sheet");
+        userPO.setUserRole(UserRole.USER);
+        userPO.setActivationStatus(ActivationStatus.ACTIVE);
+        userPO.setCreatedBy(1L);
+        userPO.setUpdatedBy(1L);
+        userPO.setCreateDateTime(LocalDateTime.now());
+        userPO.setUpdatedDateTime(LocalDateTime.now());
+        return userRepository.save(userPO);
+    }
+
+    /**
+     * Creates tasks {@code from..to-1}, each on its own account, with time reported on every weekday of {@link #MONTH}.
+     */
+    private void createTasks(int from, int to) {
+        for (int i = from; i < to; i++) {
+            AccountPO account = new AccountPO();
+            account.setName("Account " + i);
+            account.setActivationStatus(ActivationStatus.ACTIVE);
+            account.setCreatedBy(1L);
+            account.setUpdatedBy(1L);
+            account.setCreateDateTime(LocalDateTime.now());
+            account.setUpdatedDateTime(LocalDateTime.now());
+            accountRepository.save(account);
+
+            TaskPO task = new TaskPO();
+            task.setName("Task " + i);
+            task.setActivationStatus(ActivationStatus.ACTIVE);
+            task.setAccount(account);
+            task.setCreatedBy(1L);
+            task.setUpdatedBy(1L);
+            task.setCreateDateTime(LocalDateTime.now());
+            task.setUpdatedDateTime(LocalDateTime.now());
+            taskRepository.save(task);
+
+            TaskContributorPO contributor = new TaskContributorPO();
+            contributor.setUser(user);
+            contributor.setTask(task);
+            contributor.setActivationStatus(ActivationStatus.ACTIVE);
+            contributor.setCreatedBy(1L);
+            contributor.setUpdatedBy(1L);
+            contributor.setCreateDateTime(LocalDateTime.now());
+            contributor.setUpdatedDateTime(LocalDateTime.now());
+            taskContributorRepository.save(contributor);
+
+            for (LocalDate date = MONTH; date.getMonth() == MONTH.getMonth(); date = date.plusDays(1)) {
+                if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                    TimeEntryPO timeEntry = new TimeEntryPO();
+                    timeEntry.setTaskContributor(contributor);
+                    timeEntry.setDate(date);
+                    timeEntry.setTime(BigDecimal.valueOf(2));
+                    timeEntry.setCreatedBy(1L);
+                    timeEntry.setUpdatedBy(1L);
+                    timeEntry.setCreateDateTime(LocalDateTime.now());
+                    timeEntry.setUpdatedDateTime(LocalDateTime.now());
+                    timeEntryRepository.save(timeEntry);
+                }
+            }
+        }
+    }
+}
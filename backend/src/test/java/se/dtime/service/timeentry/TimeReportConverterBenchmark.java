@@ -0,0 +1,127 @@
+package se.dtime.service.timeentry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.dtime.dbmodel.AccountPO;
+import se.dtime.dbmodel.TaskContributorPO;
+import se.dtime.dbmodel.TaskPO;
+import se.dtime.dbmodel.UserPO;
+import se.dtime.dbmodel.timereport.TimeEntryPO;
+import se.dtime.model.ActivationStatus;
+import se.dtime.model.timereport.Day;
+import se.dtime.model.timereport.TimeEntry;
+import se.dtime.model.timereport.TimeReport;
+import se.dtime.service.account.AccountConverter;
+import se.dtime.service.task.TaskConverter;
+import se.dtime.service.user.UserConverter;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the former per-cell stream scan of the time entries with the grid based
+ * {@link TimeReportConverter#convertToTimeReport(Day[], UserPO, List, List)} for a month and a year
+ * of 30 tasks with time reported on every weekday.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeReportConverterBenchmark {
+
+    private static final int TASKS = 30;
+    private static final LocalDate FROM_DATE = LocalDate.of(2025, 1, 1);
+
+    @Param({"MONTH", "YEAR"})
+    private String grid;
+
+    private TimeReportConverter timeReportConverter;
+    private UserPO userPO;
+    private Day[] days;
+    private List<TaskContributorPO> taskContributorPOS;
+    private List<TimeEntryPO> timeEntryPOS;
+
+    @Setup(Level.Trial)
+    public void createGrid() {
+        timeReportConverter = new TimeReportConverter(new TaskConverter(new AccountConverter()), new UserConverter());
+
+        LocalDate toDate = "YEAR".equals(grid) ? FROM_DATE.plusYears(1).minusDays(1) : FROM_DATE.plusMonths(1).minusDays(1);
+        List<Day> dayList = new ArrayList<>();
+        for (LocalDate date = FROM_DATE; !date.isAfter(toDate); date = date.plusDays(1)) {
+            dayList.add(Day.builder().date(date).year(date.getYear()).month(date.getMonthValue()).build());
+        }
+        days = dayList.toArray(new Day[0]);
+
+        userPO = new UserPO(1L);
+        userPO.setFirstName("Bench");
+        userPO.setLastName("Mark");
+
+        AccountPO accountPO = new AccountPO(1L);
+        accountPO.setName("Account");
+        accountPO.setActivationStatus(ActivationStatus.ACTIVE);
+
+        taskContributorPOS = new ArrayList<>();
+        timeEntryPOS = new ArrayList<>();
+        long timeEntryId = 1;
+        for (long taskId = 1; taskId <= TASKS; taskId++) {
+            TaskPO taskPO = new TaskPO(taskId);
+            taskPO.setName("Task " + taskId);
+            taskPO.setActivationStatus(ActivationStatus.ACTIVE);
+            taskPO.setAccount(accountPO);
+
+            TaskContributorPO taskContributorPO = new TaskContributorPO(taskId);
+            taskContributorPO.setUser(userPO);
+            taskContributorPO.setTask(taskPO);
+            taskContributorPO.setActivationStatus(ActivationStatus.ACTIVE);
+            taskContributorPOS.add(taskContributorPO);
+
+            for (Day day : days) {
+                DayOfWeek dayOfWeek = day.getDate().getDayOfWeek();
+                if (dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY) {
+                    TimeEntryPO timeEntryPO = new TimeEntryPO();
+                    timeEntryPO.setId(timeEntryId++);
+                    timeEntryPO.setTaskContributor(taskContributorPO);
+                    timeEntryPO.setDate(day.getDate());
+                    timeEntryPO.setTime(BigDecimal.valueOf(taskId % 8 + 1, 1));
+                    timeEntryPOS.add(timeEntryPO);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<TimeEntry> perCellStreamScan() {
+        List<TimeEntry> timeEntries = new ArrayList<>();
+        for (TaskContributorPO taskContributorPO : taskContributorPOS) {
+            TaskPO taskPO = taskContributorPO.getTask();
+            for (Day day : days) {
+                timeEntries.add(timeEntryPOS.stream().
+                        filter(t -> t.getTaskContributor().getTask().getId().equals(taskPO.getId()) && day.getDate().equals(t.getDate())).
+                        findFirst().map(te -> timeReportConverter.convertToTimeReportDay(day, te)).
+                        orElse(timeReportConverter.convertToTimeReportDay(day, taskContributorPO)));
+            }
+        }
+        return timeEntries;
+    }
+
+    @Benchmark
+    public TimeReport gridConversion() {
+        return timeReportConverter.convertToTimeReport(days, userPO, timeEntryPOS, taskContributorPOS);
+    }
+}
@@ -15,11 +15,13 @@ import se.dtime.model.Account;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.Task;
 import se.dtime.model.timereport.*;
+import se.dtime.repository.jdbc.VacationReportRepository.UserVacationDays;
 import se.dtime.service.task.TaskConverter;
 import se.dtime.service.user.UserConverter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.math.BigDecimal;
 
@@ -85,6 +87,35 @@ public class TimeReportConverterTest {
         assertEquals(4, timeReport.getTimeReportTasks().size());
     }
 
+    @Test
+    public void testConvertToTimeReportPlacesEntriesOnTheirDays() {
+        LocalDate fromDate = LocalDate.of(YEAR, MONTH, 1);
+        LocalDate toDate = LocalDate.of(YEAR, MONTH, LAST_DAY_IN_MONTH);
+        Day[] days = createDays(fromDate, toDate);
+
+        when(taskConverter.toModel(any(TaskPO.class))).thenAnswer(invocation -> {
+            TaskPO po = invocation.getArgument(0);
+            return Task.builder().id(po.getId()).name("Task " + po.getId()).build();
+        });
+
+        TimeReport timeReport = timeReportConverter.convertToTimeReport(days, new UserPO(1L), createTimeReportDays(), createTaskContributors());
+
+        TimeReportTask task1 = timeReport.getTimeReportTasks().get(0);
+        assertEquals(1L, task1.getTask().getId());
+        assertEquals(1L, task1.getTimeEntries().get(2).getId());
+        assertEquals(2L, task1.getTimeEntries().get(4).getId());
+        assertEquals(3L, task1.getTimeEntries().get(6).getId());
+        assertTrue(hasNoTimes(task1, 3, 5, 7));
+        assertEquals(0, BigDecimal.valueOf(24).compareTo(task1.getTotalTime()));
+
+        TimeReportTask task2 = timeReport.getTimeReportTasks().get(1);
+        assertEquals(4L, task2.getTimeEntries().get(7).getId());
+        assertEquals(5L, task2.getTimeEntries().get(9).getId());
+        assertTrue(hasNoTimes(task2, 8, 10));
+
+        assertEquals(0, BigDecimal.valueOf(48).compareTo(timeReport.getTotalTime()));
+    }
+
     @Test
     public void testIsWithinMonth() {
         Day[] days = new Day[1];
@@ -158,20 +189,6 @@ public class TimeReportConverterTest {
 
     @Test
     public void convertToUserVacationsTest() {
-        List<UserPO> userPOs = new ArrayList<>();
-        UserPO userPO1 = new UserPO(1L);
-        userPO1.setFirstName("Kalle");
-        userPO1.setLastName("Anka");
-        UserPO userPO2 = new UserPO(2L);
-        userPO2.setFirstName("Kajsa");
-        userPO2.setLastName("Anka");
-        UserPO userPO3 = new UserPO(3L);
-        userPO3.setFirstName("Joakim");
-        userPO3.setLastName("von Anka");
-        userPOs.add(userPO1);
-        userPOs.add(userPO2);
-        userPOs.add(userPO3);
-
         LocalDate now = LocalDate.now();
         LocalDate tomorrow = now.plusDays(1);
 
@@ -179,31 +196,18 @@ public class TimeReportConverterTest {
         days[0] = Day.builder().date(now).build();
         days[1] = Day.builder().date(tomorrow).build();
 
-        List<TimeEntryPO> timeReportDayPOS = new ArrayList<>();
-
-        TimeEntryPO timeReportDayPO1 = new TimeEntryPO();
-        TaskContributorPO taskContributorPO1 = new TaskContributorPO();
-        taskContributorPO1.setUser(userPO1);
-        timeReportDayPO1.setTaskContributor(taskContributorPO1);
-        timeReportDayPO1.setDate(now);
-
-        TimeEntryPO timeReportDayPO2 = new TimeEntryPO();
-        TaskContributorPO taskContributorPO2 = new TaskContributorPO();
-        taskContributorPO2.setUser(userPO1);
-        timeReportDayPO2.setTaskContributor(taskContributorPO2);
-        timeReportDayPO2.setDate(tomorrow);
-
-        TimeEntryPO timeReportDayPO3 = new TimeEntryPO();
-        TaskContributorPO taskContributorPO3 = new TaskContributorPO();
-        taskContributorPO3.setUser(userPO2);
-        timeReportDayPO3.setTaskContributor(taskContributorPO3);
-        timeReportDayPO3.setDate(now);
+        BitSet vacationDays1 = new BitSet();
+        vacationDays1.set(0);
+        vacationDays1.set(1);
+        BitSet vacationDays2 = new BitSet();
+        vacationDays2.set(0);
 
-        timeReportDayPOS.add(timeReportDayPO1);
-        timeReportDayPOS.add(timeReportDayPO2);
-        timeReportDayPOS.add(timeReportDayPO3);
+        List<UserVacationDays> userVacationDays = List.of(
+                new UserVacationDays(1L, "Kalle Anka", vacationDays1),
+                new UserVacationDays(2L, "Kajsa Anka", vacationDays2),
+                new UserVacationDays(3L, "Joakim von Anka", new BitSet()));
 
-        List<UserVacation> vacations = timeReportConverter.convertToUserVacations(userPOs, timeReportDayPOS, days);
+        List<UserVacation> vacations = timeReportConverter.convertToUserVacations(userVacationDays, days);
 
         assertEquals(3, vacations.size());
 
@@ -82,22 +82,22 @@ public class TimeReportServiceTest {
         UserPO userPO = new UserPO(1L);
         LocalDate date1 = LocalDate.of(2018, 11, 1);
         LocalDate date2 = LocalDate.of(2018, 12, 1);
-        when(closeDateRepository.findByUserAndDate(userPO, date1)).thenReturn(null);
-        when(closeDateRepository.findByUserAndDate(userPO, date2)).thenReturn(null);
+        Set<LocalDate> months = Set.of(date1, date2);
+        when(closeDateRepository.findByUserIdsAndDates(Set.of(1L), months)).thenReturn(List.of());
         Set<LocalDate> closedMonths = timeReportService.getClosedMonths(days, userPO);
         assertEquals(0, closedMonths.size());
 
         CloseDatePO closeDatePO1 = new CloseDatePO();
         closeDatePO1.setUser(userPO);
         closeDatePO1.setDate(date1);
-        when(closeDateRepository.findByUserAndDate(userPO, date1)).thenReturn(closeDatePO1);
+        when(closeDateRepository.findByUserIdsAndDates(Set.of(1L), months)).thenReturn(List.of(closeDatePO1));
         closedMonths = timeReportService.getClosedMonths(days, userPO);
         assertEquals(1, closedMonths.size());
 
         CloseDatePO closeDatePO2 = new CloseDatePO();
         closeDatePO2.setUser(userPO);
         closeDatePO2.setDate(date2);
-        when(closeDateRepository.findByUserAndDate(userPO, date2)).thenReturn(closeDatePO2);
+        when(closeDateRepository.findByUserIdsAndDates(Set.of(1L), months)).thenReturn(List.of(closeDatePO1, closeDatePO2));
         closedMonths = timeReportService.getClosedMonths(days, userPO);
         assertEquals(2, closedMonths.size());
     }
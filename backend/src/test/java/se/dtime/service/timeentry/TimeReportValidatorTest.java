@@ -20,10 +20,12 @@ import se.dtime.repository.TaskContributorRepository;
 import se.dtime.service.calendar.CalendarService;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -280,4 +282,39 @@ public class TimeReportValidatorTest {
                 .build();
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void validateBatchClosedMonth() {
+        UserPO userPO = new UserPO(7L);
+        TaskContributorPO taskContributorPO = new TaskContributorPO(1);
+        taskContributorPO.setUser(userPO);
+        taskContributorPO.setActivationStatus(ActivationStatus.ACTIVE);
+        when(taskContributorRepository.findAllById(any())).thenReturn(List.of(taskContributorPO));
+
+        CloseDatePO closeDatePO = new CloseDatePO();
+        closeDatePO.setUser(userPO);
+        closeDatePO.setDate(LocalDate.of(2025, 3, 1));
+        when(closeDateRepository.findByUserIdsAndDates(any(), any())).thenReturn(List.of(closeDatePO));
+
+        List<TimeEntry> timeEntries = List.of(
+                TimeEntry.builder().taskContributorId(1).time(BigDecimal.ONE).day(Day.builder().date(LocalDate.of(2025, 2, 28)).build()).build(),
+                TimeEntry.builder().taskContributorId(1).time(BigDecimal.ONE).day(Day.builder().date(LocalDate.of(2025, 3, 3)).build()).build());
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            timeReportValidator.validateBatch(timeEntries);
+        });
+        assert exception.getMessage().contains("time.report.is.closed");
+    }
+
+    @Test
+    public void validateBatchTaskContributorNotFound() {
+        when(taskContributorRepository.findAllById(any())).thenReturn(List.of());
+
+        List<TimeEntry> timeEntries = List.of(
+                TimeEntry.builder().taskContributorId(1).time(BigDecimal.ONE).day(Day.builder().date(LocalDate.of(2025, 3, 3)).build()).build());
+
+        assertThrows(ValidationException.class, () -> {
+            timeReportValidator.validateBatch(timeEntries);
+        });
+    }
+}
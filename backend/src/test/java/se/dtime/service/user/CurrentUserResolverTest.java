@@ -1,9 +1,9 @@
 package se.dtime.service.user;
 
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.Authentication;
@@ -17,7 +17,10 @@ import se.dtime.dbmodel.UserPO;
 import se.dtime.model.UserExt;
 import se.dtime.model.error.NotFoundException;
 import se.dtime.repository.UserRepository;
+import se.dtime.service.cache.CacheInvalidationEvent;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -30,18 +33,25 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CurrentUserResolverTest {
 
-    @InjectMocks
     private CurrentUserResolver currentUserResolver;
 
     @Mock
     private UserRepository userRepository;
 
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        currentUserResolver = new CurrentUserResolver(userRepository, events::add, Duration.ofMinutes(5));
+    }
+
     @AfterEach
     void clearSecurity() {
         SecurityContextHolder.clearContext();
@@ -116,6 +126,56 @@ class CurrentUserResolverTest {
         assertThrows(NotFoundException.class, () -> currentUserResolver.resolveCurrentUser());
     }
 
+    @Test
+    void resolveCurrentUserId_cachesResolvedPrincipal() {
+        OAuth2User oauth2User = new DefaultOAuth2User(
+                List.of(new SimpleGrantedAuthority("ROLE_USER")),
+                Map.of("sub", "oidc-sub-123", "email", "user@example.com"),
+                "sub"
+        );
+        SecurityContextHolder.setContext(createSecurityContext(oauth2User, "oidc-sub-123"));
+        when(userRepository.findByExternalId("oidc-sub-123")).thenReturn(new UserPO(42L));
+
+        assertEquals(42L, currentUserResolver.resolveCurrentUserId());
+        assertEquals(42L, currentUserResolver.resolveCurrentUserId());
+
+        verify(userRepository, times(1)).findByExternalId("oidc-sub-123");
+    }
+
+    @Test
+    void resolveCurrentUserId_doesNotCacheUnknownPrincipal() {
+        SecurityContextHolder.setContext(createSecurityContext("anonymous", "nobody@x.com"));
+        when(userRepository.findByEmail("nobody@x.com")).thenReturn(null);
+
+        assertEquals(1L, currentUserResolver.resolveCurrentUserId());
+        assertEquals(1L, currentUserResolver.resolveCurrentUserId());
+
+        verify(userRepository, times(2)).findByEmail("nobody@x.com");
+    }
+
+    @Test
+    void evictUser_forcesNewLookupAndNotifiesOtherNodes() {
+        SecurityContextHolder.setContext(createSecurityContext("principal", "user@example.com"));
+        when(userRepository.findByEmail("user@example.com")).thenReturn(new UserPO(7L));
+        currentUserResolver.resolveCurrentUserId();
+
+        currentUserResolver.evictUser(7L);
+        currentUserResolver.resolveCurrentUserId();
+
+        verify(userRepository, times(2)).findByEmail("user@example.com");
+        assertEquals(List.of(new CacheInvalidationEvent(CurrentUserResolver.CACHE_NAME, "7")), events);
+    }
+
+    @Test
+    void resolveCurrentUser_cachedUserDeleted_looksUpAgain() {
+        SecurityContextHolder.setContext(createSecurityContext("principal", "user@example.com"));
+        when(userRepository.findByEmail("user@example.com")).thenReturn(new UserPO(7L), new UserPO(8L));
+        currentUserResolver.resolveCurrentUserId();
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertEquals(8L, currentUserResolver.resolveCurrentUser().getId());
+    }
+
     private SecurityContext createSecurityContext(Object principal, String authName) {
         return new SecurityContext() {
             @Override
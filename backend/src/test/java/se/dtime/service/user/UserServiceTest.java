@@ -7,15 +7,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
-import se.dtime.dbmodel.TaskContributorPO;
 import se.dtime.dbmodel.UserPO;
 import se.dtime.model.ActivationStatus;
 import se.dtime.model.User;
 import se.dtime.model.UserRole;
 import se.dtime.model.error.NotFoundException;
-import se.dtime.repository.TaskContributorRepository;
 import se.dtime.repository.UserRepository;
+import se.dtime.repository.jdbc.TaskContributorUpsertRepository;
+import se.dtime.service.calendar.CalendarService;
+import se.dtime.service.report.ReportCache;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -40,7 +42,13 @@ class UserServiceTest {
     @Mock
     private UserValidator userValidator;
     @Mock
-    private TaskContributorRepository taskContributorRepository;
+    private TaskContributorUpsertRepository taskContributorUpsertRepository;
+    @Mock
+    private CurrentUserResolver currentUserResolver;
+    @Mock
+    private CalendarService calendarService;
+    @Mock
+    private ReportCache reportCache;
 
     private User testUser;
     private UserPO testUserPO;
@@ -68,19 +76,19 @@ class UserServiceTest {
 
     @Test
     void deactivate_ActiveUser_ShouldSetInactiveAndDeactivateTaskContributors() {
-        TaskContributorPO taskContributor = new TaskContributorPO();
-        taskContributor.setActivationStatus(ActivationStatus.ACTIVE);
-
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 12, 0);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUserPO));
-        when(taskContributorRepository.findByUser(testUserPO))
-                .thenReturn(Collections.singletonList(taskContributor));
+        when(currentUserResolver.resolveCurrentUserId()).thenReturn(7L);
+        when(calendarService.getNowDateTime()).thenReturn(now);
 
         assertDoesNotThrow(() -> userService.deactivate(1L));
 
         verify(userValidator).validateDeactivate(1L);
         assertThat(testUserPO.getActivationStatus()).isEqualTo(ActivationStatus.INACTIVE);
-        assertThat(taskContributor.getActivationStatus()).isEqualTo(ActivationStatus.INACTIVE);
         verify(userRepository).save(testUserPO);
+        verify(taskContributorUpsertRepository).deactivateByUser(1L, 7L, now);
+        verify(currentUserResolver).evictUser(1L);
+        verify(reportCache).invalidateAll();
     }
 
     @Test
@@ -101,6 +109,8 @@ class UserServiceTest {
         verify(userValidator).validateActivate(1L);
         assertThat(testUserPO.getActivationStatus()).isEqualTo(ActivationStatus.ACTIVE);
         verify(userRepository).save(testUserPO);
+        verify(currentUserResolver).evictUser(1L);
+        verify(reportCache).invalidateAll();
     }
 
     @Test
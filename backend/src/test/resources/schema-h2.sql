@@ -11,6 +11,8 @@ CREATE SEQUENCE IF NOT EXISTS seq_systemproperty START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE IF NOT EXISTS seq_publicspecialDay START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE IF NOT EXISTS seq_task START WITH 1 INCREMENT BY 1;
 CREATE SEQUENCE IF NOT EXISTS seq_timeentry START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS seq_email_outbox START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS seq_scheduled_job_run START WITH 1 INCREMENT BY 1;
 
 -- Create rate table (optional table referenced in FollowUpReportRepository)
 CREATE TABLE IF NOT EXISTS rate (
@@ -21,4 +23,47 @@ CREATE TABLE IF NOT EXISTS rate (
     comment VARCHAR(255)
 );
 
+-- Create monthly rollup of time_report (maintained by TimeReportMonthRepository)
+CREATE TABLE IF NOT EXISTS time_report_month (
+    id_task_contributor BIGINT NOT NULL,
+    month_date DATE NOT NULL,
+    reportedtime NUMERIC(6, 2) NOT NULL,
+    PRIMARY KEY (id_task_contributor, month_date)
+);
+
+-- Create outbox of emails to send (maintained by EmailOutboxRepository)
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT PRIMARY KEY,
+    recipient VARCHAR(60) NOT NULL,
+    subject VARCHAR(200) NOT NULL,
+    body VARCHAR(4000) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(500),
+    createdatetime TIMESTAMP NOT NULL,
+    sentdatetime TIMESTAMP
+);
+
+-- Create cluster wide scheduled jobs and their run history (maintained by ScheduledJobRepository)
+CREATE TABLE IF NOT EXISTS scheduled_job (
+    name VARCHAR(100) PRIMARY KEY,
+    cron VARCHAR(100) NOT NULL,
+    next_run_at TIMESTAMP NOT NULL,
+    last_run_at TIMESTAMP,
+    locked_by VARCHAR(100),
+    locked_until TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS scheduled_job_run (
+    id BIGINT PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    node VARCHAR(100) NOT NULL,
+    scheduled_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    error VARCHAR(500)
+);
+
 -- Note: monthlycheck table will be created automatically by Hibernate based on MonthlyCheckPO entity
\ No newline at end of file
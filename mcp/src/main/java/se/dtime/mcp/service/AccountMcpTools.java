@@ -27,8 +27,10 @@ public class AccountMcpTools extends McpToolsSupport {
 
     @Tool(description =
             "List accounts with pagination. page is 0-based. sort: id, name, activationStatus "
-                    + "(not accountId — use id). direction: asc or desc.")
-    public String getPagedAccounts(int page, int size, String sort, String direction) throws Exception {
+                    + "(not accountId — use id). direction: asc or desc. "
+                    + "To enumerate all accounts pass after=\"\" and then the nextCursor of each response until it is null; "
+                    + "page is ignored and no totals are counted in that mode.")
+    public String getPagedAccounts(int page, int size, String sort, String direction, String after) throws Exception {
         String mappedSort = PagedApiSort.accounts(sort);
         log.debug("MCP getPagedAccounts page={} sort={}", page, mappedSort);
         Map<String, Object> params = queryMap();
@@ -36,7 +38,7 @@ public class AccountMcpTools extends McpToolsSupport {
         params.put("size", size);
         params.put("sort", mappedSort);
         params.put("direction", direction);
-        return getJson(buildPath("/api/account/paged", params));
+        return getJson(buildPagedPath("/api/account/paged", params, after));
     }
 
     @Tool(description = "Get account by id")
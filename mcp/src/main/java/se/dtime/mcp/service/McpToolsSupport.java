@@ -43,6 +43,18 @@ abstract class McpToolsSupport {
         return builder.build().toUriString();
     }
 
+    /**
+     * {@link #buildPath} for a {@code /paged} endpoint. A non-null {@code after} switches the backend to cursor paging
+     * and is sent even when blank, which asks for the first page.
+     */
+    static String buildPagedPath(String path, Map<String, ?> queryParams, String after) {
+        String pagedPath = buildPath(path, queryParams);
+        if (after == null) {
+            return pagedPath;
+        }
+        return UriComponentsBuilder.fromUriString(pagedPath).queryParam("after", after.trim()).build().toUriString();
+    }
+
     static void putIfPresent(Map<String, Object> map, String key, Object value) {
         if (value == null) {
             return;
@@ -37,4 +37,17 @@ public class ReportMcpTools extends McpToolsSupport {
         params.put("toDate", toDate);
         return getJson(buildPath("/api/report/billable-task-type", params));
     }
+
+    @Tool(description =
+            "Monthly hours trend in one call (admin) - use instead of calling getReport once per month. "
+                    + "group: ACCOUNT, TASK, USER or BILLABLE. fromDate/toDate: ISO YYYY-MM-DD inside the first/last month; "
+                    + "omit both for the last 12 months (max 120 months). "
+                    + "Response: periods[] (YYYY-MM) and series[] with id, name and values[] aligned to periods.")
+    public String getTrendReport(String group, String fromDate, String toDate) throws Exception {
+        Map<String, Object> params = queryMap();
+        params.put("group", group);
+        putIfPresent(params, "fromDate", fromDate);
+        putIfPresent(params, "toDate", toDate);
+        return getJson(buildPath("/api/report/trend", params));
+    }
 }
@@ -25,15 +25,17 @@ public class TaskMcpTools extends McpToolsSupport {
 
     @Tool(description =
             "List tasks with pagination. page is 0-based. sort: id, name, activationStatus, taskType, isBillable "
-                    + "(not taskId — use id). direction: asc or desc.")
-    public String getPagedTasks(int page, int size, String sort, String direction) throws Exception {
+                    + "(not taskId — use id). direction: asc or desc. "
+                    + "To enumerate all tasks pass after=\"\" and then the nextCursor of each response until it is null; "
+                    + "page is ignored and no totals are counted in that mode.")
+    public String getPagedTasks(int page, int size, String sort, String direction, String after) throws Exception {
         String mappedSort = PagedApiSort.tasks(sort);
         Map<String, Object> params = queryMap();
         params.put("page", page);
         params.put("size", size);
         params.put("sort", mappedSort);
         params.put("direction", direction);
-        return getJson(buildPath("/api/task/paged", params));
+        return getJson(buildPagedPath("/api/task/paged", params, after));
     }
 
     @Tool(description = "Get task by id")
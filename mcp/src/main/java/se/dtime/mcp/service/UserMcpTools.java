@@ -28,8 +28,10 @@ public class UserMcpTools extends McpToolsSupport {
     @Tool(description =
             "List users with pagination. page is 0-based. sort must be one of: id, displayName, email, "
                     + "userRole, activationStatus, firstName, lastName (maps to displayName), externalId. "
-                    + "Do not use userId — use id. direction: asc or desc.")
-    public String getPagedUsers(int page, int size, String sort, String direction) throws Exception {
+                    + "Do not use userId — use id. direction: asc or desc. "
+                    + "To enumerate all users pass after=\"\" and then the nextCursor of each response until it is null; "
+                    + "page is ignored and no totals are counted in that mode.")
+    public String getPagedUsers(int page, int size, String sort, String direction, String after) throws Exception {
         String mappedSort = PagedApiSort.users(sort);
         log.debug("MCP getPagedUsers page={} size={} sort={} direction={}", page, size, mappedSort, direction);
         Map<String, Object> params = queryMap();
@@ -37,7 +39,7 @@ public class UserMcpTools extends McpToolsSupport {
         params.put("size", size);
         params.put("sort", mappedSort);
         params.put("direction", direction);
-        return getJson(buildPath("/api/users/paged", params));
+        return getJson(buildPagedPath("/api/users/paged", params, after));
     }
 
     @Tool(description = "Get user by numeric id")
@@ -32,7 +32,7 @@ class AccountMcpToolsTest {
                 "/api/account/paged?page=0&size=10&sort=name&direction=asc", Object.class))
                 .thenReturn(Map.of());
 
-        tools.getPagedAccounts(0, 10, "name", "asc");
+        tools.getPagedAccounts(0, 10, "name", "asc", null);
 
         verify(backendApiClient).get(
                 "/api/account/paged?page=0&size=10&sort=name&direction=asc", Object.class);
@@ -53,9 +53,33 @@ class AccountMcpToolsTest {
                 "/api/account/paged?page=0&size=5&sort=id&direction=desc", Object.class))
                 .thenReturn(Map.of());
 
-        tools.getPagedAccounts(0, 5, "accountId", "desc");
+        tools.getPagedAccounts(0, 5, "accountId", "desc", null);
 
         verify(backendApiClient).get(
                 "/api/account/paged?page=0&size=5&sort=id&direction=desc", Object.class);
     }
+
+    @Test
+    void getPagedAccounts_sendsBlankCursorForFirstPage() throws Exception {
+        when(backendApiClient.get(
+                "/api/account/paged?page=0&size=50&sort=id&direction=asc&after=", Object.class))
+                .thenReturn(Map.of());
+
+        tools.getPagedAccounts(0, 50, "id", "asc", "");
+
+        verify(backendApiClient).get(
+                "/api/account/paged?page=0&size=50&sort=id&direction=asc&after=", Object.class);
+    }
+
+    @Test
+    void getPagedAccounts_sendsNextCursor() throws Exception {
+        when(backendApiClient.get(
+                "/api/account/paged?page=0&size=50&sort=name&direction=asc&after=bmFtZQoxMgpBY21l", Object.class))
+                .thenReturn(Map.of());
+
+        tools.getPagedAccounts(0, 50, "name", "asc", "bmFtZQoxMgpBY21l");
+
+        verify(backendApiClient).get(
+                "/api/account/paged?page=0&size=50&sort=name&direction=asc&after=bmFtZQoxMgpBY21l", Object.class);
+    }
 }
@@ -57,4 +57,16 @@ class ReportMcpToolsTest {
         verify(backendApiClient).get(
                 "/api/report/billable-task-type?fromDate=2024-01-01&toDate=2024-01-31", Object.class);
     }
+
+    @Test
+    void getTrendReport_includesGroupAndDateRange() throws Exception {
+        when(backendApiClient.get(
+                "/api/report/trend?group=ACCOUNT&fromDate=2023-01-01&toDate=2025-12-31", Object.class))
+                .thenReturn(Map.of());
+
+        tools.getTrendReport("ACCOUNT", "2023-01-01", "2025-12-31");
+
+        verify(backendApiClient).get(
+                "/api/report/trend?group=ACCOUNT&fromDate=2023-01-01&toDate=2025-12-31", Object.class);
+    }
 }
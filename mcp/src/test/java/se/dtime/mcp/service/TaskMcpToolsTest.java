@@ -32,7 +32,7 @@ class TaskMcpToolsTest {
                 "/api/task/paged?page=1&size=20&sort=name&direction=asc", Object.class))
                 .thenReturn(Map.of());
 
-        tools.getPagedTasks(1, 20, "name", "asc");
+        tools.getPagedTasks(1, 20, "name", "asc", null);
 
         verify(backendApiClient).get(
                 "/api/task/paged?page=1&size=20&sort=name&direction=asc", Object.class);
@@ -57,7 +57,7 @@ class UserMcpToolsTest {
                 "/api/users/paged?page=0&size=10&sort=firstName&direction=asc", Object.class))
                 .thenReturn(Map.of("content", java.util.List.of()));
 
-        tools.getPagedUsers(0, 10, "firstName", "asc");
+        tools.getPagedUsers(0, 10, "firstName", "asc", null);
 
         verify(backendApiClient).get(
                 "/api/users/paged?page=0&size=10&sort=firstName&direction=asc", Object.class);
@@ -69,7 +69,7 @@ class UserMcpToolsTest {
                 "/api/users/paged?page=0&size=100&sort=id&direction=asc", Object.class))
                 .thenReturn(Map.of("content", java.util.List.of(), "totalElements", 5));
 
-        tools.getPagedUsers(0, 100, "userId", "asc");
+        tools.getPagedUsers(0, 100, "userId", "asc", null);
 
         verify(backendApiClient).get(
                 "/api/users/paged?page=0&size=100&sort=id&direction=asc", Object.class);